@@ -0,0 +1,40 @@
+package com.postechfiap.meuhospital.benchmarks;
+
+import com.postechfiap.meuhospital.contracts.core.Role;
+import com.postechfiap.meuhospital.contracts.events.ConsultaCriadaEvent;
+import com.postechfiap.meuhospital.contracts.events.MedicoEvent;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Massa de dados fixa dos benchmarks: valores constantes (sem UUID aleatório ou relógio)
+ * para que os resultados sejam comparáveis entre commits.
+ */
+public final class DadosBenchmark {
+
+    public static final long SEMENTE = 42L;
+
+    public static final UUID CONSULTA_ID = UUID.fromString("6f1c3f5e-2d4b-4a8e-9c71-0b5d2e8f4a13");
+    public static final UUID PACIENTE_ID = UUID.fromString("1b9d6bcd-bbfd-4b2d-9b5d-ab8dfbbd4bed");
+    public static final UUID MEDICO_ID = UUID.fromString("3e2a1c4b-5d6e-4f70-8a9b-0c1d2e3f4a5b");
+    public static final LocalDateTime DATA_CONSULTA = LocalDateTime.of(2030, 3, 15, 14, 30);
+    public static final LocalDateTime DATA_EVENTO = LocalDateTime.of(2030, 3, 10, 9, 0, 0, 123_456_000);
+
+    public static final String SEGREDO_JWT =
+            "benchmark-segredo-jwt-com-pelo-menos-64-bytes-para-hs512-0123456789abcdefghijklmnopqrstuvwxyz";
+
+    private DadosBenchmark() {
+    }
+
+    public static ConsultaCriadaEvent consulta(String tipoEvento) {
+        return new ConsultaCriadaEvent(CONSULTA_ID, PACIENTE_ID, "Maria da Silva Santos",
+                "maria.santos@email.com", "(11) 98765-4321", MEDICO_ID, "João Pereira",
+                DATA_CONSULTA, "AGENDADA", tipoEvento, DATA_EVENTO);
+    }
+
+    public static MedicoEvent medico() {
+        return new MedicoEvent(MEDICO_ID, "João Pereira", "CRM/SP-123456", "CARDIOLOGIA",
+                Role.MEDICO, "ATUALIZACAO", DATA_EVENTO);
+    }
+}
@@ -0,0 +1,95 @@
+package com.postechfiap.meuhospital.benchmarks.agenda;
+
+import com.postechfiap.meuhospital.agendamento.agenda.AgendaMedicoIndex;
+import com.postechfiap.meuhospital.benchmarks.DadosBenchmark;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verificação de disponibilidade do ms-agendamento no índice em memória (AgendaMedicoIndex),
+ * caminho usado pela pré-validação de criação/edição e pela busca de horários livres.
+ * A agenda é preenchida com uma semente fixa: consultas de 30 minutos em dias consecutivos, 08h às 18h.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DisponibilidadeBenchmark {
+
+    private static final int DURACAO_MINUTOS = 30;
+    private static final int SLOTS_POR_DIA = 20;
+    private static final LocalDate PRIMEIRO_DIA = DadosBenchmark.DATA_CONSULTA.toLocalDate();
+
+    @Param({"100", "1000"})
+    private int medicos;
+
+    @Param({"30"})
+    private int dias;
+
+    private AgendaMedicoIndex agendaMedicoIndex;
+    private UUID medicoId;
+    private LocalDateTime horarioOcupado;
+    private LocalDateTime horarioLivre;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        agendaMedicoIndex = new AgendaMedicoIndex(null);
+        Random random = new Random(DadosBenchmark.SEMENTE);
+
+        for (int m = 0; m < medicos; m++) {
+            UUID medico = new UUID(DadosBenchmark.SEMENTE, m);
+            for (int d = 0; d < dias; d++) {
+                for (int s = 0; s < SLOTS_POR_DIA; s++) {
+                    // Ocupação de ~70% da agenda
+                    if (random.nextInt(10) < 7) {
+                        agendaMedicoIndex.reservar(medico, slot(d, s), new UUID(m, (long) d * SLOTS_POR_DIA + s));
+                    }
+                }
+            }
+        }
+
+        medicoId = new UUID(DadosBenchmark.SEMENTE, medicos / 2);
+        horarioOcupado = agendaMedicoIndex.horariosOcupados(medicoId, slot(dias / 2, 0), slot(dias / 2 + 1, 0)).get(0);
+        horarioLivre = slot(dias + 1, 0);
+    }
+
+    @Benchmark
+    public boolean conflitoHorarioOcupado() {
+        return agendaMedicoIndex.possuiConflito(medicoId, horarioOcupado, horarioOcupado.plusMinutes(DURACAO_MINUTOS), null);
+    }
+
+    @Benchmark
+    public boolean conflitoHorarioLivre() {
+        return agendaMedicoIndex.possuiConflito(medicoId, horarioLivre, horarioLivre.plusMinutes(DURACAO_MINUTOS), null);
+    }
+
+    @Benchmark
+    public List<LocalDateTime> horariosOcupadosDoDia() {
+        LocalDateTime inicio = slot(dias / 2, 0);
+        return agendaMedicoIndex.horariosOcupados(medicoId, inicio, inicio.plusDays(1));
+    }
+
+    private static LocalDateTime slot(int dia, int indice) {
+        return LocalDateTime.of(PRIMEIRO_DIA.plusDays(dia), LocalTime.of(8, 0)).plusMinutes((long) indice * DURACAO_MINUTOS);
+    }
+}
@@ -0,0 +1,117 @@
+package com.postechfiap.meuhospital.benchmarks.jwt;
+
+import com.postechfiap.meuhospital.autenticacao.entity.Usuario;
+import com.postechfiap.meuhospital.benchmarks.DadosBenchmark;
+import com.postechfiap.meuhospital.contracts.core.Role;
+import com.postechfiap.meuhospital.contracts.seguranca.CacheTokens;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de cada algoritmo de assinatura do JWT (app.jwt.algoritmo): emissão no ms-autenticacao e verificação
+ * no ms-agendamento, sem cache ("verificar") e pelo caminho do SecurityFilter ("verificarComCache", token já visto).
+ * Nos assimétricos, o ms-agendamento obtém as chaves públicas de um JWKS servido localmente por HTTP,
+ * como faria com GET /auth/jwks; a busca acontece uma vez, no setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AssinaturaJwtBenchmark {
+
+    private static final long EXPIRACAO_MS = TimeUnit.HOURS.toMillis(1);
+    private static final String KID = "principal";
+
+    @Param({"HS512", "ES256", "EdDSA"})
+    public String algoritmo;
+
+    private HttpServer servidorJwks;
+
+    private com.postechfiap.meuhospital.autenticacao.security.JwtService jwtAutenticacao;
+    private com.postechfiap.meuhospital.agendamento.security.JwtService jwtAgendamento;
+    private CacheTokens cacheAgendamento;
+
+    private Authentication autenticacao;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        boolean hmac = "HS512".equals(algoritmo);
+        String segredo = hmac ? DadosBenchmark.SEGREDO_JWT : "";
+
+        jwtAutenticacao = new com.postechfiap.meuhospital.autenticacao.security.JwtService(
+                segredo, EXPIRACAO_MS, KID, "", algoritmo, "", true);
+
+        byte[] jwks = jwtAutenticacao.jwks().getBytes(StandardCharsets.UTF_8);
+        servidorJwks = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        servidorJwks.createContext("/auth/jwks", troca -> {
+            troca.getResponseHeaders().add("Content-Type", "application/jwk-set+json");
+            troca.sendResponseHeaders(200, jwks.length);
+            try (OutputStream corpo = troca.getResponseBody()) {
+                corpo.write(jwks);
+            }
+        });
+        servidorJwks.start();
+        String urlJwks = "http://localhost:" + servidorJwks.getAddress().getPort() + "/auth/jwks";
+
+        jwtAgendamento = new com.postechfiap.meuhospital.agendamento.security.JwtService(
+                segredo, EXPIRACAO_MS, KID, "", urlJwks, Duration.ofSeconds(30), Duration.ofMinutes(10));
+        cacheAgendamento = new CacheTokens(
+                jwtAgendamento, 10_000, new SimpleMeterRegistry());
+
+        Usuario usuario = new Usuario();
+        usuario.setId(DadosBenchmark.MEDICO_ID);
+        usuario.setEmail("joao.pereira@meuhospital.com");
+        usuario.setRole(Role.MEDICO);
+        autenticacao = new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
+
+        token = jwtAutenticacao.generateToken(autenticacao);
+        // Primeira verificação busca o JWKS (fora da medição)
+        jwtAgendamento.verificar(token);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        servidorJwks.stop(0);
+    }
+
+    @Benchmark
+    public String assinar() {
+        return jwtAutenticacao.generateToken(autenticacao);
+    }
+
+    @Benchmark
+    public Object verificar() {
+        return jwtAgendamento.verificar(token);
+    }
+
+    @Benchmark
+    public Object verificarComCache() {
+        return cacheAgendamento.verificar(token);
+    }
+}
@@ -0,0 +1,189 @@
+package com.postechfiap.meuhospital.benchmarks.jwt;
+
+import com.postechfiap.meuhospital.autenticacao.entity.Usuario;
+import com.postechfiap.meuhospital.benchmarks.DadosBenchmark;
+import com.postechfiap.meuhospital.contracts.core.Role;
+import com.postechfiap.meuhospital.contracts.seguranca.CacheTokens;
+import com.postechfiap.meuhospital.contracts.seguranca.ChavesJwt;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emissão (ms-autenticacao) e validação do JWT pelo JwtService de cada microsserviço.
+ * Os benchmarks "filtroLegado" repetem a sequência de chamadas que o SecurityFilter fazia antes do parse único
+ * (até seis verificações de assinatura por requisição), com a API extract* que os JwtService tinham na época,
+ * reproduzida em JwtServiceLegado; os "filtro" medem JwtService.verificar (parse único, sem cache)
+ * e os "filtroComCache" o caminho atual do SecurityFilter (CacheTokens, token já verificado).
+ * "extrairUserId" mede um único parse com verificação de assinatura.
+ * Todos usam HS512 (segredo compartilhado) para manter a série histórica; a comparação entre algoritmos
+ * de assinatura está em AssinaturaJwtBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final long EXPIRACAO_MS = TimeUnit.HOURS.toMillis(1);
+    private static final String KID = "principal";
+    private static final Duration JWKS_INTERVALO = Duration.ofSeconds(30);
+    private static final Duration JWKS_ATUALIZACAO = Duration.ofMinutes(10);
+
+    private com.postechfiap.meuhospital.autenticacao.security.JwtService jwtAutenticacao;
+    private com.postechfiap.meuhospital.agendamento.security.JwtService jwtAgendamento;
+    private com.postechfiap.meuhospital.historico.security.JwtService jwtHistorico;
+    private CacheTokens cacheAutenticacao;
+    private CacheTokens cacheAgendamento;
+    private CacheTokens cacheHistorico;
+    private JwtServiceLegado jwtLegado;
+
+    private Authentication autenticacao;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        jwtAutenticacao = new com.postechfiap.meuhospital.autenticacao.security.JwtService(
+                DadosBenchmark.SEGREDO_JWT, EXPIRACAO_MS, KID, "", "HS512", "", false);
+        jwtAgendamento = new com.postechfiap.meuhospital.agendamento.security.JwtService(
+                DadosBenchmark.SEGREDO_JWT, EXPIRACAO_MS, KID, "", "", JWKS_INTERVALO, JWKS_ATUALIZACAO);
+        jwtHistorico = new com.postechfiap.meuhospital.historico.security.JwtService(
+                DadosBenchmark.SEGREDO_JWT, EXPIRACAO_MS, KID, "", "", JWKS_INTERVALO, JWKS_ATUALIZACAO);
+
+        cacheAutenticacao = new CacheTokens(jwtAutenticacao, 10_000, new SimpleMeterRegistry());
+        cacheAgendamento = new CacheTokens(jwtAgendamento, 10_000, new SimpleMeterRegistry());
+        cacheHistorico = new CacheTokens(jwtHistorico, 10_000, new SimpleMeterRegistry());
+        jwtLegado = new JwtServiceLegado(new ChavesJwt(DadosBenchmark.SEGREDO_JWT, KID, "", kid -> null));
+
+        Usuario usuario = new Usuario();
+        usuario.setId(DadosBenchmark.MEDICO_ID);
+        usuario.setEmail("joao.pereira@meuhospital.com");
+        usuario.setRole(Role.MEDICO);
+        autenticacao = new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
+
+        token = jwtAutenticacao.generateToken(autenticacao);
+        userDetails = User.withUsername(usuario.getEmail()).password("").authorities(Role.MEDICO.name()).build();
+    }
+
+    @Benchmark
+    public String gerarTokenAutenticacao() {
+        return jwtAutenticacao.generateToken(autenticacao);
+    }
+
+    @Benchmark
+    public UUID extrairUserIdAgendamento() {
+        return jwtLegado.extractUserId(token);
+    }
+
+    @Benchmark
+    public void filtroLegadoAutenticacao(Blackhole bh) {
+        bh.consume(jwtLegado.extractUsername(token));
+        bh.consume(jwtLegado.isTokenValid(token, userDetails));
+    }
+
+    @Benchmark
+    public void filtroLegadoAgendamento(Blackhole bh) {
+        bh.consume(jwtLegado.extractUsername(token));
+        bh.consume(jwtLegado.extractClaim(token, (Claims claims) -> claims.get("role", String.class)));
+        bh.consume(jwtLegado.extractUserId(token));
+        bh.consume(jwtLegado.isTokenValid(token, userDetails));
+    }
+
+    @Benchmark
+    public void filtroLegadoHistorico(Blackhole bh) {
+        bh.consume(jwtLegado.extractUsername(token));
+        bh.consume(jwtLegado.extractClaim(token, (Claims claims) -> claims.get("role", String.class)));
+        bh.consume(jwtLegado.extractUserId(token));
+        bh.consume(jwtLegado.isTokenValid(token, userDetails));
+    }
+
+    @Benchmark
+    public Object filtroAutenticacao() {
+        return jwtAutenticacao.verificar(token);
+    }
+
+    @Benchmark
+    public Object filtroAgendamento() {
+        return jwtAgendamento.verificar(token);
+    }
+
+    @Benchmark
+    public Object filtroHistorico() {
+        return jwtHistorico.verificar(token);
+    }
+
+    @Benchmark
+    public Object filtroComCacheAutenticacao() {
+        return cacheAutenticacao.verificar(token);
+    }
+
+    @Benchmark
+    public Object filtroComCacheAgendamento() {
+        return cacheAgendamento.verificar(token);
+    }
+
+    @Benchmark
+    public Object filtroComCacheHistorico() {
+        return cacheHistorico.verificar(token);
+    }
+
+    /**
+     * API de validação que os JwtService tinham antes do parse único: cada método refaz o parse e a verificação
+     * da assinatura. Mesmo parser dos serviços (ChavesJwt com o segredo HS512), mantido aqui só como referência.
+     */
+    private static final class JwtServiceLegado {
+
+        private final JwtParser parser;
+
+        JwtServiceLegado(ChavesJwt chaves) {
+            this.parser = Jwts.parser().keyLocator(chaves).build();
+        }
+
+        String extractUsername(String token) {
+            return extractClaim(token, Claims::getSubject);
+        }
+
+        <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
+            return claimsResolver.apply(parser.parseSignedClaims(token).getPayload());
+        }
+
+        boolean isTokenValid(String token, UserDetails userDetails) {
+            String username = extractUsername(token);
+            return username.equals(userDetails.getUsername()) && !extractClaim(token, Claims::getExpiration).before(new Date());
+        }
+
+        UUID extractUserId(String token) {
+            String idString = extractClaim(token, claims -> claims.get("id", String.class));
+            if (idString == null) {
+                throw new IllegalArgumentException("Token não contém o ID do usuário (claim 'id').");
+            }
+            return UUID.fromString(idString);
+        }
+    }
+}
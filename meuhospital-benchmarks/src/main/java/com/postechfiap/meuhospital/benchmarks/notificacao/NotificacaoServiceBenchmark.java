@@ -0,0 +1,49 @@
+package com.postechfiap.meuhospital.benchmarks.notificacao;
+
+import com.postechfiap.meuhospital.benchmarks.DadosBenchmark;
+import com.postechfiap.meuhospital.contracts.events.ConsultaCriadaEvent;
+import com.postechfiap.meuhospital.notificacao.service.FormatadorCorpoEmail;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montagem do corpo do e-mail do NotificacaoService (FormatadorCorpoEmail) para cada tipo de evento.
+ * Envio SMTP e auditoria no MongoDB ficam fora da medição.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificacaoServiceBenchmark {
+
+    @Param({"CRIACAO", "CANCELAMENTO", "LEMBRETE", "ATUALIZACAO"})
+    private String tipoEvento;
+
+    private FormatadorCorpoEmail formatadorCorpoEmail;
+    private ConsultaCriadaEvent evento;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        formatadorCorpoEmail = new FormatadorCorpoEmail();
+        evento = DadosBenchmark.consulta(tipoEvento);
+    }
+
+    @Benchmark
+    public String formatarCorpoEmail() {
+        return formatadorCorpoEmail.formatar(evento);
+    }
+}
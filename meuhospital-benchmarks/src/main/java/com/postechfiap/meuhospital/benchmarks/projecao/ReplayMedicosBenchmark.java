@@ -0,0 +1,141 @@
+package com.postechfiap.meuhospital.benchmarks.projecao;
+
+import com.postechfiap.meuhospital.agendamento.kafka.MedicoConsumer;
+import com.postechfiap.meuhospital.agendamento.repository.MedicoProjectionUpsertRepository;
+import com.postechfiap.meuhospital.benchmarks.DadosBenchmark;
+import com.postechfiap.meuhospital.contracts.core.Role;
+import com.postechfiap.meuhospital.contracts.events.MedicoEvent;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replay do tópico medico-events (desde o início) na MedicoProjection do ms-agendamento, em um PostgreSQL embarcado
+ * com as migrações do Flyway. Cada medição aplica todos os eventos sobre a tabela vazia.
+ * "porRegistro" reproduz o consumidor anterior: um evento por transação com o SQL do repository.save
+ * (SELECT por id + INSERT ou UPDATE). "emLote" passa pelo MedicoConsumer atual, em lotes de max.poll.records
+ * eventos, cada um deduplicado por userId e gravado com um único upsert em batch.
+ * O resultado é o tempo do replay inteiro: eventos/s = eventos / tempo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 2)
+@Fork(1)
+public class ReplayMedicosBenchmark {
+
+    private static final String BUSCAR = "select id, nome, numero_registro, especialidade, role from medicos_projection where id = ?";
+    private static final String INSERIR = "insert into medicos_projection (nome, numero_registro, especialidade, role, id) values (?, ?, ?, ?, ?)";
+    private static final String ATUALIZAR = "update medicos_projection set nome = ?, numero_registro = ?, especialidade = ?, role = ? where id = ?";
+    private static final String[] ESPECIALIDADES = {"CARDIOLOGIA", "PEDIATRIA", "ORTOPEDIA", "DERMATOLOGIA", "NEUROLOGIA"};
+
+    @Param({"1000000"})
+    private int eventos;
+
+    /** Médicos distintos no tópico: o primeiro evento de cada um é um insert, os demais são atualizações. */
+    @Param({"20000"})
+    private int medicos;
+
+    /** Tamanho do lote entregue ao listener (app.kafka.medico-events.max-poll-records). */
+    @Param({"500"})
+    private int lote;
+
+    private EmbeddedPostgres postgres;
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private MedicoConsumer medicoConsumer;
+    private List<MedicoEvent> topico;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        dataSource = postgres.getPostgresDatabase();
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        // O listener em lote só usa o upsert; o DiretorioMedicos é do outro listener
+        medicoConsumer = new MedicoConsumer(new MedicoProjectionUpsertRepository(jdbcTemplate), null);
+
+        Random random = new Random(DadosBenchmark.SEMENTE);
+        topico = new ArrayList<>(eventos);
+        for (int i = 0; i < eventos; i++) {
+            int medico = i < medicos ? i : random.nextInt(medicos);
+            topico.add(new MedicoEvent(new UUID(DadosBenchmark.SEMENTE, medico), "Médico " + medico + " v" + i,
+                    "CRM/SP-" + medico, ESPECIALIDADES[random.nextInt(ESPECIALIDADES.length)], Role.MEDICO,
+                    i < medicos ? "CRIACAO" : "ATUALIZACAO", DadosBenchmark.DATA_EVENTO.plusNanos(i * 1000L)));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void limparProjecao() {
+        jdbcTemplate.execute("truncate table medicos_projection");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        postgres.close();
+    }
+
+    @Benchmark
+    public void porRegistro() throws SQLException {
+        try (Connection conexao = dataSource.getConnection();
+             PreparedStatement buscar = conexao.prepareStatement(BUSCAR);
+             PreparedStatement inserir = conexao.prepareStatement(INSERIR);
+             PreparedStatement atualizar = conexao.prepareStatement(ATUALIZAR)) {
+            conexao.setAutoCommit(false);
+            for (MedicoEvent event : topico) {
+                buscar.setObject(1, event.userId());
+                boolean existe;
+                try (ResultSet rs = buscar.executeQuery()) {
+                    existe = rs.next();
+                }
+                PreparedStatement escrita = existe ? atualizar : inserir;
+                escrita.setString(1, event.nome());
+                escrita.setString(2, event.numeroRegistro());
+                escrita.setString(3, event.especialidade());
+                escrita.setString(4, event.role().name());
+                escrita.setObject(5, event.userId());
+                escrita.executeUpdate();
+                conexao.commit();
+            }
+        }
+    }
+
+    @Benchmark
+    public void emLote() {
+        for (int inicio = 0; inicio < topico.size(); inicio += lote) {
+            List<MedicoEvent> poll = topico.subList(inicio, Math.min(inicio + lote, topico.size()));
+            transactionTemplate.executeWithoutResult(status -> medicoConsumer.consume(poll));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.postechfiap.meuhospital.benchmarks.senha;
+
+import com.postechfiap.meuhospital.autenticacao.security.CustoBCryptPasswordEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do PasswordEncoder do ms-autenticacao (BCrypt) nos custos candidatos de app.senha.custo.
+ * "verificar" é o trabalho de cada login (uma thread do pool de verificação por login durante esse tempo);
+ * "codificar" é o de cadastro e do rehash após mudança de custo.
+ * Capacidade aproximada de logins/s por instância = threads do pool (CPUs) / tempo de "verificar".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class SenhaEncoderBenchmark {
+
+    private static final String SENHA = "Senha@Forte123";
+
+    @Param({"8", "10", "11", "12"})
+    public int custo;
+
+    private CustoBCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        encoder = new CustoBCryptPasswordEncoder(custo);
+        hash = encoder.encode(SENHA);
+    }
+
+    @Benchmark
+    public String codificar() {
+        return encoder.encode(SENHA);
+    }
+
+    @Benchmark
+    public boolean verificar() {
+        return encoder.matches(SENHA, hash);
+    }
+}
@@ -0,0 +1,119 @@
+package com.postechfiap.meuhospital.benchmarks.serializacao;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.postechfiap.meuhospital.benchmarks.DadosBenchmark;
+import com.postechfiap.meuhospital.contracts.events.ConsultaCriadaEvent;
+import com.postechfiap.meuhospital.contracts.events.MedicoEvent;
+import com.postechfiap.meuhospital.contracts.serializacao.EventoDeserializer;
+import com.postechfiap.meuhospital.contracts.serializacao.EventoSerializer;
+import com.postechfiap.meuhospital.contracts.serializacao.FormatoEvento;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara JSON (JsonSerializer do Spring Kafka, configuração atual dos microsserviços) e Avro binário
+ * na serialização/desserialização de ConsultaCriadaEvent e MedicoEvent.
+ * O tamanho do payload de cada formato sai como métrica secundária dos benchmarks de serialização
+ * (serializarConsulta:bytes, serializarMedico:bytes).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacaoEventosBenchmark {
+
+    private static final String TOPICO = "benchmark";
+
+    @Param({"JSON", "AVRO"})
+    private FormatoEvento formato;
+
+    private EventoSerializer<Object> serializer;
+    private EventoDeserializer<ConsultaCriadaEvent> consultaDeserializer;
+    private EventoDeserializer<MedicoEvent> medicoDeserializer;
+
+    private ConsultaCriadaEvent consulta;
+    private MedicoEvent medico;
+    private byte[] consultaSerializada;
+    private byte[] medicoSerializado;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        JsonSerializer<Object> jsonSerializer = new JsonSerializer<>(objectMapper);
+        jsonSerializer.setAddTypeInfo(false);
+        serializer = new EventoSerializer<>(jsonSerializer, formato);
+        consultaDeserializer = new EventoDeserializer<>(new JsonDeserializer<>(ConsultaCriadaEvent.class, objectMapper, false));
+        medicoDeserializer = new EventoDeserializer<>(new JsonDeserializer<>(MedicoEvent.class, objectMapper, false));
+        consultaDeserializer.configure(Map.of(), false);
+        medicoDeserializer.configure(Map.of(), false);
+
+        consulta = DadosBenchmark.consulta("CRIACAO");
+        medico = DadosBenchmark.medico();
+
+        consultaSerializada = serializer.serialize(TOPICO, consulta);
+        medicoSerializado = serializer.serialize(TOPICO, medico);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        serializer.close();
+        consultaDeserializer.close();
+        medicoDeserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serializarConsulta(Payload payload) {
+        byte[] serializado = serializer.serialize(TOPICO, consulta);
+        payload.bytes = serializado.length;
+        return serializado;
+    }
+
+    @Benchmark
+    public ConsultaCriadaEvent desserializarConsulta() {
+        return consultaDeserializer.deserialize(TOPICO, consultaSerializada);
+    }
+
+    @Benchmark
+    public byte[] serializarMedico(Payload payload) {
+        byte[] serializado = serializer.serialize(TOPICO, medico);
+        payload.bytes = serializado.length;
+        return serializado;
+    }
+
+    @Benchmark
+    public MedicoEvent desserializarMedico() {
+        return medicoDeserializer.deserialize(TOPICO, medicoSerializado);
+    }
+
+    /**
+     * Tamanho do payload, reportado pelo JMH como contador auxiliar (valor absoluto, não uma taxa).
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+
+        /** Bytes do último evento serializado (o mesmo a cada operação). */
+        public long bytes;
+    }
+}
@@ -0,0 +1,94 @@
+package com.postechfiap.meuhospital.benchmarks.usuario;
+
+import com.postechfiap.meuhospital.autenticacao.entity.Usuario;
+import com.postechfiap.meuhospital.autenticacao.mapper.UsuarioMapper;
+import com.postechfiap.meuhospital.benchmarks.DadosBenchmark;
+import com.postechfiap.meuhospital.contracts.core.Role;
+import com.postechfiap.meuhospital.contracts.core.UsuarioRegisterRequest;
+import com.postechfiap.meuhospital.contracts.core.UsuarioResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversões do UsuarioMapper: cadastro (request -> entidade), resposta unitária
+ * e listas no tamanho das respostas de /usuarios e /usuarios/batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsuarioMapperBenchmark {
+
+    private static final UsuarioRegisterRequest REQUEST = new UsuarioRegisterRequest("Maria da Silva Santos",
+            "12345678901", "maria.santos@email.com", "senha-forte", "(11) 98765-4321", Role.PACIENTE,
+            null, null, LocalDate.of(1985, 5, 15));
+
+    private final UsuarioMapper usuarioMapper = new UsuarioMapper();
+    private Usuario usuario;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        usuario = criarUsuario(usuarioMapper, 0);
+    }
+
+    /**
+     * Lista de usuários para toResponseList, no tamanho de cada parâmetro.
+     */
+    @State(Scope.Benchmark)
+    public static class Lista {
+
+        @Param({"1", "100", "500"})
+        private int tamanhoLista;
+
+        private List<Usuario> usuarios;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            UsuarioMapper mapper = new UsuarioMapper();
+            usuarios = new ArrayList<>(tamanhoLista);
+            for (int i = 0; i < tamanhoLista; i++) {
+                usuarios.add(criarUsuario(mapper, i));
+            }
+        }
+    }
+
+    @Benchmark
+    public Usuario toEntity() {
+        return usuarioMapper.toEntity(REQUEST);
+    }
+
+    @Benchmark
+    public UsuarioResponse toResponse() {
+        return usuarioMapper.toResponse(usuario);
+    }
+
+    @Benchmark
+    public List<UsuarioResponse> toResponseList(Lista lista) {
+        return usuarioMapper.toResponseList(lista.usuarios);
+    }
+
+    private static Usuario criarUsuario(UsuarioMapper mapper, int indice) {
+        Usuario usuario = mapper.toEntity(REQUEST);
+        usuario.setId(new UUID(DadosBenchmark.SEMENTE, indice));
+        usuario.setEmail("paciente" + indice + "@email.com");
+        return usuario;
+    }
+}
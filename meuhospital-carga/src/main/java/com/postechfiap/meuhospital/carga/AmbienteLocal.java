@@ -0,0 +1,200 @@
+package com.postechfiap.meuhospital.carga;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Infraestrutura embarcada para a carga, sem Docker: Kafka (KRaft), PostgreSQL, servidor MongoDB em memória
+ * e SMTP (GreenMail). Os quatro microsserviços sobem como processos java -jar a partir de ms-x/target,
+ * com as variáveis de ambiente apontando para essa infraestrutura e logs em target/carga-logs.
+ */
+public class AmbienteLocal implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AmbienteLocal.class);
+
+    private static final Duration ESPERA_INICIALIZACAO = Duration.ofMinutes(3);
+    private static final String BANCO_USUARIO = "postgres";
+    private static final String BANCO_SENHA = "postgres";
+
+    private final Path diretorioProjeto;
+    private final Path diretorioLogs;
+    private final Deque<AutoCloseable> recursos = new ArrayDeque<>();
+
+    private EmbeddedKafkaKraftBroker kafka;
+    private GreenMail smtp;
+    private int postgresPorta;
+    private InetSocketAddress mongoEndereco;
+
+    public AmbienteLocal(Path diretorioProjeto) {
+        this.diretorioProjeto = diretorioProjeto;
+        this.diretorioLogs = diretorioProjeto.resolve("meuhospital-carga/target/carga-logs");
+    }
+
+    /**
+     * Sobe a infraestrutura e os microsserviços; em caso de falha, libera o que já havia sido iniciado.
+     */
+    public void iniciar() throws Exception {
+        try {
+            iniciarInfraestrutura();
+            iniciarServicos();
+        } catch (Exception e) {
+            close();
+            throw e;
+        }
+    }
+
+    public String bootstrapServers() {
+        return kafka.getBrokersAsString();
+    }
+
+    public GreenMail smtp() {
+        return smtp;
+    }
+
+    private void iniciarInfraestrutura() throws IOException, SQLException {
+        kafka = new EmbeddedKafkaKraftBroker(1, 3, "notificacao-events", "medico-events", "usuario-events");
+        kafka.afterPropertiesSet();
+        recursos.push(kafka::destroy);
+        log.info("AMBIENTE: Kafka embarcado em {}.", kafka.getBrokersAsString());
+
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        recursos.push(postgres);
+        try (Connection conexao = postgres.getPostgresDatabase().getConnection();
+             Statement statement = conexao.createStatement()) {
+            for (String banco : List.of("autenticacao_db", "agendamento_db", "historico_db")) {
+                statement.execute("CREATE DATABASE " + banco);
+            }
+        }
+        postgresPorta = postgres.getPort();
+        log.info("AMBIENTE: PostgreSQL embarcado na porta {}.", postgresPorta);
+
+        MongoServer mongo = new MongoServer(new MemoryBackend());
+        mongoEndereco = mongo.bind();
+        recursos.push(mongo::shutdownNow);
+        log.info("AMBIENTE: MongoDB em memória em {}.", mongoEndereco);
+
+        smtp = new GreenMail(ServerSetup.SMTP.dynamicPort());
+        smtp.start();
+        recursos.push(smtp::stop);
+        log.info("AMBIENTE: SMTP local na porta {}.", smtp.getSmtp().getPort());
+    }
+
+    private void iniciarServicos() throws IOException, InterruptedException {
+        Files.createDirectories(diretorioLogs);
+
+        Map<String, String> comum = new HashMap<>();
+        comum.put("SPRING_KAFKA_BOOTSTRAP_SERVERS", bootstrapServers());
+        // Sem APP_JWT_SECRET: tokens ES256 verificados pelo JWKS do ms-autenticacao, como em produção
+        comum.put("APP_JWT_EXPIRATION_MS", "3600000");
+        comum.put("INTERNAL_SECRET", "carga-local-segredo-interno");
+        comum.put("DB_HOST", "localhost");
+        comum.put("DB_PORT", String.valueOf(postgresPorta));
+        comum.put("DB_USERNAME", BANCO_USUARIO);
+        comum.put("DB_PASSWORD", BANCO_SENHA);
+        comum.put("AUTH_SERVICE_HOST", "localhost");
+        comum.put("AUTH_SERVICE_PORT", "8080");
+
+        // ms-autenticacao usa AUTH_SERVICE_HOST como host do banco
+        iniciarServico("ms-autenticacao", comum, Map.of(
+                "AUTENTICACAO_DB_NAME", "autenticacao_db",
+                "APP_JWT_CHAVE_PRIVADA_ARQUIVO", diretorioProjeto.resolve("meuhospital-carga/target/carga-chaves/jwt-privada.json").toString()));
+        iniciarServico("ms-agendamento", comum, Map.of("AGENDAMENTO_DB_NAME", "agendamento_db"));
+        iniciarServico("ms-historico", comum, Map.of("HISTORICO_DB_NAME", "historico_db"));
+        iniciarServico("ms-notificacao", comum, Map.of(
+                "SPRING_DATA_MONGODB_URI", "mongodb://localhost:" + mongoEndereco.getPort() + "/notificacao_db",
+                "SPRING_MAIL_HOST", "localhost",
+                "SPRING_MAIL_PORT", String.valueOf(smtp.getSmtp().getPort())));
+    }
+
+    private void iniciarServico(String modulo, Map<String, String> comum, Map<String, String> especifico)
+            throws IOException, InterruptedException {
+        Path jar = localizarJar(modulo);
+        Path arquivoLog = diretorioLogs.resolve(modulo + ".log");
+
+        ProcessBuilder builder = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(), "-jar", jar.toString())
+                .redirectErrorStream(true)
+                .redirectOutput(arquivoLog.toFile());
+        builder.environment().putAll(comum);
+        builder.environment().putAll(especifico);
+
+        Process processo = builder.start();
+        recursos.push(() -> encerrar(modulo, processo));
+        log.info("AMBIENTE: {} iniciado (pid {}), log em {}.", modulo, processo.pid(), arquivoLog);
+
+        aguardarInicializacao(modulo, processo, arquivoLog);
+    }
+
+    private void aguardarInicializacao(String modulo, Process processo, Path arquivoLog)
+            throws IOException, InterruptedException {
+        long limite = System.nanoTime() + ESPERA_INICIALIZACAO.toNanos();
+        while (System.nanoTime() < limite) {
+            if (!processo.isAlive()) {
+                throw new IllegalStateException(modulo + " encerrou durante a inicialização (código "
+                        + processo.exitValue() + "). Veja " + arquivoLog + ".");
+            }
+            if (Files.exists(arquivoLog) && Files.readString(arquivoLog).contains("Started ")) {
+                log.info("AMBIENTE: {} pronto.", modulo);
+                return;
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(modulo + " não inicializou em " + ESPERA_INICIALIZACAO + ". Veja " + arquivoLog + ".");
+    }
+
+    private Path localizarJar(String modulo) throws IOException {
+        Path target = diretorioProjeto.resolve(modulo).resolve("target");
+        try (Stream<Path> arquivos = Files.exists(target) ? Files.list(target) : Stream.empty()) {
+            return arquivos
+                    .filter(arquivo -> arquivo.getFileName().toString().endsWith(".jar"))
+                    .filter(arquivo -> !arquivo.getFileName().toString().endsWith("-plain.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Jar de " + modulo + " não encontrado em " + target
+                            + ". Execute mvn package -DskipTests na raiz do projeto."));
+        }
+    }
+
+    private static void encerrar(String modulo, Process processo) throws InterruptedException {
+        processo.destroy();
+        if (!processo.waitFor(20, TimeUnit.SECONDS)) {
+            log.warn("AMBIENTE: {} não encerrou a tempo; forçando.", modulo);
+            processo.destroyForcibly().waitFor();
+        }
+    }
+
+    /**
+     * Encerra serviços e infraestrutura na ordem inversa da inicialização.
+     */
+    @Override
+    public void close() {
+        while (!recursos.isEmpty()) {
+            try {
+                recursos.pop().close();
+            } catch (Exception e) {
+                log.warn("AMBIENTE: falha ao encerrar recurso: {}", e.getMessage());
+            }
+        }
+    }
+}
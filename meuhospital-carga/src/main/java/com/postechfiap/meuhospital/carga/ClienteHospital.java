@@ -0,0 +1,179 @@
+package com.postechfiap.meuhospital.carga;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.postechfiap.meuhospital.contracts.agendamento.ConsultaRequest;
+import com.postechfiap.meuhospital.contracts.agendamento.ConsultaResponse;
+import com.postechfiap.meuhospital.contracts.core.LoginRequest;
+import com.postechfiap.meuhospital.contracts.core.LoginResponse;
+import com.postechfiap.meuhospital.contracts.core.UsuarioRegisterRequest;
+import com.postechfiap.meuhospital.contracts.core.UsuarioResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Cliente HTTP dos endpoints exercitados pela carga.
+ * Cada chamada registra sua latência (ou erro) em {@link Metricas} com o nome do endpoint como série.
+ */
+public class ClienteHospital {
+
+    public static final String LOGIN = "POST /auth/login";
+    public static final String CRIAR_CONSULTA = "POST /consultas";
+    public static final String BUSCAR_CONSULTA = "GET /consultas/{id}";
+    public static final String CANCELAR_CONSULTA = "DELETE /consultas/{id}";
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final String urlAutenticacao;
+    private final String urlAgendamento;
+    private final Metricas metricas;
+
+    public ClienteHospital(String urlAutenticacao, String urlAgendamento, Metricas metricas) {
+        this.urlAutenticacao = urlAutenticacao;
+        this.urlAgendamento = urlAgendamento;
+        this.metricas = metricas;
+    }
+
+    public UsuarioResponse registrar(UsuarioRegisterRequest request) {
+        return ler(enviar(post(urlAutenticacao + "/auth/register", null, request), 201), UsuarioResponse.class);
+    }
+
+    public LoginResponse login(String email, String senha) {
+        return cronometrar(LOGIN, () ->
+                ler(enviar(post(urlAutenticacao + "/auth/login", null, new LoginRequest(email, senha)), 200), LoginResponse.class));
+    }
+
+    public ConsultaResponse criarConsulta(String token, ConsultaRequest request) {
+        return cronometrar(CRIAR_CONSULTA, () ->
+                ler(enviar(post(urlAgendamento + "/consultas", token, request), 201), ConsultaResponse.class));
+    }
+
+    public ConsultaResponse buscarConsulta(String token, UUID id) {
+        return cronometrar(BUSCAR_CONSULTA, () ->
+                ler(enviar(get(urlAgendamento + "/consultas/" + id, token), 200), ConsultaResponse.class));
+    }
+
+    public void cancelarConsulta(String token, UUID id) {
+        cronometrar(CANCELAR_CONSULTA, () -> enviar(requisicao(urlAgendamento + "/consultas/" + id, token).DELETE().build(), 204));
+    }
+
+    public List<MedicoDisponivel> listarMedicos(String token) {
+        try {
+            return objectMapper.readValue(enviar(get(urlAgendamento + "/consultas/medicos", token), 200).body(),
+                    new TypeReference<>() {});
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Indica se o serviço responde na URL base (qualquer status HTTP conta como disponível).
+     */
+    public boolean disponivel(String urlBase) {
+        try {
+            httpClient.send(HttpRequest.newBuilder(URI.create(urlBase + "/actuator/health"))
+                    .timeout(Duration.ofSeconds(2)).GET().build(), HttpResponse.BodyHandlers.discarding());
+            return true;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private <T> T cronometrar(String serie, Supplier<T> chamada) {
+        long inicio = System.nanoTime();
+        try {
+            T resultado = chamada.get();
+            metricas.registrar(serie, System.nanoTime() - inicio);
+            return resultado;
+        } catch (RuntimeException e) {
+            metricas.registrarErro(serie);
+            throw e;
+        }
+    }
+
+    private HttpResponse<String> enviar(HttpRequest request, int statusEsperado) {
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != statusEsperado) {
+                throw new FalhaRequisicaoException(request.method() + " " + request.uri().getPath(),
+                        response.statusCode(), response.body());
+            }
+            return response;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Requisição interrompida.", e);
+        }
+    }
+
+    private HttpRequest post(String url, String token, Object corpo) {
+        try {
+            return requisicao(url, token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(corpo)))
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private HttpRequest get(String url, String token) {
+        return requisicao(url, token).GET().build();
+    }
+
+    private HttpRequest.Builder requisicao(String url, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url)).timeout(TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private <T> T ler(HttpResponse<String> response, Class<T> tipo) {
+        try {
+            return objectMapper.readValue(response.body(), tipo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Médico exposto pela projeção local do ms-agendamento (GET /consultas/medicos).
+     */
+    public record MedicoDisponivel(UUID id, String nome, String especialidade, String numeroRegistro) {}
+
+    /**
+     * Resposta HTTP com status diferente do esperado.
+     */
+    public static class FalhaRequisicaoException extends RuntimeException {
+        public FalhaRequisicaoException(String endpoint, int status, String corpo) {
+            super(endpoint + " respondeu " + status + ": " + corpo);
+        }
+    }
+}
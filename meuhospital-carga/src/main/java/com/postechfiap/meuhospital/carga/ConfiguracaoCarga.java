@@ -0,0 +1,67 @@
+package com.postechfiap.meuhospital.carga;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parâmetros de uma execução de carga, lidos da linha de comando no formato --chave=valor.
+ *
+ * @param taxa                  Fluxos (login → criação → busca → cancelamento) iniciados por segundo.
+ * @param duracao               Tempo de medição, após o aquecimento.
+ * @param aquecimento           Tempo inicial descartado das estatísticas (JIT, pools, caches).
+ * @param maxFluxosEmAndamento  Limite de fluxos simultâneos; chegadas acima do limite contam como descartadas.
+ * @param ambiente              LOCAL sobe a infraestrutura embarcada e os microsserviços; EXTERNO usa as URLs informadas.
+ */
+public record ConfiguracaoCarga(
+        double taxa,
+        Duration duracao,
+        Duration aquecimento,
+        int medicos,
+        int pacientes,
+        int enfermeiros,
+        int maxFluxosEmAndamento,
+        Ambiente ambiente,
+        String urlAutenticacao,
+        String urlAgendamento,
+        String kafka,
+        Path diretorioProjeto,
+        Path relatorio
+) {
+
+    public enum Ambiente { LOCAL, EXTERNO }
+
+    public static ConfiguracaoCarga de(String[] args) {
+        Map<String, String> opcoes = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Opção inválida: " + arg + " (esperado --chave=valor)");
+            }
+            int separador = arg.indexOf('=');
+            opcoes.put(arg.substring(2, separador), arg.substring(separador + 1));
+        }
+
+        ConfiguracaoCarga configuracao = new ConfiguracaoCarga(
+                Double.parseDouble(opcoes.getOrDefault("taxa", "10")),
+                Duration.parse(opcoes.getOrDefault("duracao", "PT60S")),
+                Duration.parse(opcoes.getOrDefault("aquecimento", "PT10S")),
+                Integer.parseInt(opcoes.getOrDefault("medicos", "20")),
+                Integer.parseInt(opcoes.getOrDefault("pacientes", "50")),
+                Integer.parseInt(opcoes.getOrDefault("enfermeiros", "10")),
+                Integer.parseInt(opcoes.getOrDefault("max-fluxos-em-andamento", "500")),
+                Ambiente.valueOf(opcoes.getOrDefault("ambiente", "local").toUpperCase()),
+                opcoes.getOrDefault("url-autenticacao", "http://localhost:8080"),
+                opcoes.getOrDefault("url-agendamento", "http://localhost:8081"),
+                opcoes.getOrDefault("kafka", "localhost:9093"),
+                Path.of(opcoes.getOrDefault("diretorio-projeto", ".")).toAbsolutePath().normalize(),
+                Path.of(opcoes.getOrDefault("relatorio", "meuhospital-carga/target/carga-relatorio.csv"))
+        );
+
+        if (configuracao.taxa <= 0 || configuracao.medicos <= 0 || configuracao.pacientes <= 0
+                || configuracao.enfermeiros <= 0 || configuracao.maxFluxosEmAndamento <= 0) {
+            throw new IllegalArgumentException("Taxa, massa de dados e limite de fluxos devem ser positivos.");
+        }
+        return configuracao;
+    }
+}
@@ -0,0 +1,60 @@
+package com.postechfiap.meuhospital.carga;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Ponto de entrada do teste de carga ponta a ponta.
+ * <p>
+ * Exemplo: {@code java -jar meuhospital-carga/target/meuhospital-carga-1.0.0-SNAPSHOT.jar --taxa=20 --duracao=PT2M}
+ * <p>
+ * Com {@code --ambiente=local} (padrão) sobe Kafka, PostgreSQL, MongoDB e SMTP embarcados e os quatro microsserviços;
+ * com {@code --ambiente=externo} usa os serviços já em execução (ex: docker compose) nas URLs informadas.
+ */
+public final class ExecutorCarga {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutorCarga.class);
+
+    private ExecutorCarga() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ConfiguracaoCarga configuracao = ConfiguracaoCarga.de(args);
+        Metricas metricas = new Metricas();
+        ClienteHospital cliente = new ClienteHospital(configuracao.urlAutenticacao(), configuracao.urlAgendamento(), metricas);
+
+        AmbienteLocal ambiente = null;
+        String bootstrapServers = configuracao.kafka();
+        if (configuracao.ambiente() == ConfiguracaoCarga.Ambiente.LOCAL) {
+            if (cliente.disponivel(configuracao.urlAutenticacao()) || cliente.disponivel(configuracao.urlAgendamento())) {
+                throw new IllegalStateException("Já há serviços respondendo nas portas 8080/8081. "
+                        + "Encerre-os ou use --ambiente=externo.");
+            }
+            ambiente = new AmbienteLocal(configuracao.diretorioProjeto());
+            ambiente.iniciar();
+            bootstrapServers = ambiente.bootstrapServers();
+        }
+
+        try (MonitorEventos monitor = new MonitorEventos(bootstrapServers, metricas)) {
+            if (ambiente != null) {
+                monitor.observarEmails(ambiente.smtp().getUserManager());
+            }
+
+            MassaDeDados massa = MassaDeDados.preparar(cliente, configuracao);
+            metricas.reiniciar();
+
+            new GeradorCarga(configuracao, cliente, massa, metricas).executar();
+
+            // Dá tempo aos últimos eventos de percorrerem outbox → Kafka → e-mail
+            Thread.sleep(5_000);
+
+            metricas.imprimir(System.out);
+            metricas.exportarCsv(configuracao.relatorio());
+            log.info("CARGA: relatório gravado em {}.", configuracao.relatorio().toAbsolutePath());
+        } finally {
+            if (ambiente != null) {
+                ambiente.close();
+            }
+        }
+    }
+}
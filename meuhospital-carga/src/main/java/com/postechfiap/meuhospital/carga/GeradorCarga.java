@@ -0,0 +1,117 @@
+package com.postechfiap.meuhospital.carga;
+
+import com.postechfiap.meuhospital.contracts.agendamento.ConsultaRequest;
+import com.postechfiap.meuhospital.contracts.agendamento.ConsultaResponse;
+import com.postechfiap.meuhospital.contracts.core.UsuarioResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gera carga em modelo aberto: os fluxos chegam a uma taxa fixa, independentemente do tempo de resposta,
+ * e a latência do fluxo é medida a partir do instante agendado (evita omissão coordenada).
+ * Cada fluxo roda em uma virtual thread: login do enfermeiro → criação → busca → cancelamento.
+ */
+public class GeradorCarga {
+
+    private static final Logger log = LoggerFactory.getLogger(GeradorCarga.class);
+
+    public static final String FLUXO = "fluxo completo";
+    public static final String FLUXO_DESCARTADO = "fluxo descartado (limite em andamento)";
+
+    private final ConfiguracaoCarga configuracao;
+    private final ClienteHospital cliente;
+    private final MassaDeDados massa;
+    private final Metricas metricas;
+    private final Semaphore fluxosEmAndamento;
+    private final LocalDateTime primeiroHorario = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusDays(1);
+
+    public GeradorCarga(ConfiguracaoCarga configuracao, ClienteHospital cliente, MassaDeDados massa, Metricas metricas) {
+        this.configuracao = configuracao;
+        this.cliente = cliente;
+        this.massa = massa;
+        this.metricas = metricas;
+        this.fluxosEmAndamento = new Semaphore(configuracao.maxFluxosEmAndamento());
+    }
+
+    /**
+     * Executa aquecimento e janela de medição; as métricas são zeradas ao fim do aquecimento.
+     */
+    public void executar() throws InterruptedException {
+        long intervaloNanos = (long) (TimeUnit.SECONDS.toNanos(1) / configuracao.taxa());
+        long inicio = System.nanoTime();
+        long fimAquecimento = inicio + configuracao.aquecimento().toNanos();
+        long fim = fimAquecimento + configuracao.duracao().toNanos();
+        boolean aquecendo = true;
+
+        log.info("CARGA: {} fluxos/s, aquecimento {}, medição {}.", configuracao.taxa(), configuracao.aquecimento(), configuracao.duracao());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long sequencial = 0; ; sequencial++) {
+                long agendado = inicio + sequencial * intervaloNanos;
+                if (agendado >= fim) {
+                    break;
+                }
+                if (aquecendo && agendado >= fimAquecimento) {
+                    metricas.reiniciar();
+                    aquecendo = false;
+                    log.info("CARGA: aquecimento concluído, iniciando medição.");
+                }
+                esperarAte(agendado);
+
+                if (!fluxosEmAndamento.tryAcquire()) {
+                    metricas.registrarErro(FLUXO_DESCARTADO);
+                    continue;
+                }
+                long fluxo = sequencial;
+                executor.submit(() -> {
+                    try {
+                        executarFluxo(fluxo, agendado);
+                    } finally {
+                        fluxosEmAndamento.release();
+                    }
+                });
+            }
+            log.info("CARGA: chegadas encerradas, aguardando {} fluxos em andamento.",
+                    configuracao.maxFluxosEmAndamento() - fluxosEmAndamento.availablePermits());
+        }
+    }
+
+    private void executarFluxo(long sequencial, long agendadoNanos) {
+        UsuarioResponse enfermeiro = massa.enfermeiros().get((int) (sequencial % massa.enfermeiros().size()));
+        UsuarioResponse paciente = massa.pacientes().get((int) (sequencial % massa.pacientes().size()));
+        int medicos = massa.medicos().size();
+        UsuarioResponse medico = massa.medicos().get((int) (sequencial % medicos));
+        // Horário exclusivo por (médico, fluxo): não há conflito de agenda mesmo com fluxos simultâneos
+        LocalDateTime horario = primeiroHorario.plusHours(sequencial / medicos);
+
+        try {
+            String token = cliente.login(enfermeiro.email(), MassaDeDados.SENHA).token();
+            ConsultaResponse criada = cliente.criarConsulta(token, new ConsultaRequest(
+                    paciente.id(), medico.id(), horario, "Fluxo de carga " + sequencial));
+            cliente.buscarConsulta(token, criada.id());
+            cliente.cancelarConsulta(token, criada.id());
+            metricas.registrar(FLUXO, System.nanoTime() - agendadoNanos);
+        } catch (RuntimeException e) {
+            metricas.registrarErro(FLUXO);
+            log.debug("CARGA: fluxo {} falhou: {}", sequencial, e.getMessage());
+        }
+    }
+
+    private static void esperarAte(long instanteNanos) throws InterruptedException {
+        long restante;
+        while ((restante = instanteNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(restante);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+}
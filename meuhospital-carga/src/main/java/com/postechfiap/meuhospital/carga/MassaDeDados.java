@@ -0,0 +1,115 @@
+package com.postechfiap.meuhospital.carga;
+
+import com.postechfiap.meuhospital.contracts.core.Role;
+import com.postechfiap.meuhospital.contracts.core.UsuarioRegisterRequest;
+import com.postechfiap.meuhospital.contracts.core.UsuarioResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Cadastra médicos, pacientes e enfermeiros exclusivos desta execução (e-mails e CPFs com prefixo aleatório)
+ * e aguarda a projeção de médicos do ms-agendamento refletir os cadastros recebidos via Kafka.
+ */
+public class MassaDeDados {
+
+    private static final Logger log = LoggerFactory.getLogger(MassaDeDados.class);
+
+    public static final String SENHA = "carga123";
+    private static final Duration ESPERA_PROJECAO = Duration.ofSeconds(60);
+
+    private final List<UsuarioResponse> medicos;
+    private final List<UsuarioResponse> pacientes;
+    private final List<UsuarioResponse> enfermeiros;
+
+    private MassaDeDados(List<UsuarioResponse> medicos, List<UsuarioResponse> pacientes, List<UsuarioResponse> enfermeiros) {
+        this.medicos = medicos;
+        this.pacientes = pacientes;
+        this.enfermeiros = enfermeiros;
+    }
+
+    public static MassaDeDados preparar(ClienteHospital cliente, ConfiguracaoCarga configuracao) throws InterruptedException {
+        String execucao = Long.toString(System.currentTimeMillis() % 100_000_000L, 36);
+        long baseCpf = ThreadLocalRandom.current().nextLong(10_000_000_000L, 90_000_000_000L);
+        int sequencial = 0;
+
+        List<UsuarioResponse> medicos = new ArrayList<>();
+        for (int i = 0; i < configuracao.medicos(); i++) {
+            medicos.add(cliente.registrar(usuario(Role.MEDICO, execucao, i, baseCpf + sequencial++,
+                    "CRM/SP-" + execucao + i, "CLINICA_GERAL", null)));
+        }
+        List<UsuarioResponse> pacientes = new ArrayList<>();
+        for (int i = 0; i < configuracao.pacientes(); i++) {
+            pacientes.add(cliente.registrar(usuario(Role.PACIENTE, execucao, i, baseCpf + sequencial++,
+                    null, null, LocalDate.of(1980, 1, 1).plusDays(i))));
+        }
+        List<UsuarioResponse> enfermeiros = new ArrayList<>();
+        for (int i = 0; i < configuracao.enfermeiros(); i++) {
+            enfermeiros.add(cliente.registrar(usuario(Role.ENFERMEIRO, execucao, i, baseCpf + sequencial++,
+                    "COREN/SP-" + execucao + i, null, null)));
+        }
+        log.info("MASSA: {} médicos, {} pacientes e {} enfermeiros cadastrados (execução {}).",
+                medicos.size(), pacientes.size(), enfermeiros.size(), execucao);
+
+        MassaDeDados massa = new MassaDeDados(List.copyOf(medicos), List.copyOf(pacientes), List.copyOf(enfermeiros));
+        massa.aguardarProjecaoMedicos(cliente);
+        return massa;
+    }
+
+    public List<UsuarioResponse> medicos() {
+        return medicos;
+    }
+
+    public List<UsuarioResponse> pacientes() {
+        return pacientes;
+    }
+
+    public List<UsuarioResponse> enfermeiros() {
+        return enfermeiros;
+    }
+
+    /**
+     * O ms-agendamento só aceita médicos já presentes na projeção local (medico-events).
+     */
+    private void aguardarProjecaoMedicos(ClienteHospital cliente) throws InterruptedException {
+        Set<UUID> esperados = medicos.stream().map(UsuarioResponse::id).collect(Collectors.toSet());
+        String token = cliente.login(enfermeiros.getFirst().email(), SENHA).token();
+        long limite = System.nanoTime() + ESPERA_PROJECAO.toNanos();
+
+        while (System.nanoTime() < limite) {
+            Set<UUID> projetados = cliente.listarMedicos(token).stream()
+                    .map(ClienteHospital.MedicoDisponivel::id)
+                    .collect(Collectors.toSet());
+            if (projetados.containsAll(esperados)) {
+                log.info("MASSA: projeção de médicos sincronizada no ms-agendamento.");
+                return;
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException("A projeção de médicos do ms-agendamento não sincronizou em " + ESPERA_PROJECAO + ".");
+    }
+
+    private static UsuarioRegisterRequest usuario(Role role, String execucao, int indice, long cpf,
+                                                  String numeroRegistro, String especialidade, LocalDate dataNascimento) {
+        String prefixo = role.name().toLowerCase();
+        return new UsuarioRegisterRequest(
+                "Carga " + role.name() + " " + indice,
+                String.format("%011d", cpf),
+                prefixo + "." + execucao + "." + indice + "@carga.meuhospital.com",
+                SENHA,
+                "(11) 90000-0000",
+                role,
+                numeroRegistro,
+                especialidade,
+                dataNascimento
+        );
+    }
+}
@@ -0,0 +1,105 @@
+package com.postechfiap.meuhospital.carga;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Acumula latências (µs) e erros por série: um endpoint HTTP, um salto do Kafka ou o fluxo completo.
+ * Os histogramas são zerados ao fim do aquecimento para que a vazão reflita apenas a janela medida.
+ */
+public class Metricas {
+
+    private static final long MAX_LATENCIA_US = TimeUnit.MINUTES.toMicros(10);
+
+    private final Map<String, Serie> series = new ConcurrentSkipListMap<>();
+    private volatile long inicioJanelaNanos = System.nanoTime();
+
+    public void registrar(String serie, long duracaoNanos) {
+        long micros = Math.max(0, Math.min(TimeUnit.NANOSECONDS.toMicros(duracaoNanos), MAX_LATENCIA_US));
+        serie(serie).histograma.recordValue(micros);
+    }
+
+    public void registrarErro(String serie) {
+        serie(serie).erros.increment();
+    }
+
+    /**
+     * Descarta o que foi medido até aqui (fim do aquecimento).
+     */
+    public void reiniciar() {
+        series.values().forEach(Serie::reiniciar);
+        inicioJanelaNanos = System.nanoTime();
+    }
+
+    public void imprimir(PrintStream saida) {
+        double segundos = janelaEmSegundos();
+        saida.printf(Locale.ROOT, "%n%-34s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "serie", "amostras", "erros", "vazao/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Linha linha : linhas(segundos)) {
+            saida.printf(Locale.ROOT, "%-34s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    linha.serie, linha.amostras, linha.erros, linha.vazao,
+                    linha.p50 / 1000.0, linha.p90 / 1000.0, linha.p99 / 1000.0, linha.p999 / 1000.0, linha.max / 1000.0);
+        }
+        saida.printf(Locale.ROOT, "Janela medida: %.1f s%n", segundos);
+    }
+
+    public void exportarCsv(Path arquivo) throws IOException {
+        List<String> conteudo = new ArrayList<>();
+        conteudo.add("serie,amostras,erros,vazao_por_s,p50_us,p90_us,p99_us,p999_us,max_us");
+        for (Linha linha : linhas(janelaEmSegundos())) {
+            conteudo.add(String.format(Locale.ROOT, "\"%s\",%d,%d,%.3f,%d,%d,%d,%d,%d",
+                    linha.serie, linha.amostras, linha.erros, linha.vazao,
+                    linha.p50, linha.p90, linha.p99, linha.p999, linha.max));
+        }
+        if (arquivo.getParent() != null) {
+            Files.createDirectories(arquivo.getParent());
+        }
+        Files.write(arquivo, conteudo);
+    }
+
+    private List<Linha> linhas(double segundos) {
+        List<Linha> linhas = new ArrayList<>();
+        series.forEach((nome, serie) -> {
+            Histogram copia = serie.histograma.copy();
+            long amostras = copia.getTotalCount();
+            linhas.add(new Linha(nome, amostras, serie.erros.sum(), amostras / segundos,
+                    copia.getValueAtPercentile(50), copia.getValueAtPercentile(90),
+                    copia.getValueAtPercentile(99), copia.getValueAtPercentile(99.9), copia.getMaxValue()));
+        });
+        return linhas;
+    }
+
+    private double janelaEmSegundos() {
+        return Math.max(Duration.ofNanos(System.nanoTime() - inicioJanelaNanos).toMillis() / 1000.0, 0.001);
+    }
+
+    private Serie serie(String nome) {
+        return series.computeIfAbsent(nome, n -> new Serie());
+    }
+
+    private static final class Serie {
+        private final ConcurrentHistogram histograma = new ConcurrentHistogram(MAX_LATENCIA_US, 3);
+        private final LongAdder erros = new LongAdder();
+
+        private void reiniciar() {
+            histograma.reset();
+            erros.reset();
+        }
+    }
+
+    private record Linha(String serie, long amostras, long erros, double vazao,
+                         long p50, long p90, long p99, long p999, long max) {}
+}
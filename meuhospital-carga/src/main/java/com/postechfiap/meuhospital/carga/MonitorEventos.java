@@ -0,0 +1,152 @@
+package com.postechfiap.meuhospital.carga;
+
+import com.icegreen.greenmail.user.MessageDeliveryHandler;
+import com.icegreen.greenmail.user.UserManager;
+import com.postechfiap.meuhospital.contracts.events.ConsultaCriadaEvent;
+import com.postechfiap.meuhospital.contracts.serializacao.EventoDeserializer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mede os saltos assíncronos dos eventos de consulta:
+ * outbox → broker (eventTimestamp até o timestamp do registro), broker → consumidor (um consumidor próprio,
+ * em grupo exclusivo, no tópico de notificação) e broker → e-mail (entrega no SMTP local pelo ms-notificacao).
+ * Os instantes vêm de processos diferentes no mesmo host; em ambiente externo, relógios precisam estar sincronizados.
+ */
+public class MonitorEventos implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorEventos.class);
+
+    public static final String TOPICO = "notificacao-events";
+    public static final String SALTO_OUTBOX = "kafka: outbox → broker";
+    public static final String SALTO_CONSUMO = "kafka: broker → consumidor";
+    public static final String SALTO_EMAIL = "kafka: broker → e-mail (ms-notificacao)";
+
+    private static final Pattern ID_CONSULTA = Pattern.compile("ID da Consulta: ([0-9a-fA-F-]{36})");
+    private static final Map<String, String> TIPO_POR_ASSUNTO = Map.of(
+            "Confirmação de Agendamento", "CRIACAO",
+            "Alerta: Cancelamento de Consulta!", "CANCELAMENTO");
+
+    private final Metricas metricas;
+    private final ZoneId zona = ZoneId.systemDefault();
+    private final KafkaConsumer<String, ConsultaCriadaEvent> consumer;
+    private final Thread leitor;
+    private volatile boolean ativo = true;
+
+    /**
+     * Chave consultaId:tipoEvento → instante (ms) já observado de um dos lados (publicação ou e-mail).
+     * O salto é registrado por quem chegar por último.
+     */
+    private final Map<String, Instantes> pendentes = new ConcurrentHashMap<>();
+
+    public MonitorEventos(String bootstrapServers, Metricas metricas) {
+        this.metricas = metricas;
+        this.consumer = new KafkaConsumer<>(Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ConsumerConfig.GROUP_ID_CONFIG, "carga-monitor-" + UUID.randomUUID(),
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest",
+                ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false),
+                new StringDeserializer(),
+                new EventoDeserializer<>(new JsonDeserializer<>(ConsultaCriadaEvent.class, false)));
+        this.consumer.subscribe(List.of(TOPICO));
+        this.leitor = Thread.ofPlatform().name("carga-monitor-kafka").daemon().start(this::ler);
+    }
+
+    /**
+     * Intercepta as entregas do SMTP local, mantendo o comportamento padrão do GreenMail (caixa por destinatário).
+     */
+    public void observarEmails(UserManager userManager) {
+        MessageDeliveryHandler padrao = userManager.getMessageDeliveryHandler();
+        userManager.setMessageDeliveryHandler((mensagem, destinatario) -> {
+            registrarEmail(mensagem.getMessage(), System.currentTimeMillis());
+            return padrao.handle(mensagem, destinatario);
+        });
+    }
+
+    private void ler() {
+        try {
+            while (ativo) {
+                for (ConsumerRecord<String, ConsultaCriadaEvent> registro : consumer.poll(Duration.ofMillis(200))) {
+                    registrarEvento(registro, System.currentTimeMillis());
+                }
+            }
+        } catch (WakeupException e) {
+            // encerramento
+        } catch (RuntimeException e) {
+            log.error("MONITOR: falha ao ler {}.", TOPICO, e);
+        } finally {
+            consumer.close();
+        }
+    }
+
+    private void registrarEvento(ConsumerRecord<String, ConsultaCriadaEvent> registro, long agora) {
+        ConsultaCriadaEvent evento = registro.value();
+        if (evento == null) {
+            return;
+        }
+        long publicacao = registro.timestamp();
+        if (evento.eventTimestamp() != null) {
+            long criacao = evento.eventTimestamp().atZone(zona).toInstant().toEpochMilli();
+            metricas.registrar(SALTO_OUTBOX, millisParaNanos(publicacao - criacao));
+        }
+        metricas.registrar(SALTO_CONSUMO, millisParaNanos(agora - publicacao));
+
+        pendentes.compute(evento.consultaId() + ":" + evento.tipoEvento(), (chave, instantes) -> {
+            if (instantes != null && instantes.email != null) {
+                metricas.registrar(SALTO_EMAIL, millisParaNanos(instantes.email - publicacao));
+                return null;
+            }
+            return new Instantes(publicacao, null);
+        });
+    }
+
+    private void registrarEmail(MimeMessage mensagem, long entrega) {
+        try {
+            String tipo = TIPO_POR_ASSUNTO.get(mensagem.getSubject());
+            Matcher matcher = ID_CONSULTA.matcher(String.valueOf(mensagem.getContent()));
+            if (tipo == null || !matcher.find()) {
+                return;
+            }
+            pendentes.compute(matcher.group(1) + ":" + tipo, (chave, instantes) -> {
+                if (instantes != null && instantes.publicacao != null) {
+                    metricas.registrar(SALTO_EMAIL, millisParaNanos(entrega - instantes.publicacao));
+                    return null;
+                }
+                return new Instantes(null, entrega);
+            });
+        } catch (MessagingException | IOException e) {
+            log.warn("MONITOR: e-mail ignorado ({}).", e.getMessage());
+        }
+    }
+
+    private static long millisParaNanos(long millis) {
+        return Duration.ofMillis(millis).toNanos();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        ativo = false;
+        consumer.wakeup();
+        leitor.join(Duration.ofSeconds(5));
+    }
+
+    private record Instantes(Long publicacao, Long email) {}
+}
@@ -0,0 +1,12 @@
+package com.postechfiap.meuhospital.contracts.agendamento;
+
+/**
+ * Record (DTO) com o resultado de um item da criação em lote.
+ * indice referencia a posição do item em ConsultaBatchRequest.consultas.
+ */
+public record ConsultaBatchItemResponse(
+        int indice,
+        String status, // Ex: "CRIADA" ou "REJEITADA"
+        ConsultaResponse consulta, // Preenchido quando CRIADA
+        String erro // Motivo da rejeição, quando REJEITADA
+) {}
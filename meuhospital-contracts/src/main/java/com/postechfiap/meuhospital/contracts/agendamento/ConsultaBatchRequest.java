@@ -0,0 +1,21 @@
+package com.postechfiap.meuhospital.contracts.agendamento;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Record (DTO) para criação de várias consultas em uma única chamada (ex: tratamentos recorrentes).
+ */
+public record ConsultaBatchRequest(
+
+        @Schema(description = "Consultas a serem criadas (máximo 100 por chamada).")
+        @NotEmpty(message = "A lista de consultas é obrigatória.")
+        @Size(max = ConsultaBatchRequest.TAMANHO_MAXIMO, message = "No máximo 100 consultas por chamada.")
+        List<@Valid ConsultaRequest> consultas
+) {
+    public static final int TAMANHO_MAXIMO = 100;
+}
@@ -0,0 +1,12 @@
+package com.postechfiap.meuhospital.contracts.agendamento;
+
+import java.util.List;
+
+/**
+ * Record (DTO) de resposta da criação em lote, com o resultado de cada item na ordem da requisição.
+ */
+public record ConsultaBatchResponse(
+        int criadas,
+        int rejeitadas,
+        List<ConsultaBatchItemResponse> itens
+) {}
@@ -0,0 +1,12 @@
+package com.postechfiap.meuhospital.contracts.agendamento;
+
+import java.util.List;
+
+/**
+ * Record (DTO) de resposta para a listagem paginada (keyset) de consultas.
+ * proximoCursor é opaco e deve ser repassado no parâmetro cursor da próxima chamada; nulo na última página.
+ */
+public record ConsultaPaginaResponse(
+        List<ConsultaResponse> itens,
+        String proximoCursor
+) {}
@@ -0,0 +1,16 @@
+package com.postechfiap.meuhospital.contracts.events;
+
+import com.postechfiap.meuhospital.contracts.core.Role;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Record (DTO) de Evento de Domínio enviado via Kafka quando os dados de um usuário são alterados.
+ * Consumido pelo ms-agendamento para invalidar o cache local de dados de contato do paciente.
+ */
+public record UsuarioAtualizadoEvent(
+        UUID userId,
+        Role role,
+        String tipoEvento,     // Ex: "ATUALIZACAO"
+        LocalDateTime eventTimestamp
+) {}
@@ -0,0 +1,101 @@
+package com.postechfiap.meuhospital.contracts.seguranca;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache dos tokens já verificados, indexado pelo SHA-256 do token (o token em si não fica em memória).
+ * Cada entrada expira no 'exp' do próprio token, e o cache é limitado por tamanho (LRU aproximado do Caffeine).
+ * Resultados obtidos com um conjunto de chaves anterior à última rotação são verificados novamente.
+ * Métricas: cache.gets{cache="tokens-jwt", result=hit|miss}, cache.evictions, cache.size.
+ * Criado pelo SecurityFilter de cada serviço, com o JwtService do próprio serviço.
+ */
+public class CacheTokens {
+
+    private static final String CACHE_TOKENS = "tokens-jwt";
+
+    private final VerificadorJwt verificador;
+    private final Cache<Digest, Entrada> verificados;
+
+    /**
+     * @param tamanhoMaximo app.jwt.cache.tamanho-maximo.
+     */
+    public CacheTokens(VerificadorJwt verificador, long tamanhoMaximo, MeterRegistry meterRegistry) {
+        this.verificador = verificador;
+        this.verificados = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfter(new ExpiraNoToken())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verificados, CACHE_TOKENS);
+    }
+
+    /**
+     * Retorna o token verificado do cache ou, na ausência, verifica assinatura e expiração via JwtService.
+     * Tokens inválidos não são armazenados (a exceção do JwtService é propagada).
+     */
+    public TokenVerificado verificar(String token) {
+        Digest digest = Digest.de(token);
+        int versaoChaves = verificador.versaoChaves();
+
+        Entrada entrada = verificados.getIfPresent(digest);
+        if (entrada != null && entrada.versaoChaves() == versaoChaves
+                && entrada.token().expiracao().isAfter(Instant.now())) {
+            return entrada.token();
+        }
+
+        TokenVerificado verificado = verificador.verificar(token);
+        verificados.put(digest, new Entrada(verificado, versaoChaves));
+        return verificado;
+    }
+
+    private record Entrada(TokenVerificado token, int versaoChaves) {}
+
+    /**
+     * SHA-256 do token em quatro longs: igualdade e hash baratos, sem guardar o token.
+     */
+    private record Digest(long a, long b, long c, long d) {
+
+        static Digest de(String token) {
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+                ByteBuffer buffer = ByteBuffer.wrap(hash);
+                return new Digest(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 indisponível na JVM.", e);
+            }
+        }
+    }
+
+    /**
+     * A entrada vive até o 'exp' do token; atualizações (nova verificação após rotação) recalculam o prazo.
+     */
+    private static final class ExpiraNoToken implements Expiry<Digest, Entrada> {
+
+        @Override
+        public long expireAfterCreate(Digest chave, Entrada entrada, long tempoAtual) {
+            long restanteMs = entrada.token().expiracao().toEpochMilli() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(restanteMs, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(Digest chave, Entrada entrada, long tempoAtual, long duracaoAtual) {
+            return expireAfterCreate(chave, entrada, tempoAtual);
+        }
+
+        @Override
+        public long expireAfterRead(Digest chave, Entrada entrada, long tempoAtual, long duracaoAtual) {
+            return duracaoAtual;
+        }
+    }
+}
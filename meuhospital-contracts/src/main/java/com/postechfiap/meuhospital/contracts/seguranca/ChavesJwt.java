@@ -0,0 +1,143 @@
+package com.postechfiap.meuhospital.contracts.seguranca;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Key;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Chaves de verificação do JWT, indexadas pelo 'kid' do cabeçalho. São construídas uma única vez (na inicialização
+ * ou na recarga) e trocadas atomicamente, sem alocação por requisição.
+ * A chave de app.jwt.secret (kid app.jwt.kid), se configurada, atende tokens sem 'kid'. O arquivo opcional
+ * app.jwt.chaves-arquivo (formato properties: {@code kid=segredo} e {@code ativa=kid}) acrescenta chaves HMAC
+ * e define a chave de assinatura HS512 do ms-autenticacao; é relido quando modificado, permitindo a rotação sem reinício.
+ * As chaves públicas (par do ms-autenticacao ou JWKS publicado por ele) são consultadas depois das chaves HMAC.
+ */
+public class ChavesJwt extends LocatorAdapter<Key> {
+
+    private static final Logger log = LoggerFactory.getLogger(ChavesJwt.class);
+
+    private static final String ATIVA = "ativa";
+
+    private final String kidPadrao;
+    private final SecretKey chavePadrao;
+    private final Path arquivo;
+    private final ChavesPublicas chavesPublicas;
+
+    private volatile Conjunto atual;
+
+    public ChavesJwt(String segredo, String kid, String arquivo, ChavesPublicas chavesPublicas) {
+        this.kidPadrao = kid;
+        this.chavePadrao = StringUtils.hasText(segredo) ? Keys.hmacShaKeyFor(segredo.getBytes(StandardCharsets.UTF_8)) : null;
+        this.arquivo = StringUtils.hasText(arquivo) ? Path.of(arquivo) : null;
+        this.chavesPublicas = chavesPublicas;
+        this.atual = new Conjunto(chavesIniciais(), kidPadrao, -1L, 0);
+        if (this.arquivo != null) {
+            try {
+                carregarArquivo();
+            } catch (IOException e) {
+                throw new IllegalStateException("Não foi possível ler o arquivo de chaves JWT " + arquivo + ".", e);
+            }
+        }
+    }
+
+    /**
+     * Incrementada a cada recarga efetiva (arquivo ou chaves públicas); permite descartar resultados de verificação
+     * obtidos com chaves antigas.
+     */
+    public int versao() {
+        return atual.versao() + chavesPublicas.versao();
+    }
+
+    /**
+     * Chave HMAC e 'kid' usados para assinar novos tokens HS512, lidos do mesmo conjunto (consistentes durante
+     * a rotação). A chave é nula se não houver app.jwt.secret nem chave ativa no arquivo.
+     */
+    public ChaveAtiva ativa() {
+        Conjunto conjunto = atual;
+        return new ChaveAtiva(conjunto.kidAtivo(), conjunto.chaves().get(conjunto.kidAtivo()));
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            if (chavePadrao == null) {
+                throw new JwtException("Token sem 'kid' e app.jwt.secret não configurado.");
+            }
+            return chavePadrao;
+        }
+        Key chave = atual.chaves().get(kid);
+        if (chave == null) {
+            chave = chavesPublicas.chave(kid);
+        }
+        if (chave == null) {
+            throw new JwtException("Chave de assinatura desconhecida (kid=" + kid + ").");
+        }
+        return chave;
+    }
+
+    /**
+     * Relê o arquivo de chaves se ele mudou desde a última leitura e atualiza as chaves públicas, se vencidas.
+     * Em caso de erro, mantém as chaves atuais.
+     */
+    public void recarregar() {
+        chavesPublicas.recarregar();
+        if (arquivo == null) {
+            return;
+        }
+        try {
+            carregarArquivo();
+        } catch (IOException | RuntimeException e) {
+            log.error("JWT: falha ao recarregar {}; mantendo as chaves atuais.", arquivo, e);
+        }
+    }
+
+    private void carregarArquivo() throws IOException {
+        long modificadoEm = Files.getLastModifiedTime(arquivo).toMillis();
+        if (modificadoEm == atual.modificadoEm()) {
+            return;
+        }
+
+        Properties propriedades = new Properties();
+        try (Reader reader = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            propriedades.load(reader);
+        }
+
+        Map<String, SecretKey> chaves = new HashMap<>(chavesIniciais());
+        for (String kid : propriedades.stringPropertyNames()) {
+            if (!ATIVA.equals(kid)) {
+                chaves.put(kid, Keys.hmacShaKeyFor(propriedades.getProperty(kid).getBytes(StandardCharsets.UTF_8)));
+            }
+        }
+        String kidAtivo = propriedades.getProperty(ATIVA, kidPadrao);
+        if (propriedades.containsKey(ATIVA) && !chaves.containsKey(kidAtivo)) {
+            throw new IllegalStateException("Chave ativa '" + kidAtivo + "' não existe em " + arquivo + ".");
+        }
+
+        atual = new Conjunto(Map.copyOf(chaves), kidAtivo, modificadoEm, atual.versao() + 1);
+        log.info("JWT: {} chaves carregadas de {} (ativa: {}).", chaves.size(), arquivo, kidAtivo);
+    }
+
+    private Map<String, SecretKey> chavesIniciais() {
+        return chavePadrao != null ? Map.of(kidPadrao, chavePadrao) : Map.of();
+    }
+
+    public record ChaveAtiva(String kid, SecretKey chave) {}
+
+    private record Conjunto(Map<String, SecretKey> chaves, String kidAtivo, long modificadoEm, int versao) {}
+}
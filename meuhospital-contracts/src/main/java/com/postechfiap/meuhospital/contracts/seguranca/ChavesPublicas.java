@@ -0,0 +1,29 @@
+package com.postechfiap.meuhospital.contracts.seguranca;
+
+import java.security.PublicKey;
+
+/**
+ * Chaves públicas de verificação consultadas pelo ChavesJwt depois das chaves HMAC:
+ * o par do próprio ms-autenticacao (mapa fixo) ou o JWKS publicado por ele (ClienteJwks).
+ */
+@FunctionalInterface
+public interface ChavesPublicas {
+
+    /**
+     * Chave pública do 'kid', ou nula se desconhecida.
+     */
+    PublicKey chave(String kid);
+
+    /**
+     * Incrementada quando o conjunto de chaves muda.
+     */
+    default int versao() {
+        return 0;
+    }
+
+    /**
+     * Atualiza as chaves, se a origem for remota.
+     */
+    default void recarregar() {
+    }
+}
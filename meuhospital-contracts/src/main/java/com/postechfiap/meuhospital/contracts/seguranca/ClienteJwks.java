@@ -0,0 +1,123 @@
+package com.postechfiap.meuhospital.contracts.seguranca;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Chaves públicas de verificação publicadas pelo ms-autenticacao em GET /auth/jwks (app.jwt.jwks-url).
+ * O JWKS é buscado sob demanda, no primeiro token com 'kid' desconhecido, e mantido em memória;
+ * a verificação em si não faz chamadas remotas. 'kid' novo (rotação) provoca nova busca, limitada a uma
+ * a cada app.jwt.jwks-intervalo-minimo para que tokens forjados não sobrecarreguem o ms-autenticacao.
+ * O agendamento (recarregar) atualiza o JWKS a cada app.jwt.jwks-atualizacao, removendo chaves retiradas.
+ * A busca HTTP roda sob um ReentrantLock, não em synchronized, para não prender a carrier thread das virtual threads.
+ */
+public class ClienteJwks implements ChavesPublicas {
+
+    private static final Logger log = LoggerFactory.getLogger(ClienteJwks.class);
+
+    private final RestClient restClient;
+    private final long intervaloMinimoNanos;
+    private final long atualizacaoNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile Conjunto atual = new Conjunto(Map.of(), 0);
+    private long ultimaBusca;
+    private boolean buscouAlgumaVez;
+
+    public ClienteJwks(String url, Duration intervaloMinimo, Duration atualizacao) {
+        this.restClient = StringUtils.hasText(url) ? RestClient.builder().baseUrl(url).build() : null;
+        this.intervaloMinimoNanos = intervaloMinimo.toNanos();
+        this.atualizacaoNanos = atualizacao.toNanos();
+    }
+
+    /**
+     * Chave pública do 'kid', ou nula se o ms-autenticacao não a publica.
+     */
+    @Override
+    public PublicKey chave(String kid) {
+        PublicKey chave = atual.chaves().get(kid);
+        if (chave != null || restClient == null) {
+            return chave;
+        }
+        lock.lock();
+        try {
+            // Outra thread pode ter buscado enquanto esta esperava
+            chave = atual.chaves().get(kid);
+            if (chave == null && podeBuscar(intervaloMinimoNanos)) {
+                buscar();
+                chave = atual.chaves().get(kid);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return chave;
+    }
+
+    /**
+     * Incrementada quando o conjunto de chaves publicado muda.
+     */
+    @Override
+    public int versao() {
+        return atual.versao();
+    }
+
+    /**
+     * Atualiza o JWKS se a última busca tiver mais de app.jwt.jwks-atualizacao. Em caso de erro, mantém as chaves.
+     */
+    @Override
+    public void recarregar() {
+        lock.lock();
+        try {
+            if (restClient != null && buscouAlgumaVez && podeBuscar(atualizacaoNanos)) {
+                buscar();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean podeBuscar(long intervaloNanos) {
+        return !buscouAlgumaVez || System.nanoTime() - ultimaBusca >= intervaloNanos;
+    }
+
+    private void buscar() {
+        ultimaBusca = System.nanoTime();
+        buscouAlgumaVez = true;
+        try {
+            String json = restClient.get().retrieve().body(String.class);
+            registrar(json);
+        } catch (RestClientException | JwtException | IllegalArgumentException e) {
+            log.error("JWT: falha ao buscar o JWKS do ms-autenticacao; mantendo {} chaves atuais.", atual.chaves().size(), e);
+        }
+    }
+
+    private void registrar(String json) {
+        JwkSet jwks = Jwks.setParser().build().parse(json);
+        Map<String, PublicKey> chaves = new HashMap<>();
+        for (Jwk<?> jwk : jwks.getKeys()) {
+            if (jwk instanceof PublicJwk<?> publica && publica.getId() != null) {
+                chaves.put(publica.getId(), publica.toKey());
+            }
+        }
+        if (!chaves.equals(atual.chaves())) {
+            atual = new Conjunto(Map.copyOf(chaves), atual.versao() + 1);
+            log.info("JWT: {} chaves públicas carregadas do JWKS {}.", chaves.size(), chaves.keySet());
+        }
+    }
+
+    private record Conjunto(Map<String, PublicKey> chaves, int versao) {}
+}
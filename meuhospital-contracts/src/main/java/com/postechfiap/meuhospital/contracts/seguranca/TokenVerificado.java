@@ -0,0 +1,28 @@
+package com.postechfiap.meuhospital.contracts.seguranca;
+
+import com.postechfiap.meuhospital.contracts.core.Role;
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Visão imutável de um JWT já verificado (assinatura e expiração), usada durante toda a requisição.
+ *
+ * @param login     E-mail do usuário (subject).
+ * @param userId    ID do usuário (claim 'id').
+ * @param role      Perfil do usuário (claim 'role').
+ * @param expiracao Instante de expiração (claim 'exp').
+ */
+public record TokenVerificado(String login, UUID userId, Role role, Instant expiracao) {
+
+    public static TokenVerificado de(Claims claims) {
+        String login = claims.getSubject();
+        String id = claims.get("id", String.class);
+        String role = claims.get("role", String.class);
+        if (login == null || id == null || role == null || claims.getExpiration() == null) {
+            throw new IllegalArgumentException("Token sem os claims obrigatórios (sub, id, role, exp).");
+        }
+        return new TokenVerificado(login, UUID.fromString(id), Role.valueOf(role), claims.getExpiration().toInstant());
+    }
+}
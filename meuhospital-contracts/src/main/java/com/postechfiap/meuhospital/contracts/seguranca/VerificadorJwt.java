@@ -0,0 +1,17 @@
+package com.postechfiap.meuhospital.contracts.seguranca;
+
+/**
+ * Verificação do JWT usada pelo CacheTokens, implementada pelo JwtService de cada serviço.
+ */
+public interface VerificadorJwt {
+
+    /**
+     * Verifica assinatura e expiração e devolve os dados do usuário contidos no token.
+     */
+    TokenVerificado verificar(String token);
+
+    /**
+     * Versão do conjunto de chaves de verificação; muda a cada rotação.
+     */
+    int versaoChaves();
+}
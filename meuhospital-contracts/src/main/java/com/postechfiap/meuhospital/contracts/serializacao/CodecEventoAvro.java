@@ -0,0 +1,63 @@
+package com.postechfiap.meuhospital.contracts.serializacao;
+
+import org.apache.avro.Schema;
+import org.apache.avro.message.BinaryMessageDecoder;
+import org.apache.avro.message.BinaryMessageEncoder;
+import org.apache.avro.specific.SpecificRecord;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.function.Function;
+
+/**
+ * Conversão de um evento de domínio (record de contracts.events) para a classe Avro gerada e vice-versa,
+ * em single-object encoding (marcador C3 01 + fingerprint do schema + corpo binário).
+ */
+public final class CodecEventoAvro<E, A extends SpecificRecord> {
+
+    private final Class<E> tipoEvento;
+    private final Schema schema;
+    private final BinaryMessageEncoder<A> encoder;
+    private final BinaryMessageDecoder<A> decoder;
+    private final Function<E, A> paraAvro;
+    private final Function<A, E> deAvro;
+
+    CodecEventoAvro(Class<E> tipoEvento, Schema schema, BinaryMessageEncoder<A> encoder,
+                    BinaryMessageDecoder<A> decoder, Function<E, A> paraAvro, Function<A, E> deAvro) {
+        this.tipoEvento = tipoEvento;
+        this.schema = schema;
+        this.encoder = encoder;
+        this.decoder = decoder;
+        this.paraAvro = paraAvro;
+        this.deAvro = deAvro;
+    }
+
+    public Class<E> tipoEvento() {
+        return tipoEvento;
+    }
+
+    public Schema schema() {
+        return schema;
+    }
+
+    public byte[] serializar(E evento) {
+        try {
+            // O buffer retornado pelo encoder é reutilizado pela thread; copia o conteúdo
+            ByteBuffer buffer = encoder.encode(paraAvro.apply(evento));
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return bytes;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao serializar " + tipoEvento.getSimpleName() + " em Avro.", e);
+        }
+    }
+
+    public E desserializar(byte[] bytes) {
+        try {
+            return deAvro.apply(decoder.decode(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao desserializar " + tipoEvento.getSimpleName() + " em Avro.", e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.postechfiap.meuhospital.contracts.serializacao;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+
+/**
+ * Deserializer Kafka dos eventos de domínio: lê mensagens Avro (identificadas pelo marcador de
+ * single-object encoding) e, para as demais, delega ao JsonDeserializer do Spring Kafka.
+ * Permite migrar os produtores para Avro sem parar os consumidores.
+ */
+public class EventoDeserializer<T> implements Deserializer<T> {
+
+    private final JsonDeserializer<T> jsonDeserializer;
+
+    public EventoDeserializer() {
+        this(new JsonDeserializer<>());
+    }
+
+    public EventoDeserializer(JsonDeserializer<T> jsonDeserializer) {
+        this.jsonDeserializer = jsonDeserializer;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonDeserializer.configure(configs, isKey);
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (RegistroSchemasEventos.isAvro(data)) {
+            CodecEventoAvro<?, ?> codec = RegistroSchemasEventos.codecDaMensagem(data);
+            if (codec == null) {
+                throw new SerializationException("Schema Avro desconhecido na mensagem do tópico " + topic + ".");
+            }
+            return (T) codec.desserializar(data);
+        }
+        return headers != null ? jsonDeserializer.deserialize(topic, headers, data) : jsonDeserializer.deserialize(topic, data);
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
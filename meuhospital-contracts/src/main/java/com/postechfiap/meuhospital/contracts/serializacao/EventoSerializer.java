@@ -0,0 +1,62 @@
+package com.postechfiap.meuhospital.contracts.serializacao;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+
+/**
+ * Serializer Kafka dos eventos de domínio.
+ * Com meuhospital.eventos.formato=AVRO, eventos com schema em {@link RegistroSchemasEventos} seguem em Avro binário;
+ * os demais (e todos com JSON, o padrão) usam o JsonSerializer do Spring Kafka.
+ */
+public class EventoSerializer<T> implements Serializer<T> {
+
+    public static final String FORMATO_CONFIG = "meuhospital.eventos.formato";
+
+    private final JsonSerializer<T> jsonSerializer;
+    private FormatoEvento formato;
+
+    public EventoSerializer() {
+        this(new JsonSerializer<>(), FormatoEvento.JSON);
+    }
+
+    public EventoSerializer(JsonSerializer<T> jsonSerializer, FormatoEvento formato) {
+        this.jsonSerializer = jsonSerializer;
+        this.formato = formato;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonSerializer.configure(configs, isKey);
+        if (configs.containsKey(FORMATO_CONFIG)) {
+            this.formato = FormatoEvento.de(configs.get(FORMATO_CONFIG));
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, T data) {
+        return serialize(topic, null, data);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public byte[] serialize(String topic, Headers headers, T data) {
+        if (data == null) {
+            return null;
+        }
+        if (formato == FormatoEvento.AVRO) {
+            CodecEventoAvro<T, ?> codec = RegistroSchemasEventos.codecDe((Class<T>) data.getClass());
+            if (codec != null) {
+                return codec.serializar(data);
+            }
+        }
+        return headers != null ? jsonSerializer.serialize(topic, headers, data) : jsonSerializer.serialize(topic, data);
+    }
+
+    @Override
+    public void close() {
+        jsonSerializer.close();
+    }
+}
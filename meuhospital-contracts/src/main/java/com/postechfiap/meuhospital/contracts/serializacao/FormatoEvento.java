@@ -0,0 +1,21 @@
+package com.postechfiap.meuhospital.contracts.serializacao;
+
+import java.util.Locale;
+
+/**
+ * Formato de escrita dos eventos Kafka. A leitura sempre aceita os dois formatos.
+ */
+public enum FormatoEvento {
+    JSON,
+    AVRO;
+
+    /**
+     * Converte o valor da propriedade meuhospital.eventos.formato (padrão: JSON).
+     */
+    public static FormatoEvento de(Object valor) {
+        if (valor == null || valor.toString().isBlank()) {
+            return JSON;
+        }
+        return valueOf(valor.toString().trim().toUpperCase(Locale.ROOT));
+    }
+}
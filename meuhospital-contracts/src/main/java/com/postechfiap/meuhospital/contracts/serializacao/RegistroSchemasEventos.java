@@ -0,0 +1,140 @@
+package com.postechfiap.meuhospital.contracts.serializacao;
+
+import com.postechfiap.meuhospital.contracts.avro.ConsultaCriadaEventoAvro;
+import com.postechfiap.meuhospital.contracts.avro.MedicoEventoAvro;
+import com.postechfiap.meuhospital.contracts.avro.RoleAvro;
+import com.postechfiap.meuhospital.contracts.avro.UuidAvro;
+import com.postechfiap.meuhospital.contracts.core.Role;
+import com.postechfiap.meuhospital.contracts.events.ConsultaCriadaEvent;
+import com.postechfiap.meuhospital.contracts.events.MedicoEvent;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.message.SchemaStore;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro local de schemas Avro dos eventos (substitui um schema registry externo).
+ * Cada mensagem binária carrega o fingerprint CRC-64 do schema de escrita; o registro resolve
+ * o fingerprint para o codec do evento. Ao evoluir um schema em src/main/avro, a versão anterior
+ * deve ser registrada com {@link #registrarVersaoAnterior} para que mensagens antigas continuem legíveis.
+ */
+public final class RegistroSchemasEventos {
+
+    private static final byte[] MARCADOR = {(byte) 0xC3, (byte) 0x01};
+    private static final int TAMANHO_CABECALHO = MARCADOR.length + Long.BYTES;
+
+    private static final SchemaStore.Cache SCHEMAS = new SchemaStore.Cache();
+    private static final Map<Class<?>, CodecEventoAvro<?, ?>> CODECS_POR_TIPO = new ConcurrentHashMap<>();
+    private static final Map<Long, CodecEventoAvro<?, ?>> CODECS_POR_FINGERPRINT = new ConcurrentHashMap<>();
+
+    static {
+        // Leitor com resolução pré-compilada por schema (FastReaderBuilder): evita a interpretação campo a campo
+        new ConsultaCriadaEventoAvro().getSpecificData().setFastReaderEnabled(true);
+        new MedicoEventoAvro().getSpecificData().setFastReaderEnabled(true);
+
+        registrar(new CodecEventoAvro<>(ConsultaCriadaEvent.class, ConsultaCriadaEventoAvro.getClassSchema(),
+                ConsultaCriadaEventoAvro.getEncoder(), ConsultaCriadaEventoAvro.createDecoder(SCHEMAS),
+                RegistroSchemasEventos::consultaParaAvro, RegistroSchemasEventos::consultaDeAvro));
+        registrar(new CodecEventoAvro<>(MedicoEvent.class, MedicoEventoAvro.getClassSchema(),
+                MedicoEventoAvro.getEncoder(), MedicoEventoAvro.createDecoder(SCHEMAS),
+                RegistroSchemasEventos::medicoParaAvro, RegistroSchemasEventos::medicoDeAvro));
+    }
+
+    private RegistroSchemasEventos() {
+    }
+
+    /**
+     * Codec Avro do tipo de evento, ou null se o evento não tiver schema (segue em JSON).
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> CodecEventoAvro<E, ?> codecDe(Class<E> tipoEvento) {
+        return (CodecEventoAvro<E, ?>) CODECS_POR_TIPO.get(tipoEvento);
+    }
+
+    /**
+     * Codec da mensagem binária, identificado pelo fingerprint do cabeçalho.
+     * @return null se a mensagem não estiver em single-object encoding Avro (ex: JSON) ou o schema for desconhecido.
+     */
+    public static CodecEventoAvro<?, ?> codecDaMensagem(byte[] mensagem) {
+        if (!isAvro(mensagem)) {
+            return null;
+        }
+        long fingerprint = ByteBuffer.wrap(mensagem, MARCADOR.length, Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).getLong();
+        return CODECS_POR_FINGERPRINT.get(fingerprint);
+    }
+
+    /**
+     * Indica se a mensagem começa com o marcador de single-object encoding Avro.
+     */
+    public static boolean isAvro(byte[] mensagem) {
+        return mensagem != null && mensagem.length >= TAMANHO_CABECALHO
+                && mensagem[0] == MARCADOR[0] && mensagem[1] == MARCADOR[1];
+    }
+
+    /**
+     * Registra uma versão anterior do schema de um evento, para leitura de mensagens antigas.
+     */
+    public static void registrarVersaoAnterior(Class<?> tipoEvento, Schema schemaAnterior) {
+        CodecEventoAvro<?, ?> codec = CODECS_POR_TIPO.get(tipoEvento);
+        if (codec == null) {
+            throw new IllegalArgumentException("Evento sem schema Avro registrado: " + tipoEvento.getName());
+        }
+        SCHEMAS.addSchema(schemaAnterior);
+        CODECS_POR_FINGERPRINT.put(SchemaNormalization.parsingFingerprint64(schemaAnterior), codec);
+    }
+
+    private static void registrar(CodecEventoAvro<?, ?> codec) {
+        SCHEMAS.addSchema(codec.schema());
+        CODECS_POR_TIPO.put(codec.tipoEvento(), codec);
+        CODECS_POR_FINGERPRINT.put(SchemaNormalization.parsingFingerprint64(codec.schema()), codec);
+    }
+
+    private static ConsultaCriadaEventoAvro consultaParaAvro(ConsultaCriadaEvent event) {
+        return new ConsultaCriadaEventoAvro(uuidParaAvro(event.consultaId()), uuidParaAvro(event.pacienteId()),
+                event.nomePaciente(), event.emailPaciente(), event.telefonePaciente(),
+                uuidParaAvro(event.medicoId()), event.nomeMedico(), event.dataConsulta(),
+                event.statusConsulta(), event.tipoEvento(), event.eventTimestamp());
+    }
+
+    private static ConsultaCriadaEvent consultaDeAvro(ConsultaCriadaEventoAvro avro) {
+        return new ConsultaCriadaEvent(uuidDeAvro(avro.getConsultaId()), uuidDeAvro(avro.getPacienteId()),
+                avro.getNomePaciente(), avro.getEmailPaciente(), avro.getTelefonePaciente(),
+                uuidDeAvro(avro.getMedicoId()), avro.getNomeMedico(), avro.getDataConsulta(),
+                avro.getStatusConsulta(), avro.getTipoEvento(), avro.getEventTimestamp());
+    }
+
+    private static MedicoEventoAvro medicoParaAvro(MedicoEvent event) {
+        return new MedicoEventoAvro(uuidParaAvro(event.userId()), event.nome(), event.numeroRegistro(),
+                event.especialidade(), event.role() != null ? RoleAvro.valueOf(event.role().name()) : null,
+                event.tipoEvento(), event.eventTimestamp());
+    }
+
+    private static MedicoEvent medicoDeAvro(MedicoEventoAvro avro) {
+        return new MedicoEvent(uuidDeAvro(avro.getUserId()), avro.getNome(), avro.getNumeroRegistro(),
+                avro.getEspecialidade(), avro.getRole() != null ? Role.valueOf(avro.getRole().name()) : null,
+                avro.getTipoEvento(), avro.getEventTimestamp());
+    }
+
+    private static UuidAvro uuidParaAvro(UUID uuid) {
+        if (uuid == null) {
+            return null;
+        }
+        return new UuidAvro(ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array());
+    }
+
+    private static UUID uuidDeAvro(UuidAvro avro) {
+        if (avro == null) {
+            return null;
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(avro.bytes());
+        return new UUID(bytes.getLong(), bytes.getLong());
+    }
+}
@@ -0,0 +1,22 @@
+package com.postechfiap.meuhospital.contracts.usuario;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Record (DTO) para busca de vários usuários por ID em uma única chamada (Service-to-Service).
+ */
+public record UsuarioBatchRequest(
+
+        @Schema(description = "IDs dos usuários a serem buscados (máximo 500 por chamada).",
+                example = "[\"5b236fb4-918b-4cea-ab38-b7a97fac52f3\"]")
+        @NotEmpty(message = "A lista de IDs é obrigatória.")
+        @Size(max = UsuarioBatchRequest.TAMANHO_MAXIMO, message = "No máximo 500 IDs por chamada.")
+        List<UUID> ids
+) {
+    public static final int TAMANHO_MAXIMO = 500;
+}
@@ -0,0 +1,90 @@
+package com.postechfiap.meuhospital.contracts.seguranca;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Escolha da chave de verificação pelo 'kid' do cabeçalho: segredo padrão, arquivo de chaves HMAC e chaves públicas.
+ */
+class ChavesJwtTest {
+
+    private static final String SEGREDO = "segredo-padrao-de-teste-com-pelo-menos-sessenta-e-quatro-bytes-para-o-hs512";
+    private static final String SEGREDO_ARQUIVO = "segredo-do-arquivo-de-chaves-com-pelo-menos-sessenta-e-quatro-bytes-hs512";
+
+    private final KeyPair parEc = Jwts.SIG.ES256.keyPair().build();
+    private final ChavesPublicas chavesPublicas = kid -> "ec1".equals(kid) ? parEc.getPublic() : null;
+
+    @TempDir
+    private Path diretorio;
+
+    @Test
+    void tokenSemKidUsaSomenteOSegredoPadrao() throws IOException {
+        Path arquivo = diretorio.resolve("chaves.properties");
+        Files.writeString(arquivo, "rotacao=" + SEGREDO_ARQUIVO + "\nativa=rotacao\n", StandardCharsets.UTF_8);
+        JwtParser parser = parser(new ChavesJwt(SEGREDO, "principal", arquivo.toString(), chavesPublicas));
+
+        assertThat(parser.parseSignedClaims(hs512(null, SEGREDO)).getPayload().getSubject()).isEqualTo("maria@meuhospital.com");
+
+        // Sem 'kid' não se tenta a chave ativa do arquivo nem as chaves públicas
+        assertThatThrownBy(() -> parser.parseSignedClaims(hs512(null, SEGREDO_ARQUIVO))).isInstanceOf(JwtException.class);
+        String es256SemKid = Jwts.builder().subject("maria@meuhospital.com").signWith(parEc.getPrivate(), Jwts.SIG.ES256).compact();
+        assertThatThrownBy(() -> parser.parseSignedClaims(es256SemKid)).isInstanceOf(JwtException.class);
+
+        // Com o kid do arquivo, a mesma chave é aceita
+        assertThat(parser.parseSignedClaims(hs512("rotacao", SEGREDO_ARQUIVO)).getPayload().getSubject())
+                .isEqualTo("maria@meuhospital.com");
+    }
+
+    @Test
+    void tokenSemKidERejeitadoSemSegredoConfigurado() {
+        JwtParser parser = parser(new ChavesJwt("", "principal", "", chavesPublicas));
+
+        assertThatThrownBy(() -> parser.parseSignedClaims(hs512(null, SEGREDO)))
+                .isInstanceOf(JwtException.class)
+                .hasMessageContaining("sem 'kid'");
+    }
+
+    @Test
+    void tokenHmacComKidDeChavePublicaERejeitado() {
+        JwtParser parser = parser(new ChavesJwt(SEGREDO, "principal", "", chavesPublicas));
+        String es256 = Jwts.builder().subject("maria@meuhospital.com")
+                .header().keyId("ec1").and()
+                .signWith(parEc.getPrivate(), Jwts.SIG.ES256)
+                .compact();
+        assertThat(parser.parseSignedClaims(es256).getPayload().getSubject()).isEqualTo("maria@meuhospital.com");
+
+        // Confusão de algoritmo: HS512 assinado com os bytes (públicos) da chave ES256 do kid
+        SecretKey chavePublicaComoSegredo = Keys.hmacShaKeyFor(parEc.getPublic().getEncoded());
+        String forjado = Jwts.builder().subject("admin@meuhospital.com")
+                .header().keyId("ec1").and()
+                .signWith(chavePublicaComoSegredo, Jwts.SIG.HS512)
+                .compact();
+
+        assertThatThrownBy(() -> parser.parseSignedClaims(forjado)).isInstanceOf(JwtException.class);
+    }
+
+    private static JwtParser parser(ChavesJwt chaves) {
+        return Jwts.parser().keyLocator(chaves).build();
+    }
+
+    private static String hs512(String kid, String segredo) {
+        return Jwts.builder().subject("maria@meuhospital.com")
+                .header().keyId(kid).and()
+                .signWith(Keys.hmacShaKeyFor(segredo.getBytes(StandardCharsets.UTF_8)), Jwts.SIG.HS512)
+                .compact();
+    }
+}
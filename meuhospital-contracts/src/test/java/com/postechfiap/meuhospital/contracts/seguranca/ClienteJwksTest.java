@@ -0,0 +1,154 @@
+package com.postechfiap.meuhospital.contracts.seguranca;
+
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwks;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Busca do JWKS sob demanda e na recarga, contra um servidor HTTP local que conta as requisições.
+ */
+class ClienteJwksTest {
+
+    private static final Duration UMA_HORA = Duration.ofHours(1);
+
+    private final KeyPair par1 = Jwts.SIG.ES256.keyPair().build();
+    private final KeyPair par2 = Jwts.SIG.ES256.keyPair().build();
+    private final AtomicInteger buscas = new AtomicInteger();
+
+    private HttpServer servidor;
+    private String url;
+    private volatile String jwks;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        servidor.createContext("/auth/jwks", troca -> {
+            buscas.incrementAndGet();
+            byte[] corpo = jwks.getBytes(StandardCharsets.UTF_8);
+            troca.getResponseHeaders().set("Content-Type", "application/json");
+            troca.sendResponseHeaders(200, corpo.length);
+            try (OutputStream saida = troca.getResponseBody()) {
+                saida.write(corpo);
+            }
+        });
+        servidor.start();
+        url = "http://localhost:" + servidor.getAddress().getPort() + "/auth/jwks";
+    }
+
+    @AfterEach
+    void tearDown() {
+        servidor.stop(0);
+    }
+
+    @Test
+    void kidDesconhecidoProvocaUmaUnicaBuscaPorIntervaloMinimo() throws Exception {
+        publicar(jwk("k1", par1));
+        ClienteJwks cliente = new ClienteJwks(url, UMA_HORA, UMA_HORA);
+
+        // Requisições simultâneas com o mesmo kid forjado: só a primeira vai ao ms-autenticacao
+        ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<?>> chamadas = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                chamadas.add(threads.submit(() -> {
+                    largada.await();
+                    return cliente.chave("forjado");
+                }));
+            }
+            largada.countDown();
+            for (Future<?> chamada : chamadas) {
+                assertThat(chamada.get()).isNull();
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+        assertThat(buscas).hasValue(1);
+
+        // Outros kids desconhecidos dentro do intervalo também não buscam de novo
+        for (int i = 0; i < 50; i++) {
+            assertThat(cliente.chave("forjado-" + i)).isNull();
+        }
+        assertThat(buscas).hasValue(1);
+
+        // A chave publicada veio na primeira busca e é atendida da memória
+        assertThat(cliente.chave("k1")).isEqualTo(par1.getPublic());
+        assertThat(buscas).hasValue(1);
+    }
+
+    @Test
+    void kidNovoDaRotacaoEBuscadoQuandoOIntervaloMinimoPermite() {
+        publicar(jwk("k1", par1));
+        ClienteJwks cliente = new ClienteJwks(url, Duration.ZERO, UMA_HORA);
+
+        assertThat(cliente.chave("k1")).isEqualTo(par1.getPublic());
+        assertThat(cliente.versao()).isEqualTo(1);
+
+        publicar(jwk("k1", par1), jwk("k2", par2));
+        assertThat(cliente.chave("k1")).isEqualTo(par1.getPublic());
+        assertThat(buscas).hasValue(1);
+
+        assertThat(cliente.chave("k2")).isEqualTo(par2.getPublic());
+        assertThat(buscas).hasValue(2);
+        assertThat(cliente.versao()).isEqualTo(2);
+    }
+
+    @Test
+    void chaveRetiradaDoJwksDeixaDeVerificarAposRecarregar() {
+        publicar(jwk("k1", par1), jwk("k2", par2));
+        ChavesJwt chaves = new ChavesJwt("", "principal", "", new ClienteJwks(url, UMA_HORA, Duration.ZERO));
+        JwtParser parser = Jwts.parser().keyLocator(chaves).build();
+        String tokenK1 = token("k1", par1);
+        String tokenK2 = token("k2", par2);
+
+        assertThat(parser.parseSignedClaims(tokenK1).getPayload().getSubject()).isEqualTo("maria@meuhospital.com");
+        int versao = chaves.versao();
+
+        publicar(jwk("k2", par2));
+        chaves.recarregar();
+
+        assertThat(chaves.versao()).isGreaterThan(versao);
+        assertThatThrownBy(() -> parser.parseSignedClaims(tokenK1))
+                .isInstanceOf(JwtException.class)
+                .hasMessageContaining("kid=k1");
+        assertThat(parser.parseSignedClaims(tokenK2).getPayload().getSubject()).isEqualTo("maria@meuhospital.com");
+    }
+
+    private void publicar(String... chaves) {
+        jwks = "{\"keys\":[" + String.join(",", chaves) + "]}";
+    }
+
+    private static String jwk(String kid, KeyPair par) {
+        return Jwks.json(Jwks.builder().keyPair(par).id(kid).build().toPublicJwk());
+    }
+
+    private static String token(String kid, KeyPair par) {
+        return Jwts.builder()
+                .subject("maria@meuhospital.com")
+                .header().keyId(kid).and()
+                .signWith(par.getPrivate(), Jwts.SIG.ES256)
+                .compact();
+    }
+}
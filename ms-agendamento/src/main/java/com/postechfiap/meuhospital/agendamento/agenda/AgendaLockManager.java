@@ -0,0 +1,91 @@
+package com.postechfiap.meuhospital.agendamento.agenda;
+
+import com.postechfiap.meuhospital.agendamento.exception.RegraDeNegocioException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializa as operações de agendamento por médico, sem lock global.
+ * Cada médico é mapeado (por hash) para uma faixa de um conjunto fixo de locks (striped locking):
+ * agendamentos de médicos diferentes seguem em paralelo, e o check-then-act
+ * (validação de disponibilidade + insert + commit) de um mesmo médico é atômico nesta instância.
+ * Com várias réplicas, o lock consultivo do PostgreSQL (pg_advisory_xact_lock) estende
+ * a exclusão mútua entre instâncias.
+ */
+@Component
+public class AgendaLockManager {
+
+    private static final Logger log = LoggerFactory.getLogger(AgendaLockManager.class);
+
+    private final ReentrantLock[] stripes;
+    private final long timeoutMs;
+    private final boolean distribuido;
+    private final JdbcTemplate jdbcTemplate;
+
+    public AgendaLockManager(@Value("${app.agendamento.lock.stripes:1024}") int quantidadeStripes,
+                             @Value("${app.agendamento.lock.timeout-ms:5000}") long timeoutMs,
+                             @Value("${app.agendamento.lock.distribuido:false}") boolean distribuido,
+                             JdbcTemplate jdbcTemplate) {
+        this.stripes = new ReentrantLock[quantidadeStripes];
+        for (int i = 0; i < quantidadeStripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMs = timeoutMs;
+        this.distribuido = distribuido;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Executa a operação segurando o lock da faixa do médico.
+     * Deve envolver a transação inteira, para que o lock só seja liberado após o commit.
+     * @throws RegraDeNegocioException se o lock não for obtido dentro do timeout.
+     */
+    public <T> T executarComLock(UUID medicoId, Supplier<T> operacao) {
+        ReentrantLock lock = stripes[Math.floorMod(medicoId.hashCode(), stripes.length)];
+        try {
+            if (!lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("LOCK AGENDA: Timeout aguardando a agenda do Médico ID {}.", medicoId);
+                throw new RegraDeNegocioException("A agenda do médico está ocupada. Tente novamente em instantes.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RegraDeNegocioException("Agendamento interrompido ao aguardar a agenda do médico.");
+        }
+
+        try {
+            return operacao.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Indica se o lock entre réplicas (PostgreSQL) está habilitado.
+     * Nesse modo o índice local não enxerga agendamentos de outras instâncias,
+     * então a disponibilidade deve ser confirmada no banco sob o lock.
+     */
+    public boolean isDistribuido() {
+        return distribuido;
+    }
+
+    /**
+     * Obtém o lock consultivo do PostgreSQL para o médico, liberado automaticamente no commit/rollback.
+     * A chave é o hash (32 bits) do medicoId na classe LocksConsultivos.AGENDA_MEDICO: médicos com o mesmo hash
+     * apenas compartilham o lock, como nas faixas locais.
+     * Deve ser chamado dentro de uma transação. Sem o modo distribuído, não faz nada.
+     */
+    public void bloquearNoBanco(UUID medicoId) {
+        if (!distribuido) {
+            return;
+        }
+        jdbcTemplate.query("select pg_advisory_xact_lock(?, ?)", rs -> null, LocksConsultivos.AGENDA_MEDICO, medicoId.hashCode());
+    }
+}
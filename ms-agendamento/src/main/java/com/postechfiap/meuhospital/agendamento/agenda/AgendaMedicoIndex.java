@@ -0,0 +1,194 @@
+package com.postechfiap.meuhospital.agendamento.agenda;
+
+import com.postechfiap.meuhospital.agendamento.dto.SlotAgendado;
+import com.postechfiap.meuhospital.agendamento.entity.StatusConsulta;
+import com.postechfiap.meuhospital.agendamento.repository.ConsultaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Índice em memória dos horários AGENDADOS de cada médico.
+ * Mantém, por medicoId, um conjunto ordenado por horário, permitindo responder
+ * à verificação de disponibilidade sem ir ao PostgreSQL.
+ * O banco continua sendo o árbitro final: o índice é apenas um atalho local.
+ */
+@Component
+public class AgendaMedicoIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(AgendaMedicoIndex.class);
+
+    private static final UUID MENOR_UUID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+    private static final UUID MAIOR_UUID = new UUID(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private static final Comparator<Slot> ORDEM_SLOT = Comparator
+            .comparing(Slot::inicio)
+            .thenComparing(Slot::consultaId);
+
+    private final ConsultaRepository consultaRepository;
+    private final Map<UUID, NavigableSet<Slot>> agendas = new ConcurrentHashMap<>();
+
+    private volatile boolean pronto = false;
+
+    /**
+     * Horários liberados enquanto o snapshot do aquecimento é carregado (nulo fora do aquecimento).
+     * O aquecimento roda com o servidor já atendendo: um cancelamento que comita durante a carga
+     * não pode ser desfeito pelo snapshot, lido antes do commit.
+     */
+    private Set<Slot> liberadosDuranteAquecimento;
+    private final Object monitorAquecimento = new Object();
+
+    public AgendaMedicoIndex(ConsultaRepository consultaRepository) {
+        this.consultaRepository = consultaRepository;
+    }
+
+    /**
+     * Aquece o índice a partir das consultas AGENDADAS a partir de agora.
+     * Enquanto não estiver pronto, o serviço usa a consulta ao banco como fallback.
+     * Liberações ocorridas durante a carga são registradas e têm precedência sobre o snapshot;
+     * reservas feitas durante a carga entram direto no índice.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void aquecer() {
+        LocalDateTime agora = LocalDateTime.now();
+        log.info("AGENDA INDEX: Aquecendo índice de horários a partir de {}.", agora);
+
+        synchronized (monitorAquecimento) {
+            liberadosDuranteAquecimento = new HashSet<>();
+        }
+
+        List<SlotAgendado> slots = consultaRepository.findSlotsAgendadosAPartirDe(StatusConsulta.AGENDADA, agora);
+
+        int descartados;
+        synchronized (monitorAquecimento) {
+            for (SlotAgendado slot : slots) {
+                Slot novo = new Slot(slot.dataConsulta(), slot.consultaId());
+                if (!liberadosDuranteAquecimento.contains(novo)) {
+                    agendaDo(slot.medicoId()).add(novo);
+                }
+            }
+            descartados = liberadosDuranteAquecimento.size();
+            liberadosDuranteAquecimento = null;
+            pronto = true;
+        }
+        log.info("AGENDA INDEX: {} horários carregados para {} médicos ({} liberados durante a carga).",
+                slots.size(), agendas.size(), descartados);
+    }
+
+    public boolean isPronto() {
+        return pronto;
+    }
+
+    /**
+     * Verifica se existe horário ocupado para o médico no intervalo [inicio, fim] (inclusivo),
+     * mesma semântica da verificação feita no banco.
+     * @param ignorarConsultaId consulta a desconsiderar (ex: a própria consulta em edição). Pode ser nulo.
+     */
+    public boolean possuiConflito(UUID medicoId, LocalDateTime inicio, LocalDateTime fim, UUID ignorarConsultaId) {
+        NavigableSet<Slot> agenda = agendas.get(medicoId);
+        if (agenda == null) {
+            return false;
+        }
+
+        for (Slot slot : agenda.subSet(new Slot(inicio, MENOR_UUID), true, new Slot(fim, MAIOR_UUID), true)) {
+            if (!slot.consultaId().equals(ignorarConsultaId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Lista os inícios das consultas AGENDADAS do médico no intervalo [inicio, fim] (inclusivo), em ordem.
+     */
+    public List<LocalDateTime> horariosOcupados(UUID medicoId, LocalDateTime inicio, LocalDateTime fim) {
+        NavigableSet<Slot> agenda = agendas.get(medicoId);
+        if (agenda == null) {
+            return List.of();
+        }
+        return agenda.subSet(new Slot(inicio, MENOR_UUID), true, new Slot(fim, MAIOR_UUID), true).stream()
+                .map(Slot::inicio)
+                .toList();
+    }
+
+    public void reservar(UUID medicoId, LocalDateTime inicio, UUID consultaId) {
+        Slot slot = new Slot(inicio, consultaId);
+        if (!pronto) {
+            synchronized (monitorAquecimento) {
+                if (liberadosDuranteAquecimento != null) {
+                    liberadosDuranteAquecimento.remove(slot);
+                }
+                agendaDo(medicoId).add(slot);
+            }
+            return;
+        }
+        agendaDo(medicoId).add(slot);
+    }
+
+    public void liberar(UUID medicoId, LocalDateTime inicio, UUID consultaId) {
+        Slot slot = new Slot(inicio, consultaId);
+        if (!pronto) {
+            synchronized (monitorAquecimento) {
+                if (liberadosDuranteAquecimento != null) {
+                    liberadosDuranteAquecimento.add(slot);
+                }
+                removerDaAgenda(medicoId, slot);
+            }
+            return;
+        }
+        removerDaAgenda(medicoId, slot);
+    }
+
+    private NavigableSet<Slot> agendaDo(UUID medicoId) {
+        return agendas.computeIfAbsent(medicoId, id -> new ConcurrentSkipListSet<>(ORDEM_SLOT));
+    }
+
+    private void removerDaAgenda(UUID medicoId, Slot slot) {
+        NavigableSet<Slot> agenda = agendas.get(medicoId);
+        if (agenda != null) {
+            agenda.remove(slot);
+        }
+    }
+
+    /**
+     * Remove do índice os horários anteriores ao limite (consultas já ocorridas).
+     */
+    public void descartarAnterioresA(LocalDateTime limite) {
+        agendas.values().forEach(agenda -> agenda.headSet(new Slot(limite, MENOR_UUID)).clear());
+        agendas.values().removeIf(NavigableSet::isEmpty);
+    }
+
+    /**
+     * Executa a alteração no índice somente após o commit da transação corrente,
+     * para que um rollback não deixe horários fantasmas. Sem transação ativa, executa imediatamente.
+     */
+    public void aposCommit(Runnable alteracao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            alteracao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                alteracao.run();
+            }
+        });
+    }
+
+    private record Slot(LocalDateTime inicio, UUID consultaId) {}
+}
@@ -0,0 +1,18 @@
+package com.postechfiap.meuhospital.agendamento.agenda;
+
+/**
+ * Classes dos locks consultivos do PostgreSQL usados pelo ms-agendamento, na forma de duas chaves
+ * (pg_advisory_xact_lock(int classe, int chave)): cada uso tem sua própria classe, então a chave de um
+ * nunca coincide com a de outro. Novos locks consultivos devem receber uma classe nova aqui.
+ */
+public final class LocksConsultivos {
+
+    /** Agenda de um médico (AgendaLockManager); a chave é o hash do medicoId. */
+    public static final int AGENDA_MEDICO = 1;
+
+    /** Relay da outbox (ConsultaOutbox); chave única 0. */
+    public static final int RELAY_OUTBOX = 2;
+
+    private LocksConsultivos() {
+    }
+}
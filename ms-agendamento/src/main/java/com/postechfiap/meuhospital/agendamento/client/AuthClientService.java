@@ -2,6 +2,11 @@ package com.postechfiap.meuhospital.agendamento.client;
 
 import com.postechfiap.meuhospital.agendamento.dto.PacienteDetails;
 import com.postechfiap.meuhospital.agendamento.exception.RecursoNaoEncontradoException;
+import com.postechfiap.meuhospital.contracts.usuario.UsuarioBatchRequest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -11,11 +16,19 @@ import reactor.core.publisher.Mono;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Cliente REST síncrono para buscar detalhes de usuários no ms-autenticacao.
  * Utiliza chave secreta (X-Internal-Secret) para autenticação Service-to-Service.
+ * Os detalhes dos pacientes ficam em um cache local limitado (tamanho e TTL), invalidado
+ * pelos eventos de atualização de usuário publicados pelo ms-autenticacao.
  */
 @Service
 public class AuthClientService {
@@ -27,22 +40,58 @@ public class AuthClientService {
     private final String internalSecret;
 
     private static final String INTERNAL_SECRET_HEADER = "X-Internal-Secret";
+    private static final String BATCH_PATH = "/batch";
+    private static final String CACHE_PACIENTES = "pacientes";
+
+    private final Cache<UUID, PacienteDetails> cachePacientes;
 
     public AuthClientService(WebClient webClient,
                              @Value("${app.auth-service-url}") String authServiceBaseUrl,
-                             @Value("${app.internal-secret}") String internalSecret) {
+                             @Value("${app.internal-secret}") String internalSecret,
+                             @Value("${app.auth-client.cache.tamanho-maximo:10000}") long tamanhoMaximoCache,
+                             @Value("${app.auth-client.cache.ttl:10m}") Duration ttlCache,
+                             MeterRegistry meterRegistry) {
         this.webClient = webClient;
         this.authServiceBaseUrl = authServiceBaseUrl;
         this.internalSecret = internalSecret;
+        this.cachePacientes = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximoCache)
+                .expireAfterWrite(ttlCache)
+                .recordStats()
+                .build();
+        // Expõe cache.gets (hit/miss), cache.evictions e cache.size em /actuator/metrics
+        CaffeineCacheMetrics.monitor(meterRegistry, cachePacientes, CACHE_PACIENTES);
     }
 
     /**
-     * Busca os detalhes completos do paciente (nome, email, telefone) no ms-autenticacao.
+     * Busca os detalhes completos do paciente (nome, email, telefone), consultando primeiro o cache local.
      * @param userId O ID do paciente.
      * @return PacienteDetails.
-     * @throws RecursoNaoEncontradoException se o usuário não for encontrado (404).
+     * @throws RecursoNaoEncontradoException se o usuário não for encontrado (404). Ausências não são cacheadas.
      */
     public PacienteDetails buscarPacientePorId(UUID userId) {
+        return cachePacientes.get(userId, this::buscarPacienteRemoto);
+    }
+
+    /**
+     * Busca os detalhes de vários pacientes, indo ao ms-autenticacao (POST /usuarios/batch) apenas pelos IDs fora do cache.
+     * @param userIds IDs dos pacientes (no máximo UsuarioBatchRequest.TAMANHO_MAXIMO).
+     * @return Mapa ID -> PacienteDetails. IDs não encontrados ficam ausentes do mapa.
+     */
+    public Map<UUID, PacienteDetails> buscarPacientesPorIds(Collection<UUID> userIds) {
+        return cachePacientes.getAll(userIds, this::buscarPacientesRemoto);
+    }
+
+    /**
+     * Remove o paciente do cache local, forçando nova busca no ms-autenticacao no próximo acesso.
+     * @param userId O ID do usuário alterado.
+     */
+    public void invalidarPaciente(UUID userId) {
+        cachePacientes.invalidate(userId);
+        log.debug("CACHE: Paciente ID {} invalidado.", userId);
+    }
+
+    private PacienteDetails buscarPacienteRemoto(UUID userId) {
         String url = authServiceBaseUrl + "/" + userId.toString();
         log.info("RPC INICIADO: Buscando Paciente ID {} via GET {}", userId, url);
 
@@ -75,4 +124,32 @@ public class AuthClientService {
             throw new RuntimeException("Falha na comunicação síncrona com o ms-autenticacao: " + e.getMessage(), e);
         }
     }
+
+    private Map<UUID, PacienteDetails> buscarPacientesRemoto(Collection<? extends UUID> userIds) {
+        String url = authServiceBaseUrl + BATCH_PATH;
+        log.info("RPC INICIADO: Buscando {} pacientes via POST {}", userIds.size(), url);
+
+        try {
+            List<PacienteDetails> response = webClient.post()
+                    .uri(url)
+                    .header(INTERNAL_SECRET_HEADER, internalSecret)
+                    .bodyValue(new UsuarioBatchRequest(List.copyOf(userIds)))
+                    .retrieve()
+                    .bodyToFlux(PacienteDetails.class)
+                    .collectList()
+                    .block(); // Chamada síncrona
+
+            log.info("RPC SUCESSO: {} de {} pacientes recebidos.", response.size(), userIds.size());
+            return response.stream()
+                    .collect(Collectors.toMap(PacienteDetails::id, Function.identity(), (a, b) -> a));
+
+        } catch (WebClientResponseException e) {
+            if (e.getStatusCode() == HttpStatus.FORBIDDEN || e.getStatusCode() == HttpStatus.UNAUTHORIZED) {
+                log.error("RPC FALHOU: Acesso negado ao ms-autenticacao (lote). Status: {}", e.getStatusCode());
+                throw new RuntimeException("Falha na autenticação de serviço: Chave interna inválida ou acesso negado.", e);
+            }
+            log.error("RPC FALHOU: Erro inesperado na busca em lote. Status: {}", e.getStatusCode(), e);
+            throw new RuntimeException("Falha na comunicação síncrona com o ms-autenticacao: " + e.getMessage(), e);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.postechfiap.meuhospital.agendamento.config;
+
+import com.postechfiap.meuhospital.contracts.events.ConsultaCriadaEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.ssl.SslBundles;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Produtor Kafka dedicado aos eventos de consulta.
+ * Parte de spring.kafka.producer (serializers, client-id) e aplica o perfil de app.kafka.producer:
+ * lote/linger e compressão para throughput, idempotência (acks=all) para não duplicar em retentativas
+ * e timeouts que limitam quanto tempo um envio pode ficar retentando ou bloqueado com o broker lento.
+ */
+@Configuration
+public class KafkaProducerConfig {
+
+    @Bean
+    public ProducerFactory<String, ConsultaCriadaEvent> consultaProducerFactory(
+            KafkaProperties kafkaProperties,
+            ObjectProvider<SslBundles> sslBundles,
+            MeterRegistry meterRegistry,
+            @Value("${app.kafka.producer.batch-size:65536}") int batchSize,
+            @Value("${app.kafka.producer.linger:10ms}") Duration linger,
+            @Value("${app.kafka.producer.compression:lz4}") String compression,
+            @Value("${app.kafka.producer.idempotencia:true}") boolean idempotencia,
+            @Value("${app.kafka.producer.request-timeout:5s}") Duration requestTimeout,
+            @Value("${app.kafka.producer.delivery-timeout:8s}") Duration deliveryTimeout,
+            @Value("${app.kafka.producer.max-block:2s}") Duration maxBlock) {
+
+        Map<String, Object> props = kafkaProperties.buildProducerProperties(sslBundles.getIfAvailable());
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, (int) linger.toMillis());
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotencia);
+        props.put(ProducerConfig.ACKS_CONFIG, idempotencia ? "all" : "1");
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        props.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, (int) requestTimeout.toMillis());
+        // delivery.timeout.ms limita o total de retentativas do cliente; deve ser >= linger + request timeout
+        props.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG,
+                (int) Math.max(deliveryTimeout.toMillis(), linger.toMillis() + requestTimeout.toMillis()));
+        // Tempo máximo que send() bloqueia com o buffer cheio ou sem metadados do broker
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlock.toMillis());
+
+        DefaultKafkaProducerFactory<String, ConsultaCriadaEvent> factory = new DefaultKafkaProducerFactory<>(props);
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
+    }
+
+    @Bean
+    public KafkaTemplate<String, ConsultaCriadaEvent> consultaKafkaTemplate(
+            ProducerFactory<String, ConsultaCriadaEvent> consultaProducerFactory) {
+        return new KafkaTemplate<>(consultaProducerFactory);
+    }
+}
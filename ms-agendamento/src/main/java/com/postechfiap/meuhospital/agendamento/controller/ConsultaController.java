@@ -1,22 +1,36 @@
 package com.postechfiap.meuhospital.agendamento.controller;
 
+import com.postechfiap.meuhospital.agendamento.dto.DiretorioMedicosPagina;
+import com.postechfiap.meuhospital.agendamento.dto.HorariosDisponiveisResponse;
+import com.postechfiap.meuhospital.agendamento.idempotencia.IdempotenciaStore;
 import com.postechfiap.meuhospital.agendamento.dto.MedicoProjectionResponse;
 import com.postechfiap.meuhospital.agendamento.service.ConsultaService;
+import com.postechfiap.meuhospital.contracts.agendamento.ConsultaBatchRequest;
+import com.postechfiap.meuhospital.contracts.agendamento.ConsultaBatchResponse;
+import com.postechfiap.meuhospital.contracts.agendamento.ConsultaPaginaResponse;
 import com.postechfiap.meuhospital.contracts.agendamento.ConsultaRequest;
 import com.postechfiap.meuhospital.contracts.agendamento.ConsultaResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -31,15 +45,21 @@ public class ConsultaController {
 
     private static final Logger log = LoggerFactory.getLogger(ConsultaController.class);
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final ConsultaService consultaService;
+    private final IdempotenciaStore idempotenciaStore;
 
-    public ConsultaController(ConsultaService consultaService) {
+    public ConsultaController(ConsultaService consultaService, IdempotenciaStore idempotenciaStore) {
         this.consultaService = consultaService;
+        this.idempotenciaStore = idempotenciaStore;
     }
 
     /**
      * Endpoint para criação de uma nova consulta.
      * Requer autoridade: MÉDICO ou ENFERMEIRO.
+     * Com Idempotency-Key, uma repetição da mesma requisição retorna a consulta já criada.
      */
     @PostMapping
     @Operation(summary = "Criar Nova Consulta",
@@ -48,19 +68,44 @@ public class ConsultaController {
     @ApiResponse(responseCode = "400", description = "Regra de Negócio violada (Ex: Conflito de horário, DTO inválido).")
     @PreAuthorize("hasAnyAuthority('MEDICO', 'ENFERMEIRO')")
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<ConsultaResponse> criarConsulta(@RequestBody @Valid ConsultaRequest request) {
+    public ResponseEntity<ConsultaResponse> criarConsulta(
+            @Parameter(description = "Chave opcional para repetição segura da requisição.") @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody @Valid ConsultaRequest request) {
         log.info("INICIANDO: POST /consultas. Paciente: {}, Médico: {}, Data: {}",
                 request.pacienteId(), request.medicoId(), request.dataConsulta());
 
-        ConsultaResponse response = consultaService.criarConsulta(request);
+        IdempotenciaStore.Resultado<ConsultaResponse> resultado = idempotenciaStore.executar(
+                idempotencyKey, "POST /consultas", request, () -> consultaService.criarConsulta(request));
 
-        log.info("SUCESSO: Consulta ID {} criada e evento publicado.", response.id());
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        log.info("SUCESSO: Consulta ID {} criada e evento publicado.", resultado.resposta().id());
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(resultado.reaproveitada()))
+                .body(resultado.resposta());
+    }
+
+    /**
+     * Endpoint para criação de várias consultas em uma única chamada (ex: tratamentos recorrentes).
+     * Requer autoridade: MÉDICO ou ENFERMEIRO.
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "Criar Consultas em Lote",
+            description = "Cria até 100 consultas. Cada item é validado individualmente; a resposta traz o resultado de cada um (CRIADA ou REJEITADA).")
+    @ApiResponse(responseCode = "200", description = "Lote processado. Verifique o status de cada item.")
+    @ApiResponse(responseCode = "400", description = "Requisição inválida (Ex: lista vazia, mais de 100 itens, item com campos inválidos).")
+    @PreAuthorize("hasAnyAuthority('MEDICO', 'ENFERMEIRO')")
+    public ResponseEntity<ConsultaBatchResponse> criarConsultasEmLote(@RequestBody @Valid ConsultaBatchRequest request) {
+        log.info("INICIANDO: POST /consultas/batch. Itens: {}", request.consultas().size());
+
+        ConsultaBatchResponse response = consultaService.criarConsultasEmLote(request.consultas());
+
+        log.info("SUCESSO: Lote processado. Criadas: {}, Rejeitadas: {}.", response.criadas(), response.rejeitadas());
+        return ResponseEntity.ok(response);
     }
 
     /**
      * Endpoint para edição de uma consulta existente.
      * Requer autoridade: MÉDICO ou ENFERMEIRO.
+     * Com Idempotency-Key, uma repetição da mesma requisição retorna a consulta já editada.
      */
     @PutMapping("/{id}")
     @Operation(summary = "Editar Consulta",
@@ -70,14 +115,18 @@ public class ConsultaController {
     @PreAuthorize("hasAnyAuthority('MEDICO', 'ENFERMEIRO')")
     public ResponseEntity<ConsultaResponse> editarConsulta(
             @Parameter(description = "ID da consulta a ser editada.") @PathVariable UUID id,
+            @Parameter(description = "Chave opcional para repetição segura da requisição.") @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @RequestBody @Valid ConsultaRequest request) {
 
         log.info("INICIANDO: PUT /consultas/{}. Nova Data: {}", id, request.dataConsulta());
 
-        ConsultaResponse response = consultaService.editarConsulta(id, request);
+        IdempotenciaStore.Resultado<ConsultaResponse> resultado = idempotenciaStore.executar(
+                idempotencyKey, "PUT /consultas/" + id, request, () -> consultaService.editarConsulta(id, request));
 
         log.info("SUCESSO: Consulta ID {} editada e evento de ATUALIZAÇÃO publicado.", id);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(resultado.reaproveitada()))
+                .body(resultado.resposta());
     }
 
     /**
@@ -101,6 +150,57 @@ public class ConsultaController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Endpoint para listar as consultas de um médico, paginadas por cursor (keyset).
+     * Requer autoridade: MÉDICO ou ENFERMEIRO.
+     */
+    @GetMapping(params = "medicoId")
+    @Operation(summary = "Listar Consultas do Médico (Paginado)",
+            description = "Lista as consultas do médico em [from, to), ordenadas por data. Use proximoCursor da resposta no parâmetro cursor para a próxima página.")
+    @ApiResponse(responseCode = "200", description = "Página de consultas retornada com sucesso.")
+    @ApiResponse(responseCode = "400", description = "Intervalo ou cursor inválido.")
+    @PreAuthorize("hasAnyAuthority('MEDICO', 'ENFERMEIRO')")
+    public ResponseEntity<ConsultaPaginaResponse> listarConsultasDoMedico(
+            @Parameter(description = "ID do médico.") @RequestParam UUID medicoId,
+            @Parameter(description = "Início do intervalo (inclusivo), ISO-8601.") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Fim do intervalo (exclusivo), ISO-8601.") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Cursor opaco da página anterior.") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página (máximo limitado pelo servidor).") @RequestParam(required = false) Integer limite) {
+
+        log.info("Requisição GET /consultas recebida. Médico: {}, De: {}, Até: {}", medicoId, from, to);
+
+        ConsultaPaginaResponse response = consultaService.listarConsultasDoMedico(medicoId, from, to, cursor, limite);
+
+        log.info("Listagem de {} consultas do Médico ID {} concluída.", response.itens().size(), medicoId);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Endpoint para listar as consultas de um paciente, paginadas por cursor (keyset).
+     * Regra de autorização: a equipe (MÉDICO/ENFERMEIRO) ou o próprio paciente.
+     */
+    @GetMapping("/pacientes/{pacienteId}")
+    @Operation(summary = "Listar Consultas do Paciente (Paginado)",
+            description = "Lista as consultas do paciente em [from, to), ordenadas por data. Pacientes só podem listar as suas.")
+    @ApiResponse(responseCode = "200", description = "Página de consultas retornada com sucesso.")
+    @ApiResponse(responseCode = "400", description = "Intervalo ou cursor inválido.")
+    @ApiResponse(responseCode = "403", description = "Proibido. Usuário tenta listar consultas de terceiros.")
+    @PreAuthorize("hasAnyAuthority('MEDICO', 'ENFERMEIRO') or #pacienteId == authentication.principal.id")
+    public ResponseEntity<ConsultaPaginaResponse> listarConsultasDoPaciente(
+            @Parameter(description = "ID do paciente.") @PathVariable UUID pacienteId,
+            @Parameter(description = "Início do intervalo (inclusivo), ISO-8601.") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Fim do intervalo (exclusivo), ISO-8601.") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Cursor opaco da página anterior.") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página (máximo limitado pelo servidor).") @RequestParam(required = false) Integer limite) {
+
+        log.info("Requisição GET /consultas/pacientes/{} recebida. De: {}, Até: {}", pacienteId, from, to);
+
+        ConsultaPaginaResponse response = consultaService.listarConsultasDoPaciente(pacienteId, from, to, cursor, limite);
+
+        log.info("Listagem de {} consultas do Paciente ID {} concluída.", response.itens().size(), pacienteId);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Endpoint para buscar detalhes de uma consulta por ID.
      * Regra de autorização: Permite a busca pelo proprietário (PACIENTE) ou pela equipe (MÉDICO/ENFERMEIRO).
@@ -125,20 +225,74 @@ public class ConsultaController {
     /**
      * Endpoint para listar médicos disponíveis, opcionalmente por especialidade.
      * Requer que o usuário esteja autenticado (qualquer Role).
+     * Serve o JSON pré-serializado do diretório em memória; com If-None-Match igual ao ETag atual, retorna 304.
      */
-    @GetMapping("/medicos")
+    @GetMapping(value = "/medicos", produces = MediaType.APPLICATION_JSON_VALUE)
     @Operation(summary = "Listar Médicos Disponíveis",
-            description = "Retorna a lista de médicos sincronizados (Projeção local).")
-    @ApiResponse(responseCode = "200", description = "Lista de médicos retornada com sucesso.")
+            description = "Retorna a lista de médicos sincronizados (Projeção local). Suporta ETag/If-None-Match.")
+    @ApiResponse(responseCode = "200", description = "Lista de médicos retornada com sucesso.",
+            content = @Content(array = @ArraySchema(schema = @Schema(implementation = MedicoProjectionResponse.class))))
+    @ApiResponse(responseCode = "304", description = "Lista inalterada desde o ETag informado.")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<MedicoProjectionResponse>> listarMedicos(
-            @Parameter(description = "Filtro opcional por especialidade (ex: CARDIOLOGIA).", required = false) @RequestParam(required = false) String especialidade) {
+    public ResponseEntity<byte[]> listarMedicos(
+            @Parameter(description = "Filtro opcional por especialidade (ex: CARDIOLOGIA).", required = false) @RequestParam(required = false) String especialidade,
+            WebRequest webRequest) {
+
+        log.debug("Requisição GET /consultas/medicos recebida. Filtro: {}", especialidade != null ? especialidade : "Nenhum");
+
+        DiretorioMedicosPagina pagina = consultaService.listarMedicosDisponiveisSerializados(especialidade);
+
+        if (webRequest.checkNotModified(pagina.etag())) {
+            return null; // 304 Not Modified já preparado pelo Spring
+        }
 
-        log.info("Requisição GET /consultas/medicos recebida. Filtro: {}", especialidade != null ? especialidade : "Nenhum");
+        log.debug("Listagem de {} médicos concluída.", pagina.total());
+        return ResponseEntity.ok()
+                .eTag(pagina.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(pagina.json());
+    }
+
+    /**
+     * Endpoint para buscar os horários livres de um médico em uma data.
+     * Requer que o usuário esteja autenticado (qualquer Role).
+     */
+    @GetMapping("/medicos/{id}/slots")
+    @Operation(summary = "Horários Livres do Médico",
+            description = "Retorna os inícios dos slots de 30 minutos livres do médico na data, dentro do expediente.")
+    @ApiResponse(responseCode = "200", description = "Horários livres retornados com sucesso.")
+    @ApiResponse(responseCode = "404", description = "Médico não encontrado.")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<HorariosDisponiveisResponse> buscarHorariosDoMedico(
+            @Parameter(description = "ID do médico.") @PathVariable UUID id,
+            @Parameter(description = "Data (ISO-8601, ex: 2025-11-15).") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
 
-        List<MedicoProjectionResponse> medicos = consultaService.listarMedicosDisponiveis(especialidade);
+        log.info("Requisição GET /consultas/medicos/{}/slots recebida. Data: {}", id, date);
 
-        log.info("Listagem de {} médicos concluída.", medicos.size());
-        return ResponseEntity.ok(medicos);
+        HorariosDisponiveisResponse response = consultaService.buscarHorariosDisponiveis(id, date);
+
+        log.info("{} horários livres encontrados para o Médico ID {}.", response.horarios().size(), id);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Endpoint para buscar os horários livres de todos os médicos de uma especialidade em uma data.
+     * Requer que o usuário esteja autenticado (qualquer Role).
+     */
+    @GetMapping("/medicos/slots")
+    @Operation(summary = "Horários Livres por Especialidade",
+            description = "Retorna, para cada médico da especialidade, os slots de 30 minutos livres na data.")
+    @ApiResponse(responseCode = "200", description = "Horários livres retornados com sucesso.")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<HorariosDisponiveisResponse>> buscarHorariosPorEspecialidade(
+            @Parameter(description = "Especialidade (ex: CARDIOLOGIA).") @RequestParam String especialidade,
+            @Parameter(description = "Data (ISO-8601, ex: 2025-11-15).") @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+
+        log.info("Requisição GET /consultas/medicos/slots recebida. Especialidade: {}, Data: {}", especialidade, date);
+
+        List<HorariosDisponiveisResponse> response = consultaService.buscarHorariosDisponiveisPorEspecialidade(especialidade, date);
+
+        log.info("Horários livres calculados para {} médicos.", response.size());
+        return ResponseEntity.ok(response);
     }
 }
\ No newline at end of file
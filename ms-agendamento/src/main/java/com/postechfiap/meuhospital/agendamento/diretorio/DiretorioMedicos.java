@@ -0,0 +1,177 @@
+package com.postechfiap.meuhospital.agendamento.diretorio;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.postechfiap.meuhospital.agendamento.dto.DiretorioMedicosPagina;
+import com.postechfiap.meuhospital.agendamento.dto.MedicoProjectionResponse;
+import com.postechfiap.meuhospital.agendamento.entity.MedicoProjection;
+import com.postechfiap.meuhospital.agendamento.repository.MedicoProjectionRepository;
+import com.postechfiap.meuhospital.contracts.core.Role;
+import com.postechfiap.meuhospital.contracts.events.MedicoEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diretório em memória dos médicos (Role.MEDICO) da MedicoProjection, indexado por especialidade.
+ * Mantém, por especialidade (e para a listagem completa), o JSON já serializado e seu ETag,
+ * recalculados apenas quando um MedicoEvent altera a especialidade correspondente.
+ * Cada réplica recebe todos os MedicoEvent (MedicoConsumer, group-id por instância); uma recarga
+ * periódica a partir do banco cobre eventos perdidos durante a inicialização do consumidor.
+ */
+@Component
+public class DiretorioMedicos {
+
+    private static final Logger log = LoggerFactory.getLogger(DiretorioMedicos.class);
+
+    private static final String TODAS = "";
+    private static final Comparator<MedicoProjectionResponse> ORDEM_NOME = Comparator
+            .comparing(MedicoProjectionResponse::nome, Comparator.nullsLast(String::compareTo))
+            .thenComparing(MedicoProjectionResponse::id);
+
+    private final MedicoProjectionRepository medicoProjectionRepository;
+    private final ObjectMapper objectMapper;
+
+    private final Map<UUID, MedicoProjectionResponse> medicos = new ConcurrentHashMap<>();
+    private final Map<String, DiretorioMedicosPagina> paginas = new ConcurrentHashMap<>();
+    private final DiretorioMedicosPagina paginaVazia;
+
+    private volatile boolean pronto = false;
+
+    public DiretorioMedicos(MedicoProjectionRepository medicoProjectionRepository, ObjectMapper objectMapper) {
+        this.medicoProjectionRepository = medicoProjectionRepository;
+        this.objectMapper = objectMapper;
+        this.paginaVazia = serializar(List.of());
+    }
+
+    /**
+     * Carrega o diretório a partir da MedicoProjection. Também é chamado na primeira leitura,
+     * caso uma requisição chegue antes do ApplicationReadyEvent.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void carregar() {
+        if (pronto) {
+            return;
+        }
+        recarregar();
+    }
+
+    /**
+     * Recarrega o diretório inteiro a partir da MedicoProjection (rede de segurança contra eventos perdidos).
+     * As páginas só são descartadas se o conteúdo mudou.
+     */
+    @Scheduled(initialDelayString = "${app.diretorio-medicos.recarga:PT5M}", fixedDelayString = "${app.diretorio-medicos.recarga:PT5M}")
+    public synchronized void recarregar() {
+        Map<UUID, MedicoProjectionResponse> atuais = new ConcurrentHashMap<>();
+        for (MedicoProjection medico : medicoProjectionRepository.findAll()) {
+            if (medico.getRole() == Role.MEDICO) {
+                atuais.put(medico.getId(), new MedicoProjectionResponse(
+                        medico.getId(), medico.getNome(), medico.getEspecialidade(), medico.getNumeroRegistro()));
+            }
+        }
+        if (!atuais.equals(medicos)) {
+            medicos.keySet().retainAll(atuais.keySet());
+            medicos.putAll(atuais);
+            paginas.clear();
+        }
+        pronto = true;
+        log.info("DIRETORIO MEDICOS: {} médicos carregados.", medicos.size());
+    }
+
+    /**
+     * Retorna a listagem serializada dos médicos, opcionalmente filtrada por especialidade (comparação exata).
+     * Especialidades desconhecidas retornam lista vazia sem ocupar o cache.
+     */
+    public DiretorioMedicosPagina pagina(String especialidade) {
+        if (!pronto) {
+            carregar();
+        }
+        String chave = StringUtils.hasText(especialidade) ? especialidade : TODAS;
+        DiretorioMedicosPagina pagina = paginas.get(chave);
+        if (pagina != null) {
+            return pagina;
+        }
+        if (!chave.equals(TODAS) && medicos.values().stream().noneMatch(m -> chave.equals(m.especialidade()))) {
+            return paginaVazia;
+        }
+        return paginas.computeIfAbsent(chave, this::montarPagina);
+    }
+
+    /**
+     * Lista os médicos (não serializados), opcionalmente filtrados por especialidade.
+     */
+    public List<MedicoProjectionResponse> listar(String especialidade) {
+        if (!pronto) {
+            carregar();
+        }
+        return filtrar(StringUtils.hasText(especialidade) ? especialidade : TODAS);
+    }
+
+    /**
+     * Busca um médico do diretório pelo ID.
+     */
+    public Optional<MedicoProjectionResponse> buscar(UUID medicoId) {
+        if (!pronto) {
+            carregar();
+        }
+        return Optional.ofNullable(medicos.get(medicoId));
+    }
+
+    /**
+     * Aplica a criação/atualização de um médico, invalidando apenas as páginas das especialidades afetadas.
+     */
+    public void atualizar(MedicoEvent event) {
+        MedicoProjectionResponse anterior;
+        if (event.role() != Role.MEDICO) {
+            anterior = medicos.remove(event.userId());
+        } else {
+            anterior = medicos.put(event.userId(), new MedicoProjectionResponse(
+                    event.userId(),
+                    event.nome(),
+                    event.especialidade(),
+                    event.numeroRegistro()
+            ));
+        }
+
+        paginas.remove(TODAS);
+        paginas.remove(Objects.requireNonNullElse(event.especialidade(), TODAS));
+        if (anterior != null && anterior.especialidade() != null) {
+            paginas.remove(anterior.especialidade());
+        }
+        log.debug("DIRETORIO MEDICOS: Médico ID {} atualizado.", event.userId());
+    }
+
+    private DiretorioMedicosPagina montarPagina(String chave) {
+        return serializar(filtrar(chave));
+    }
+
+    private List<MedicoProjectionResponse> filtrar(String chave) {
+        return medicos.values().stream()
+                .filter(m -> chave.equals(TODAS) || chave.equals(m.especialidade()))
+                .sorted(ORDEM_NOME)
+                .toList();
+    }
+
+    private DiretorioMedicosPagina serializar(List<MedicoProjectionResponse> lista) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(lista);
+            String etag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+            return new DiretorioMedicosPagina(etag, json, lista.size());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar o diretório de médicos.", e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.postechfiap.meuhospital.agendamento.dto;
+
+/**
+ * Listagem de médicos já serializada em JSON, com o ETag correspondente ao conteúdo.
+ * Produzida pelo DiretorioMedicos e servida diretamente pelo controller.
+ */
+public record DiretorioMedicosPagina(
+        String etag,
+        byte[] json,
+        int total
+) {}
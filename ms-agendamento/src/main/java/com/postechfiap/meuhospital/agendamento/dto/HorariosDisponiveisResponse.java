@@ -0,0 +1,17 @@
+package com.postechfiap.meuhospital.agendamento.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Record (DTO) de resposta com os horários livres (início de cada slot de 30 minutos) de um médico em um dia.
+ */
+public record HorariosDisponiveisResponse(
+        UUID medicoId,
+        String nomeMedico,
+        String especialidade,
+        LocalDate data,
+        List<LocalDateTime> horarios
+) {}
@@ -0,0 +1,14 @@
+package com.postechfiap.meuhospital.agendamento.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projeção enxuta de uma consulta AGENDADA (médico + horário),
+ * usada para aquecer o índice de agendas em memória sem carregar a entidade completa.
+ */
+public record SlotAgendado(
+        UUID consultaId,
+        UUID medicoId,
+        LocalDateTime dataConsulta
+) {}
@@ -39,6 +39,9 @@ public class Consulta {
 
     private String detalhesDaConsulta;
 
+    @Column(name = "lembrete_enviado_em")
+    private LocalDateTime lembreteEnviadoEm; // Nulo enquanto o lembrete do dia anterior não foi registrado
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
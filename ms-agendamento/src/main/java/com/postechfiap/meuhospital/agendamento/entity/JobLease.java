@@ -0,0 +1,40 @@
+package com.postechfiap.meuhospital.agendamento.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Entidade JPA do lease (arrendamento) de um job agendado.
+ * Garante que cada execução de um job @Scheduled ocorra em uma única réplica:
+ * a réplica dona renova expiraEm enquanto executa; se ela cair, outra assume após a expiração.
+ */
+@Entity
+@Table(name = "job_leases")
+@Getter
+@Setter
+public class JobLease {
+
+    @Id
+    private String nome;
+
+    @Column(nullable = false)
+    private String dono; // Identificador da instância que detém o lease
+
+    @Column(name = "expira_em", nullable = false)
+    private OffsetDateTime expiraEm;
+
+    @Column(name = "adquirido_em", nullable = false)
+    private OffsetDateTime adquiridoEm;
+
+    @Column(name = "ultima_execucao_em")
+    private OffsetDateTime ultimaExecucaoEm;
+
+    @Column(name = "ultima_duracao_ms")
+    private Long ultimaDuracaoMs;
+}
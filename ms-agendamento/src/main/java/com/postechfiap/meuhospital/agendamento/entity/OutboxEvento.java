@@ -0,0 +1,41 @@
+package com.postechfiap.meuhospital.agendamento.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entidade JPA da tabela de outbox (Transactional Outbox).
+ * Cada linha é um evento de consulta gravado na mesma transação da tabela consultas,
+ * e removido pelo OutboxRelay após a confirmação de publicação no Kafka.
+ */
+@Entity
+@Table(name = "outbox_eventos")
+@Getter
+@Setter
+public class OutboxEvento {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID consultaId;
+
+    @Column(nullable = false)
+    private String tipoEvento;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload; // ConsultaCriadaEvent serializado em JSON
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,107 @@
+package com.postechfiap.meuhospital.agendamento.idempotencia;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.postechfiap.meuhospital.agendamento.exception.RegraDeNegocioException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Armazena, por Idempotency-Key, o resultado de requisições POST/PUT /consultas já processadas,
+ * em um cache local limitado por tamanho e TTL.
+ * Uma repetição com a mesma chave (mesmo usuário, operação e corpo) recebe a resposta original
+ * sem passar por banco, ms-autenticacao ou Kafka. Repetições concorrentes aguardam a execução em andamento.
+ */
+@Component
+public class IdempotenciaStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotenciaStore.class);
+
+    private static final int TAMANHO_MAXIMO_CHAVE = 255;
+    private static final String CACHE_IDEMPOTENCIA = "idempotencia";
+
+    private final Cache<String, CompletableFuture<Entrada<?>>> respostas;
+
+    public IdempotenciaStore(@Value("${app.idempotencia.tamanho-maximo:100000}") long tamanhoMaximo,
+                             @Value("${app.idempotencia.ttl:24h}") Duration ttl,
+                             MeterRegistry meterRegistry) {
+        this.respostas = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, respostas, CACHE_IDEMPOTENCIA);
+    }
+
+    /**
+     * Executa a operação uma única vez por chave. Sem chave, apenas executa.
+     * Falhas não são armazenadas: a repetição executa a operação novamente.
+     * @param chave Valor do header Idempotency-Key (pode ser nulo).
+     * @param operacao Identificação da operação (ex: "POST /consultas"), compõe o escopo da chave.
+     * @param corpo Corpo da requisição (record com equals por valor); fica guardado junto da resposta
+     *              e reutilizar a chave com um corpo diferente (equals) é rejeitado.
+     * @throws RegraDeNegocioException se a chave for inválida ou reutilizada com outra requisição.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Resultado<T> executar(String chave, String operacao, Object corpo, Supplier<T> execucao) {
+        if (chave == null) {
+            return new Resultado<>(execucao.get(), false);
+        }
+        if (chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw new RegraDeNegocioException("Idempotency-Key inválida (1 a 255 caracteres).");
+        }
+
+        String escopo = usuarioAtual() + "|" + operacao + "|" + chave;
+        CompletableFuture<Entrada<?>> nova = new CompletableFuture<>();
+        CompletableFuture<Entrada<?>> existente = respostas.asMap().putIfAbsent(escopo, nova);
+
+        if (existente == null) {
+            try {
+                T resposta = execucao.get();
+                nova.complete(new Entrada<>(corpo, resposta));
+                return new Resultado<>(resposta, false);
+            } catch (RuntimeException e) {
+                respostas.asMap().remove(escopo, nova);
+                nova.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        Entrada<?> entrada;
+        try {
+            entrada = existente.join();
+        } catch (CompletionException e) {
+            // A execução original falhou; esta repetição executa novamente
+            return executar(chave, operacao, corpo, execucao);
+        }
+        if (!Objects.equals(entrada.corpo(), corpo)) {
+            throw new RegraDeNegocioException("Idempotency-Key já utilizada com uma requisição diferente.");
+        }
+        log.info("IDEMPOTENCIA: Resposta reaproveitada para {} com Idempotency-Key {}.", operacao, chave);
+        return new Resultado<>((T) entrada.resposta(), true);
+    }
+
+    private String usuarioAtual() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? Objects.toString(authentication.getName()) : "anonimo";
+    }
+
+    private record Entrada<T>(Object corpo, T resposta) {}
+
+    /**
+     * Resposta da operação e se ela foi reaproveitada de uma execução anterior.
+     */
+    public record Resultado<T>(T resposta, boolean reaproveitada) {}
+}
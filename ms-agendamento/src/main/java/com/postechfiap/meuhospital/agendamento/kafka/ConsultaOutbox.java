@@ -0,0 +1,132 @@
+package com.postechfiap.meuhospital.agendamento.kafka;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.postechfiap.meuhospital.agendamento.agenda.LocksConsultivos;
+import com.postechfiap.meuhospital.agendamento.entity.OutboxEvento;
+import com.postechfiap.meuhospital.agendamento.repository.OutboxEventoRepository;
+import com.postechfiap.meuhospital.contracts.events.ConsultaCriadaEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transactional Outbox dos eventos de consulta.
+ * O serviço grava o evento na tabela outbox_eventos dentro da sua própria transação
+ * (um rollback descarta o evento junto com a consulta), e o relay publica os pendentes no Kafka em lotes.
+ * A entrega é at-least-once: uma queda entre o envio e o commit do relay reenvia o lote.
+ * Com várias réplicas, um lock consultivo do PostgreSQL garante um único relay drenando por vez: lotes
+ * publicados em paralelo poderiam entregar fora de ordem os eventos de uma mesma consulta.
+ */
+@Component
+public class ConsultaOutbox {
+
+    private static final Logger log = LoggerFactory.getLogger(ConsultaOutbox.class);
+
+    private final OutboxEventoRepository outboxEventoRepository;
+    private final ConsultaProducer consultaProducer;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final int tamanhoLote;
+    private final long timeoutEnvioMs;
+
+    public ConsultaOutbox(OutboxEventoRepository outboxEventoRepository,
+                          ConsultaProducer consultaProducer,
+                          ObjectMapper objectMapper,
+                          JdbcTemplate jdbcTemplate,
+                          @Value("${app.outbox.tamanho-lote:100}") int tamanhoLote,
+                          @Value("${app.outbox.timeout-envio-ms:10000}") long timeoutEnvioMs) {
+        this.outboxEventoRepository = outboxEventoRepository;
+        this.consultaProducer = consultaProducer;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tamanhoLote = tamanhoLote;
+        this.timeoutEnvioMs = timeoutEnvioMs;
+    }
+
+    /**
+     * Registra o evento na outbox. Exige uma transação ativa (a mesma que altera a consulta).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(ConsultaCriadaEvent event) {
+        OutboxEvento outboxEvento = new OutboxEvento();
+        outboxEvento.setConsultaId(event.consultaId());
+        outboxEvento.setTipoEvento(event.tipoEvento());
+        outboxEvento.setPayload(serializar(event));
+
+        outboxEventoRepository.save(outboxEvento);
+        log.debug("OUTBOX: Evento {} da Consulta ID {} registrado.", event.tipoEvento(), event.consultaId());
+    }
+
+    /**
+     * Publica um lote de eventos pendentes e remove da outbox os confirmados pelo broker.
+     * Na primeira falha, os eventos a partir dela permanecem na outbox para a próxima execução,
+     * preservando a ordem de publicação.
+     * Se outra réplica estiver drenando (lock consultivo LocksConsultivos.RELAY_OUTBOX ocupado até o commit dela),
+     * não publica nada.
+     * @return Quantidade de eventos publicados.
+     */
+    @Transactional
+    public int publicarPendentes() {
+        Boolean relayAtivo = jdbcTemplate.queryForObject("select pg_try_advisory_xact_lock(?, ?)", Boolean.class,
+                LocksConsultivos.RELAY_OUTBOX, 0);
+        if (!Boolean.TRUE.equals(relayAtivo)) {
+            log.debug("OUTBOX: outra réplica está drenando a outbox.");
+            return 0;
+        }
+
+        List<OutboxEvento> lote = outboxEventoRepository.findProximoLoteParaPublicacao(tamanhoLote);
+        if (lote.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<?>> envios = new ArrayList<>(lote.size());
+        for (OutboxEvento outboxEvento : lote) {
+            envios.add(consultaProducer.sendConsultaEvent(desserializar(outboxEvento)));
+        }
+
+        List<OutboxEvento> publicados = new ArrayList<>(lote.size());
+        for (int i = 0; i < lote.size(); i++) {
+            try {
+                envios.get(i).get(timeoutEnvioMs, TimeUnit.MILLISECONDS);
+                publicados.add(lote.get(i));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("OUTBOX FALHA: Evento {} da Consulta ID {} não confirmado pelo broker. Nova tentativa no próximo ciclo.",
+                        lote.get(i).getTipoEvento(), lote.get(i).getConsultaId(), e);
+                break;
+            }
+        }
+
+        outboxEventoRepository.deleteAllInBatch(publicados);
+        log.debug("OUTBOX: {} de {} eventos publicados.", publicados.size(), lote.size());
+        return publicados.size();
+    }
+
+    private String serializar(ConsultaCriadaEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar evento da Consulta ID " + event.consultaId(), e);
+        }
+    }
+
+    private ConsultaCriadaEvent desserializar(OutboxEvento outboxEvento) {
+        try {
+            return objectMapper.readValue(outboxEvento.getPayload(), ConsultaCriadaEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao desserializar evento da outbox ID " + outboxEvento.getId(), e);
+        }
+    }
+}
@@ -1,15 +1,31 @@
 package com.postechfiap.meuhospital.agendamento.kafka;
 
 import com.postechfiap.meuhospital.contracts.events.ConsultaCriadaEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 /**
  * Produtor Kafka responsável por enviar eventos de consulta (criação/atualização/cancelamento)
  * para o tópico de notificação.
+ * Limita os envios aguardando confirmação (app.kafka.producer.max-envios-em-voo): com o broker lento,
+ * novos envios esperam até app.kafka.producer.espera-backpressure e então falham, ficando na outbox
+ * para o próximo ciclo do relay.
+ * Métricas: agendamento.kafka.envio.duracao (tag resultado), agendamento.kafka.envio.em.voo
+ * e agendamento.kafka.envio.falhas (tag motivo).
  */
 @Component
 public class ConsultaProducer {
@@ -20,27 +36,90 @@ public class ConsultaProducer {
     private String notificacaoTopic;
 
     private final KafkaTemplate<String, ConsultaCriadaEvent> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore enviosEmVoo;
+    private final long esperaBackpressureMs;
+    private final Timer duracaoSucesso;
+    private final Timer duracaoFalha;
 
-    public ConsultaProducer(KafkaTemplate<String, ConsultaCriadaEvent> kafkaTemplate) {
-        this.kafkaTemplate = kafkaTemplate;
+    public ConsultaProducer(KafkaTemplate<String, ConsultaCriadaEvent> consultaKafkaTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.kafka.producer.max-envios-em-voo:1000}") int maxEnviosEmVoo,
+                            @Value("${app.kafka.producer.espera-backpressure:2s}") Duration esperaBackpressure) {
+        this.kafkaTemplate = consultaKafkaTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enviosEmVoo = new Semaphore(maxEnviosEmVoo);
+        this.esperaBackpressureMs = esperaBackpressure.toMillis();
+        this.duracaoSucesso = duracao("sucesso");
+        this.duracaoFalha = duracao("falha");
+        Gauge.builder("agendamento.kafka.envio.em.voo", enviosEmVoo, s -> maxEnviosEmVoo - s.availablePermits())
+                .description("Eventos de consulta enviados aguardando confirmação do broker")
+                .register(meterRegistry);
     }
 
     /**
      * Publica um evento de consulta no Kafka.
      * * @param event O DTO de evento (ConsultaCriadaEvent) com os dados e tipo de evento.
+     * @return Futuro concluído quando o broker confirmar (ou rejeitar) o envio.
      */
-    public void sendConsultaEvent(ConsultaCriadaEvent event) {
+    public CompletableFuture<SendResult<String, ConsultaCriadaEvent>> sendConsultaEvent(ConsultaCriadaEvent event) {
         String key = event.consultaId().toString();
 
-        kafkaTemplate.send(notificacaoTopic, key, event)
-                .whenComplete((result, ex) -> {
+        if (!reservarEnvio()) {
+            log.warn("KAFKA BACKPRESSURE: Limite de envios em voo atingido. Evento Consulta [{}] ID [{}] adiado.",
+                    event.tipoEvento(), key);
+            registrarFalha("backpressure");
+            return CompletableFuture.failedFuture(
+                    new TimeoutException("Limite de envios aguardando confirmação do broker atingido."));
+        }
+
+        long inicio = System.nanoTime();
+        CompletableFuture<SendResult<String, ConsultaCriadaEvent>> envio;
+        try {
+            envio = kafkaTemplate.send(notificacaoTopic, key, event);
+        } catch (RuntimeException e) {
+            // send() bloqueado além de max.block.ms (buffer cheio ou broker indisponível)
+            enviosEmVoo.release();
+            registrarFalha("bloqueio");
+            log.error("KAFKA FALHA: Envio do evento Consulta [{}] ID [{}] recusado pelo produtor.",
+                    event.tipoEvento(), key, e);
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return envio.whenComplete((result, ex) -> {
+                    enviosEmVoo.release();
+                    long duracaoNanos = System.nanoTime() - inicio;
                     if (ex == null) {
+                        duracaoSucesso.record(duracaoNanos, TimeUnit.NANOSECONDS);
                         log.info("KAFKA SUCESSO: Evento Consulta [{}] ID [{}] publicado no tópico {}.",
                                 event.tipoEvento(), key, notificacaoTopic);
                     } else {
+                        duracaoFalha.record(duracaoNanos, TimeUnit.NANOSECONDS);
+                        registrarFalha("broker");
                         log.error("KAFKA FALHA: Erro ao publicar evento Consulta [{}] ID [{}] no tópico {}.",
                                 event.tipoEvento(), key, notificacaoTopic, ex);
                     }
                 });
     }
-}
\ No newline at end of file
+
+    private boolean reservarEnvio() {
+        try {
+            return enviosEmVoo.tryAcquire(esperaBackpressureMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Timer duracao(String resultado) {
+        return Timer.builder("agendamento.kafka.envio.duracao")
+                .description("Tempo entre o envio do evento de consulta e a resposta do broker")
+                .tag("resultado", resultado)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private void registrarFalha(String motivo) {
+        Counter.builder("agendamento.kafka.envio.falhas").tag("motivo", motivo).register(meterRegistry).increment();
+    }
+}
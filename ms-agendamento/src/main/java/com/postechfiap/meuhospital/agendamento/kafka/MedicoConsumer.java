@@ -1,7 +1,7 @@
 package com.postechfiap.meuhospital.agendamento.kafka;
 
-import com.postechfiap.meuhospital.agendamento.entity.MedicoProjection;
-import com.postechfiap.meuhospital.agendamento.repository.MedicoProjectionRepository;
+import com.postechfiap.meuhospital.agendamento.diretorio.DiretorioMedicos;
+import com.postechfiap.meuhospital.agendamento.repository.MedicoProjectionUpsertRepository;
 import com.postechfiap.meuhospital.contracts.events.MedicoEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,41 +9,72 @@ import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
 /**
  * Consumidor Kafka responsável por receber eventos do ms-autenticacao
- * e manter a MedicoProjection (cópia local dos médicos) atualizada.
+ * e manter a MedicoProjection (cópia local dos médicos) e o DiretorioMedicos atualizados.
  */
 @Component
 public class MedicoConsumer {
 
     private static final Logger log = LoggerFactory.getLogger(MedicoConsumer.class);
-    private final MedicoProjectionRepository repository;
+    private final MedicoProjectionUpsertRepository upsertRepository;
+    private final DiretorioMedicos diretorioMedicos;
 
     private static final String TOPIC_MEDICO_EVENTS = "medico-events";
 
-    public MedicoConsumer(MedicoProjectionRepository repository) {
-        this.repository = repository;
+    public MedicoConsumer(MedicoProjectionUpsertRepository upsertRepository, DiretorioMedicos diretorioMedicos) {
+        this.upsertRepository = upsertRepository;
+        this.diretorioMedicos = diretorioMedicos;
     }
 
     /**
-     * Listener que consome eventos de atualização/criação de médicos.
+     * Listener em lote que consome eventos de atualização/criação de médicos.
+     * Cada poll (até max.poll.records) é deduplicado por userId, mantendo o evento mais recente
+     * (eventTimestamp), e aplicado com um único upsert em batch.
      */
-    @KafkaListener(topics = TOPIC_MEDICO_EVENTS, groupId = "${spring.kafka.consumer.group-id}")
+    @KafkaListener(topics = TOPIC_MEDICO_EVENTS, groupId = "${spring.kafka.consumer.group-id}", batch = "true",
+            properties = "max.poll.records=${app.kafka.medico-events.max-poll-records:500}")
     @Transactional
-    public void consume(MedicoEvent event) {
-        log.info("KAFKA CONSUMO: Evento MedicoEvent recebido. User ID: {}, Tipo: {}", event.userId(), event.tipoEvento());
+    public void consume(List<MedicoEvent> events) {
+        log.info("KAFKA CONSUMO: Lote de {} MedicoEvent recebido.", events.size());
+
+        Map<UUID, MedicoEvent> maisRecentes = new LinkedHashMap<>();
+        for (MedicoEvent event : events) {
+            maisRecentes.merge(event.userId(), event, MedicoConsumer::maisRecente);
+        }
 
-        MedicoProjection projection = new MedicoProjection();
+        upsertRepository.upsertEmLote(maisRecentes.values());
 
-        // Mapeamento direto de Evento para Entidade de Projeção
-        projection.setId(event.userId());
-        projection.setNome(event.nome());
-        projection.setNumeroRegistro(event.numeroRegistro());
-        projection.setEspecialidade(event.especialidade());
-        projection.setRole(event.role());
+        log.info("KAFKA SUCESSO: {} MedicoProjection atualizadas/criadas no DB local ({} eventos no lote).",
+                maisRecentes.size(), events.size());
+    }
 
-        repository.save(projection);
+    /**
+     * Em empate (ou timestamp ausente), prevalece o evento que chegou depois, respeitando a ordem da partição.
+     */
+    private static MedicoEvent maisRecente(MedicoEvent atual, MedicoEvent novo) {
+        if (atual.eventTimestamp() != null && novo.eventTimestamp() != null
+                && novo.eventTimestamp().isBefore(atual.eventTimestamp())) {
+            return atual;
+        }
+        return novo;
+    }
 
-        log.info("KAFKA SUCESSO: MedicoProjection ID {} atualizada/criada no DB local.", event.userId());
+    /**
+     * Listener que mantém o DiretorioMedicos em memória desta instância.
+     * Usa um group-id próprio por instância: diferente da projeção (gravada uma vez no banco compartilhado),
+     * o diretório é local e todas as réplicas precisam receber o evento. O sufixo é o identificador estável
+     * da instância (app.kafka.instancia), como no UsuarioConsumer.
+     */
+    @KafkaListener(topics = TOPIC_MEDICO_EVENTS,
+            groupId = "${app.kafka.group-diretorio-medicos}-${app.kafka.instancia}",
+            properties = "auto.offset.reset=latest")
+    public void atualizarDiretorio(MedicoEvent event) {
+        diretorioMedicos.atualizar(event);
     }
 }
\ No newline at end of file
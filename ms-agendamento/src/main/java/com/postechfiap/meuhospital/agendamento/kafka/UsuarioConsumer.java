@@ -0,0 +1,43 @@
+package com.postechfiap.meuhospital.agendamento.kafka;
+
+import com.postechfiap.meuhospital.agendamento.client.AuthClientService;
+import com.postechfiap.meuhospital.contracts.events.UsuarioAtualizadoEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Consumidor Kafka responsável por receber eventos de atualização de usuário do ms-autenticacao
+ * e invalidar o cache local de pacientes.
+ * Cada instância usa um group-id próprio, pois o cache é local: todas as réplicas precisam receber o evento.
+ * O sufixo do grupo é o identificador estável da instância (app.kafka.instancia), para que um reinício reaproveite
+ * o mesmo grupo em vez de deixar no broker um grupo órfão a cada start.
+ */
+@Component
+public class UsuarioConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(UsuarioConsumer.class);
+    private final AuthClientService authClientService;
+
+    private static final String TOPIC_USUARIO_EVENTS = "usuario-events";
+
+    public UsuarioConsumer(AuthClientService authClientService) {
+        this.authClientService = authClientService;
+    }
+
+    /**
+     * Listener que consome eventos de atualização de usuários.
+     */
+    @KafkaListener(topics = TOPIC_USUARIO_EVENTS,
+            groupId = "${app.kafka.group-usuario-cache}-${app.kafka.instancia}",
+            properties = {
+                    "auto.offset.reset=latest",
+                    "spring.json.value.default.type=com.postechfiap.meuhospital.contracts.events.UsuarioAtualizadoEvent"
+            })
+    public void consume(UsuarioAtualizadoEvent event) {
+        log.info("KAFKA CONSUMO: Evento UsuarioAtualizadoEvent recebido. User ID: {}, Tipo: {}", event.userId(), event.tipoEvento());
+
+        authClientService.invalidarPaciente(event.userId());
+    }
+}
@@ -1,11 +1,16 @@
 package com.postechfiap.meuhospital.agendamento.repository;
 
+import com.postechfiap.meuhospital.agendamento.dto.SlotAgendado;
 import com.postechfiap.meuhospital.agendamento.entity.Consulta;
 import com.postechfiap.meuhospital.agendamento.entity.StatusConsulta;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,10 +22,48 @@ import java.util.UUID;
 public interface ConsultaRepository extends JpaRepository<Consulta, UUID> {
 
     /**
-     * Verifica se existe alguma consulta para o médico em um intervalo de tempo,
-     * usado para evitar sobreposição de agendamentos.
+     * Verifica se existe alguma consulta AGENDADA para o médico em um intervalo de tempo,
+     * usado para evitar sobreposição de agendamentos (fallback do AgendaMedicoIndex).
+     * A consulta informada em ignorarId (ex: a própria consulta em edição) é desconsiderada.
      */
-    boolean existsByMedicoIdAndDataConsultaBetween(UUID medicoId, LocalDateTime start, LocalDateTime end);
+    @Query("""
+            select count(c) > 0 from Consulta c
+            where c.medicoId = :medicoId
+              and c.status = com.postechfiap.meuhospital.agendamento.entity.StatusConsulta.AGENDADA
+              and c.dataConsulta between :start and :end
+              and (:ignorarId is null or c.id <> :ignorarId)
+            """)
+    boolean existsConflitoDeHorario(@Param("medicoId") UUID medicoId,
+                                    @Param("start") LocalDateTime start,
+                                    @Param("end") LocalDateTime end,
+                                    @Param("ignorarId") UUID ignorarId);
+
+    /**
+     * Lista os horários (médico + data) das consultas com o status informado a partir de uma data,
+     * usado para aquecer o índice de agendas em memória.
+     */
+    @Query("""
+            select new com.postechfiap.meuhospital.agendamento.dto.SlotAgendado(c.id, c.medicoId, c.dataConsulta)
+            from Consulta c
+            where c.status = :status and c.dataConsulta >= :inicio
+            """)
+    List<SlotAgendado> findSlotsAgendadosAPartirDe(@Param("status") StatusConsulta status,
+                                                   @Param("inicio") LocalDateTime inicio);
+
+    /**
+     * Lista os horários AGENDADOS dos médicos informados no intervalo [inicio, fim] (inclusivo),
+     * em uma única consulta de faixa (busca de horários livres).
+     */
+    @Query("""
+            select new com.postechfiap.meuhospital.agendamento.dto.SlotAgendado(c.id, c.medicoId, c.dataConsulta)
+            from Consulta c
+            where c.medicoId in :medicoIds
+              and c.status = com.postechfiap.meuhospital.agendamento.entity.StatusConsulta.AGENDADA
+              and c.dataConsulta between :inicio and :fim
+            """)
+    List<SlotAgendado> findSlotsAgendadosDosMedicos(@Param("medicoIds") Collection<UUID> medicoIds,
+                                                    @Param("inicio") LocalDateTime inicio,
+                                                    @Param("fim") LocalDateTime fim);
 
     /**
      * Busca uma consulta pelo ID do paciente e ID da consulta (para segurança).
@@ -28,12 +71,87 @@ public interface ConsultaRepository extends JpaRepository<Consulta, UUID> {
     Optional<Consulta> findByIdAndPacienteId(UUID id, UUID pacienteId);
 
     /**
-     * Busca consultas que ainda estão AGENDADAS, mas cuja data já passou (para marcar como REALIZADA).
+     * Marca como REALIZADA um bloco de até :limite consultas AGENDADAS cuja data já passou,
+     * em um único UPDATE set-based (sem carregar entidades).
+     * Linhas bloqueadas por outra transação (ex: edição em andamento) são puladas e ficam para o próximo bloco/execução.
+     * O bloco é materializado em um array (id = any(array(...))) para que o UPDATE localize cada linha pela
+     * chave primária; com "id in (subquery)", o planejador estima o bloco inteiro e varre a tabela em um hash join.
+     * @return Quantidade de linhas atualizadas; 0 indica que não há mais consultas vencidas.
+     */
+    @Modifying
+    @Query(value = """
+            update consultas set status = 'REALIZADA', updated_at = :agora
+            where id = any(array(
+                select id from consultas
+                where status = 'AGENDADA' and data_consulta < :dataLimite
+                limit :limite
+                for update skip locked
+            ))
+            """, nativeQuery = true)
+    int marcarBlocoComoRealizadas(@Param("dataLimite") LocalDateTime dataLimite,
+                                  @Param("agora") LocalDateTime agora,
+                                  @Param("limite") int limite);
+
+    /**
+     * Página (keyset em data_consulta, id) das consultas do médico, de qualquer status, antes de :ate.
+     * O cursor é exclusivo: retorna apenas linhas posteriores a (cursorData, cursorId).
+     */
+    @Query(value = """
+            select * from consultas c
+            where c.medico_id = :medicoId
+              and (c.data_consulta, c.id) > (:cursorData, :cursorId)
+              and c.data_consulta < :ate
+            order by c.data_consulta, c.id
+            limit :limite
+            """, nativeQuery = true)
+    List<Consulta> findPaginaDoMedico(@Param("medicoId") UUID medicoId,
+                                      @Param("cursorData") LocalDateTime cursorData,
+                                      @Param("cursorId") UUID cursorId,
+                                      @Param("ate") LocalDateTime ate,
+                                      @Param("limite") int limite);
+
+    /**
+     * Página (keyset em data_consulta, id) das consultas do paciente, de qualquer status, antes de :ate.
+     */
+    @Query(value = """
+            select * from consultas c
+            where c.paciente_id = :pacienteId
+              and (c.data_consulta, c.id) > (:cursorData, :cursorId)
+              and c.data_consulta < :ate
+            order by c.data_consulta, c.id
+            limit :limite
+            """, nativeQuery = true)
+    List<Consulta> findPaginaDoPaciente(@Param("pacienteId") UUID pacienteId,
+                                        @Param("cursorData") LocalDateTime cursorData,
+                                        @Param("cursorId") UUID cursorId,
+                                        @Param("ate") LocalDateTime ate,
+                                        @Param("limite") int limite);
+
+    /**
+     * Busca a próxima página (keyset em data_consulta, id) de consultas AGENDADAS entre duas datas
+     * cujo lembrete ainda não foi enviado, restrita a uma partição (hash do medico_id).
      */
-    List<Consulta> findAllByStatusAndDataConsultaBefore(StatusConsulta status, LocalDateTime dataLimite);
+    @Query(value = """
+            select * from consultas c
+            where c.status = 'AGENDADA'
+              and c.lembrete_enviado_em is null
+              and c.data_consulta <= :fim
+              and (c.data_consulta, c.id) > (:cursorData, :cursorId)
+              and (hashtext(cast(c.medico_id as text)) & 2147483647) % :particoes = :particao
+            order by c.data_consulta, c.id
+            limit :limite
+            """, nativeQuery = true)
+    List<Consulta> findPaginaParaLembrete(@Param("fim") LocalDateTime fim,
+                                          @Param("cursorData") LocalDateTime cursorData,
+                                          @Param("cursorId") UUID cursorId,
+                                          @Param("particoes") int particoes,
+                                          @Param("particao") int particao,
+                                          @Param("limite") int limite);
 
     /**
-     * Busca consultas AGENDADAS entre duas datas (para lembretes do dia seguinte).
+     * Registra o envio do lembrete das consultas informadas.
      */
-    List<Consulta> findAllByStatusAndDataConsultaBetween(StatusConsulta status, LocalDateTime start, LocalDateTime end);
+    @Modifying
+    @Query("update Consulta c set c.lembreteEnviadoEm = :agora where c.id in :ids and c.lembreteEnviadoEm is null")
+    int marcarLembreteEnviado(@Param("ids") List<UUID> ids, @Param("agora") LocalDateTime agora);
 }
\ No newline at end of file
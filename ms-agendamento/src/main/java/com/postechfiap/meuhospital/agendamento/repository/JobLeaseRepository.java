@@ -0,0 +1,60 @@
+package com.postechfiap.meuhospital.agendamento.repository;
+
+import com.postechfiap.meuhospital.agendamento.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repositório JPA para a Entidade JobLease.
+ * Todas as operações usam o relógio do banco (now()), evitando divergência de horário entre réplicas.
+ */
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Adquire o lease do job se ele não existir, estiver expirado ou já pertencer a esta instância.
+     * @return 1 se o lease foi adquirido; 0 se outra instância o detém.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            insert into job_leases (nome, dono, expira_em, adquirido_em)
+            values (:nome, :dono, now() + make_interval(secs => :duracaoSegundos), now())
+            on conflict (nome) do update
+                set dono = excluded.dono, expira_em = excluded.expira_em, adquirido_em = excluded.adquirido_em
+                where job_leases.expira_em < now() or job_leases.dono = excluded.dono
+            """, nativeQuery = true)
+    int adquirir(@Param("nome") String nome, @Param("dono") String dono, @Param("duracaoSegundos") long duracaoSegundos);
+
+    /**
+     * Estende o lease enquanto o job executa.
+     * @return 1 se renovado; 0 se o lease foi perdido (expirou e outra instância assumiu).
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            update job_leases set expira_em = now() + make_interval(secs => :duracaoSegundos)
+            where nome = :nome and dono = :dono
+            """, nativeQuery = true)
+    int renovar(@Param("nome") String nome, @Param("dono") String dono, @Param("duracaoSegundos") long duracaoSegundos);
+
+    /**
+     * Libera o lease ao fim da execução, registrando a duração.
+     * O lease é mantido por pelo menos retencaoMinimaSegundos desde a aquisição, para que réplicas com o relógio
+     * levemente atrasado não disparem o mesmo job logo após o término.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+            update job_leases
+            set expira_em = greatest(now(), adquirido_em + make_interval(secs => :retencaoMinimaSegundos)),
+                ultima_execucao_em = now(), ultima_duracao_ms = :duracaoMs
+            where nome = :nome and dono = :dono
+            """, nativeQuery = true)
+    int liberar(@Param("nome") String nome, @Param("dono") String dono,
+                @Param("duracaoMs") long duracaoMs, @Param("retencaoMinimaSegundos") long retencaoMinimaSegundos);
+}
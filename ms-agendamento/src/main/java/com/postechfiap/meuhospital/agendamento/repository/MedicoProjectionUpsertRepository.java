@@ -0,0 +1,50 @@
+package com.postechfiap.meuhospital.agendamento.repository;
+
+import com.postechfiap.meuhospital.contracts.events.MedicoEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Escrita em lote da MedicoProjection via JDBC.
+ * Um único INSERT ... ON CONFLICT em batch substitui o SELECT + INSERT/UPDATE por registro do repository.save.
+ */
+@Repository
+public class MedicoProjectionUpsertRepository {
+
+    private static final String UPSERT = """
+            insert into medicos_projection (id, nome, numero_registro, especialidade, role)
+            values (?, ?, ?, ?, ?)
+            on conflict (id) do update
+                set nome = excluded.nome,
+                    numero_registro = excluded.numero_registro,
+                    especialidade = excluded.especialidade,
+                    role = excluded.role
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MedicoProjectionUpsertRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insere ou atualiza os médicos informados em um único batch JDBC.
+     * @param eventos Eventos já deduplicados por userId.
+     */
+    public void upsertEmLote(Collection<MedicoEvent> eventos) {
+        List<Object[]> parametros = eventos.stream()
+                .map(event -> new Object[]{
+                        event.userId(),
+                        event.nome(),
+                        event.numeroRegistro(),
+                        event.especialidade(),
+                        event.role() != null ? event.role().name() : null
+                })
+                .toList();
+
+        jdbcTemplate.batchUpdate(UPSERT, parametros);
+    }
+}
@@ -0,0 +1,26 @@
+package com.postechfiap.meuhospital.agendamento.repository;
+
+import com.postechfiap.meuhospital.agendamento.entity.OutboxEvento;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repositório JPA para a Entidade OutboxEvento.
+ */
+@Repository
+public interface OutboxEventoRepository extends JpaRepository<OutboxEvento, UUID> {
+
+    /**
+     * Busca o próximo lote de eventos pendentes, em ordem de gravação, bloqueando as linhas.
+     * Só um relay drena por vez (lock consultivo em ConsultaOutbox); o SKIP LOCKED é a segunda barreira
+     * contra publicar o mesmo evento em paralelo.
+     */
+    @Query(value = "select * from outbox_eventos order by created_at, id limit :limite for update skip locked",
+            nativeQuery = true)
+    List<OutboxEvento> findProximoLoteParaPublicacao(@Param("limite") int limite);
+}
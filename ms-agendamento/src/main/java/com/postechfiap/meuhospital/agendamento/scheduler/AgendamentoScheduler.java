@@ -3,21 +3,33 @@ package com.postechfiap.meuhospital.agendamento.scheduler;
 import com.postechfiap.meuhospital.agendamento.service.ConsultaService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 /**
  * Classe responsável por agendar tarefas de rotina no ms-agendamento,
  * como atualização de status de consultas e envio de lembretes.
+ * Com várias réplicas, cada execução roda em uma única instância (JobLeaseManager).
  */
 @Component
 public class AgendamentoScheduler {
 
     private static final Logger log = LoggerFactory.getLogger(AgendamentoScheduler.class);
+    private static final String JOB_REALIZADAS = "atualizar-status-realizadas";
+    private static final String JOB_LEMBRETES = "enviar-lembretes";
+
     private final ConsultaService consultaService;
+    private final JobLeaseManager jobLeaseManager;
+    private final int particoesLembrete;
 
-    public AgendamentoScheduler(ConsultaService consultaService) {
+    public AgendamentoScheduler(ConsultaService consultaService, JobLeaseManager jobLeaseManager,
+                                @Value("${app.agendamento.lembrete.particoes:1}") int particoesLembrete) {
         this.consultaService = consultaService;
+        this.jobLeaseManager = jobLeaseManager;
+        this.particoesLembrete = Math.max(particoesLembrete, 1);
     }
 
     /**
@@ -26,21 +38,33 @@ public class AgendamentoScheduler {
      */
     @Scheduled(cron = "0 0 1 * * *")
     public void atualizarStatusConsultasRealizadas() {
-        log.info("INICIANDO JOB: Atualização de status de consultas para REALIZADA.");
+        jobLeaseManager.executarComLease(JOB_REALIZADAS, lease -> {
+            log.info("INICIANDO JOB: Atualização de status de consultas para REALIZADA.");
 
-        int count = consultaService.marcarConsultasAnterioresComoRealizadas();
+            int count = consultaService.marcarConsultasAnterioresComoRealizadas(lease::isValido);
 
-        log.info("FINALIZADO JOB: {} consultas marcadas como REALIZADA.", count);
+            log.info("FINALIZADO JOB: {} consultas marcadas como REALIZADA.", count);
+        });
     }
 
     /**
      * JOB 2: Envia lembretes para consultas AGENDADAS para o dia seguinte.
-     * Executa todo dia às 18:00.
+     * Executa a cada hora (app.agendamento.lembrete.cron); cada consulta recebe um único lembrete,
+     * inclusive as agendadas para amanhã depois da execução anterior.
+     * Cada partição tem seu próprio lease e toda réplica tenta todas, a partir de uma posição aleatória:
+     * as réplicas dividem as partições entre si e a de uma réplica fora do ar é assumida pelas demais.
      */
-    @Scheduled(cron = "0 * * * * *")
+    @Scheduled(cron = "${app.agendamento.lembrete.cron:0 0 * * * *}")
     public void enviarLembretesProximoDia() {
-        log.info("INICIANDO JOB: Envio de lembretes para consultas do dia seguinte.");
-        int count = consultaService.enviarLembretesParaProximoDia();
-        log.info("FINALIZADO JOB: {} lembretes publicados no Kafka.", count);
+        int inicio = ThreadLocalRandom.current().nextInt(particoesLembrete);
+        for (int i = 0; i < particoesLembrete; i++) {
+            int particao = (inicio + i) % particoesLembrete;
+            jobLeaseManager.executarComLease(JOB_LEMBRETES + "-" + particao, lease -> {
+                log.info("INICIANDO JOB: Envio de lembretes para consultas do dia seguinte (partição {}/{}).",
+                        particao, particoesLembrete);
+                int count = consultaService.enviarLembretesParaProximoDia(particao, particoesLembrete, lease::isValido);
+                log.info("FINALIZADO JOB: {} lembretes registrados na outbox (partição {}).", count, particao);
+            });
+        }
     }
-}
\ No newline at end of file
+}
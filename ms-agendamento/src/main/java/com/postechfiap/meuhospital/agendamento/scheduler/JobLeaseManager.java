@@ -0,0 +1,164 @@
+package com.postechfiap.meuhospital.agendamento.scheduler;
+
+import com.postechfiap.meuhospital.agendamento.repository.JobLeaseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Lock distribuído (lease) para os jobs @Scheduled, persistido na tabela job_leases do PostgreSQL.
+ * Cada execução de um job roda em uma única réplica: quem adquire o lease executa e o renova
+ * periodicamente; as demais pulam a execução. Se a réplica dona cair, o lease expira
+ * (app.scheduler.lease.duracao) e outra réplica assume na próxima execução.
+ * A tarefa recebe o Lease e deve consultar isValido() entre blocos de trabalho: uma renovação recusada
+ * (outra réplica assumiu) ou a falta de renovação bem-sucedida dentro da duração invalidam o lease,
+ * e a tarefa deve parar sem gravar mais nada.
+ * Métricas: agendamento.job.lease.ativo, agendamento.job.lease.negado, agendamento.job.duracao
+ * e agendamento.job.ultima.duracao, todas com a tag job.
+ */
+@Component
+public class JobLeaseManager {
+
+    private static final Logger log = LoggerFactory.getLogger(JobLeaseManager.class);
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final MeterRegistry meterRegistry;
+    private final long duracaoSegundos;
+    private final long retencaoMinimaSegundos;
+    private final String instancia;
+    private final ScheduledExecutorService renovador = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("job-lease-renovador").daemon().factory());
+
+    private final Map<String, AtomicInteger> leasesAtivos = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> ultimasDuracoesMs = new ConcurrentHashMap<>();
+
+    public JobLeaseManager(JobLeaseRepository jobLeaseRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.scheduler.lease.duracao:60s}") Duration duracao,
+                           @Value("${app.scheduler.lease.retencao-minima:30s}") Duration retencaoMinima,
+                           @Value("${app.scheduler.lease.instancia:}") String instancia) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.meterRegistry = meterRegistry;
+        this.duracaoSegundos = Math.max(duracao.toSeconds(), 3);
+        this.retencaoMinimaSegundos = retencaoMinima.toSeconds();
+        this.instancia = StringUtils.hasText(instancia) ? instancia : UUID.randomUUID().toString();
+    }
+
+    /**
+     * Executa o job somente se esta instância adquirir o lease.
+     * @param job Nome único do job (chave do lease).
+     * @return true se o job foi executado nesta instância.
+     */
+    public boolean executarComLease(String job, Consumer<Lease> tarefa) {
+        long solicitadoEm = System.nanoTime();
+        if (jobLeaseRepository.adquirir(job, instancia, duracaoSegundos) == 0) {
+            log.debug("JOB LEASE: Job {} em execução por outra instância. Execução ignorada.", job);
+            Counter.builder("agendamento.job.lease.negado").tag("job", job).register(meterRegistry).increment();
+            return false;
+        }
+
+        log.info("JOB LEASE: Lease do job {} adquirido pela instância {}.", job, instancia);
+        AtomicInteger ativo = gauge(leasesAtivos, "agendamento.job.lease.ativo", job);
+        ativo.set(1);
+        Lease lease = new Lease(job, solicitadoEm + TimeUnit.SECONDS.toNanos(duracaoSegundos));
+
+        long periodoRenovacao = Math.max(duracaoSegundos / 3, 1);
+        ScheduledFuture<?> renovacao = renovador.scheduleAtFixedRate(() -> renovar(lease),
+                periodoRenovacao, periodoRenovacao, TimeUnit.SECONDS);
+
+        long inicio = System.nanoTime();
+        try {
+            tarefa.accept(lease);
+            return true;
+        } finally {
+            renovacao.cancel(false);
+            long duracaoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+            Timer.builder("agendamento.job.duracao").tag("job", job).register(meterRegistry)
+                    .record(duracaoMs, TimeUnit.MILLISECONDS);
+            gauge(ultimasDuracoesMs, "agendamento.job.ultima.duracao", job).set((int) Math.min(duracaoMs, Integer.MAX_VALUE));
+
+            liberar(job, duracaoMs);
+            ativo.set(0);
+        }
+    }
+
+    private void renovar(Lease lease) {
+        String job = lease.job;
+        long solicitadoEm = System.nanoTime();
+        try {
+            if (jobLeaseRepository.renovar(job, instancia, duracaoSegundos) == 0) {
+                log.warn("JOB LEASE: Lease do job {} perdido pela instância {} (expirado e assumido por outra).", job, instancia);
+                lease.perdido = true;
+                leasesAtivos.get(job).set(0);
+            } else {
+                lease.validoAteNanos = solicitadoEm + TimeUnit.SECONDS.toNanos(duracaoSegundos);
+            }
+        } catch (Exception e) {
+            log.error("JOB LEASE: Falha ao renovar o lease do job {}: {}", job, e.getMessage());
+        }
+    }
+
+    private void liberar(String job, long duracaoMs) {
+        try {
+            jobLeaseRepository.liberar(job, instancia, duracaoMs, retencaoMinimaSegundos);
+            log.info("JOB LEASE: Lease do job {} liberado após {} ms.", job, duracaoMs);
+        } catch (Exception e) {
+            log.error("JOB LEASE: Falha ao liberar o lease do job {} (expira sozinho): {}", job, e.getMessage());
+        }
+    }
+
+    private AtomicInteger gauge(Map<String, AtomicInteger> valores, String metrica, String job) {
+        return valores.computeIfAbsent(job, nome -> {
+            AtomicInteger valor = new AtomicInteger();
+            Gauge.builder(metrica, valor, AtomicInteger::get).tag("job", nome).register(meterRegistry);
+            return valor;
+        });
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        renovador.shutdownNow();
+    }
+
+    /**
+     * Lease de uma execução em andamento.
+     * Medido com o relógio local a partir do pedido de aquisição/renovação (antes da ida ao banco),
+     * então expira aqui no máximo quando expira no banco.
+     */
+    public static final class Lease {
+
+        private final String job;
+        private volatile long validoAteNanos;
+        private volatile boolean perdido;
+
+        Lease(String job, long validoAteNanos) {
+            this.job = job;
+            this.validoAteNanos = validoAteNanos;
+        }
+
+        /**
+         * @return false se outra instância assumiu o lease ou se ele expirou sem renovação.
+         */
+        public boolean isValido() {
+            return !perdido && System.nanoTime() - validoAteNanos < 0;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.postechfiap.meuhospital.agendamento.scheduler;
+
+import com.postechfiap.meuhospital.agendamento.kafka.ConsultaOutbox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Relay da outbox: drena periodicamente os eventos de consulta pendentes para o Kafka.
+ * Enquanto houver lotes cheios, continua drenando no mesmo ciclo.
+ */
+@Component
+public class OutboxRelayScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelayScheduler.class);
+    private final ConsultaOutbox consultaOutbox;
+
+    public OutboxRelayScheduler(ConsultaOutbox consultaOutbox) {
+        this.consultaOutbox = consultaOutbox;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.intervalo-ms:500}")
+    public void drenarOutbox() {
+        int total = 0;
+        int publicados;
+        try {
+            do {
+                publicados = consultaOutbox.publicarPendentes();
+                total += publicados;
+            } while (publicados > 0);
+        } catch (Exception e) {
+            log.error("ERRO OUTBOX: Falha ao drenar a outbox: {}", e.getMessage(), e);
+        }
+
+        if (total > 0) {
+            log.info("OUTBOX: {} eventos de consulta publicados no Kafka.", total);
+        }
+    }
+}
@@ -1,75 +1,72 @@
 package com.postechfiap.meuhospital.agendamento.security;
 
 
+import com.postechfiap.meuhospital.contracts.seguranca.ChavesJwt;
+import com.postechfiap.meuhospital.contracts.seguranca.ClienteJwks;
+import com.postechfiap.meuhospital.contracts.seguranca.TokenVerificado;
+import com.postechfiap.meuhospital.contracts.seguranca.VerificadorJwt;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
-import java.util.Date;
-import java.util.UUID;
-import java.util.function.Function;
+import java.time.Duration;
 
 /**
  * Serviço responsável pela validação do JWT no lado do Microserviço.
  */
 @Service
-public class JwtService {
-
-    private final String secret;
+public class JwtService implements VerificadorJwt {
 
     private final long expirationTime;
 
-    public JwtService(@Value("${app.jwt.secret}") String secret,
-                      @Value("${app.jwt.expiration}") long expirationTime) {
-        this.secret = secret;
-        this.expirationTime = expirationTime;
-    }
-
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-    }
+    private final ChavesJwt chaves;
 
-    @SuppressWarnings("deprecation")
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
+    /**
+     * Parser imutável e thread-safe, criado uma vez; a chave é escolhida pelo 'kid' do cabeçalho.
+     */
+    private final JwtParser parser;
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    public JwtService(@Value("${app.jwt.secret:}") String secret,
+                      @Value("${app.jwt.expiration}") long expirationTime,
+                      @Value("${app.jwt.kid:principal}") String kid,
+                      @Value("${app.jwt.chaves-arquivo:}") String arquivoChaves,
+                      @Value("${app.jwt.jwks-url:}") String urlJwks,
+                      @Value("${app.jwt.jwks-intervalo-minimo:PT30S}") Duration intervaloMinimoJwks,
+                      @Value("${app.jwt.jwks-atualizacao:PT10M}") Duration atualizacaoJwks) {
+        this.expirationTime = expirationTime;
+        this.chaves = new ChavesJwt(secret, kid, arquivoChaves, new ClienteJwks(urlJwks, intervaloMinimoJwks, atualizacaoJwks));
+        this.parser = Jwts.parser().keyLocator(chaves).build();
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    /**
+     * Relê o arquivo de chaves (app.jwt.chaves-arquivo), se configurado e modificado, e atualiza o JWKS se vencido.
+     */
+    @Scheduled(initialDelayString = "${app.jwt.chaves-recarga:PT30S}", fixedDelayString = "${app.jwt.chaves-recarga:PT30S}")
+    public void recarregarChaves() {
+        chaves.recarregar();
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    /**
+     * Versão do conjunto de chaves de verificação (muda quando o arquivo de chaves ou o JWKS são recarregados).
+     */
+    @Override
+    public int versaoChaves() {
+        return chaves.versao();
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractClaim(token, Claims::getExpiration).before(new Date());
+    private Claims extractAllClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     /**
-     * Extrai o ID do usuário (UUID) do token JWT.
+     * Verifica assinatura e expiração uma única vez e devolve os dados do usuário contidos no token.
+     * Usado pelo SecurityFilter (via CacheTokens).
      */
-    public UUID extractUserId(String token) {
-        final Claims claims = extractAllClaims(token);
-        String idString = claims.get("id", String.class);
-        if (idString == null) {
-            throw new IllegalArgumentException("Token não contém o ID do usuário (claim 'id').");
-        }
-        return UUID.fromString(idString);
+    @Override
+    public TokenVerificado verificar(String token) {
+        return TokenVerificado.de(extractAllClaims(token));
     }
-}
\ No newline at end of file
+}
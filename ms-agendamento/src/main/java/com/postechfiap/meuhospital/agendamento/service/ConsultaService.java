@@ -1,11 +1,18 @@
 package com.postechfiap.meuhospital.agendamento.service;
 
+import com.postechfiap.meuhospital.agendamento.dto.DiretorioMedicosPagina;
+import com.postechfiap.meuhospital.agendamento.dto.HorariosDisponiveisResponse;
 import com.postechfiap.meuhospital.agendamento.dto.MedicoProjectionResponse;
+import com.postechfiap.meuhospital.contracts.agendamento.ConsultaBatchResponse;
+import com.postechfiap.meuhospital.contracts.agendamento.ConsultaPaginaResponse;
 import com.postechfiap.meuhospital.contracts.agendamento.ConsultaRequest;
 import com.postechfiap.meuhospital.contracts.agendamento.ConsultaResponse;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import java.util.UUID;
+import java.util.function.BooleanSupplier;
 
 /**
  * Interface que define o contrato para a gestão de consultas médicas.
@@ -14,24 +21,66 @@ public interface ConsultaService {
 
     ConsultaResponse criarConsulta(ConsultaRequest request);
 
+    /**
+     * Cria várias consultas de uma vez. Cada item é validado com as mesmas regras de criarConsulta,
+     * como se as requisições fossem enviadas em sequência; itens inválidos são rejeitados sem afetar os demais.
+     * @return Relatório com o resultado de cada item, na ordem da requisição.
+     */
+    ConsultaBatchResponse criarConsultasEmLote(List<ConsultaRequest> requests);
+
     ConsultaResponse buscarConsultaPorId(UUID id);
 
     ConsultaResponse editarConsulta(UUID id, ConsultaRequest request);
 
     void cancelarConsulta(UUID id);
 
+    /**
+     * Lista as consultas do médico em [de, ate), paginadas por cursor (keyset em data_consulta, id).
+     * @param cursor Cursor opaco retornado na página anterior, ou nulo para a primeira página.
+     * @param limite Tamanho da página, limitado a app.agendamento.paginacao.limite-maximo.
+     */
+    ConsultaPaginaResponse listarConsultasDoMedico(UUID medicoId, LocalDateTime de, LocalDateTime ate, String cursor, Integer limite);
+
+    /**
+     * Lista as consultas do paciente em [de, ate), com a mesma paginação de listarConsultasDoMedico.
+     */
+    ConsultaPaginaResponse listarConsultasDoPaciente(UUID pacienteId, LocalDateTime de, LocalDateTime ate, String cursor, Integer limite);
+
     /**
      * Retorna a lista de médicos disponíveis, opcionalmente filtrada por especialidade.
      */
     List<MedicoProjectionResponse> listarMedicosDisponiveis(String especialidade);
 
+    /**
+     * Retorna a mesma listagem de listarMedicosDisponiveis já serializada em JSON, com ETag.
+     */
+    DiretorioMedicosPagina listarMedicosDisponiveisSerializados(String especialidade);
+
+    /**
+     * Calcula os horários livres (slots de 30 minutos dentro do expediente) do médico na data informada.
+     * Um horário é listado somente se passaria pela mesma validação de disponibilidade do agendamento.
+     */
+    HorariosDisponiveisResponse buscarHorariosDisponiveis(UUID medicoId, LocalDate data);
+
+    /**
+     * Calcula os horários livres de todos os médicos da especialidade na data informada.
+     */
+    List<HorariosDisponiveisResponse> buscarHorariosDisponiveisPorEspecialidade(String especialidade, LocalDate data);
+
     /**
      * CRÍTICO: Método usado pelo @PreAuthorize para autorização dinâmica.
      * Verifica se o paciente autenticado é o paciente desta consulta.
      */
     boolean isPacienteDaConsulta(UUID consultaId, UUID pacienteId);
 
-    int marcarConsultasAnterioresComoRealizadas();
+    /**
+     * @param leaseValido Consultado antes de cada bloco; false interrompe o job (lease perdido para outra réplica).
+     */
+    int marcarConsultasAnterioresComoRealizadas(BooleanSupplier leaseValido);
 
-    int enviarLembretesParaProximoDia();
+    /**
+     * @param particao Partição processada (hash do medicoId), de 0 a particoes-1.
+     * @param leaseValido Consultado antes de cada página; false interrompe o job (lease perdido para outra réplica).
+     */
+    int enviarLembretesParaProximoDia(int particao, int particoes, BooleanSupplier leaseValido);
 }
\ No newline at end of file
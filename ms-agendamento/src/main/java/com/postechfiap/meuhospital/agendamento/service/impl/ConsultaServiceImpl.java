@@ -1,6 +1,11 @@
 package com.postechfiap.meuhospital.agendamento.service.impl;
 
+import com.postechfiap.meuhospital.agendamento.agenda.AgendaLockManager;
+import com.postechfiap.meuhospital.agendamento.agenda.AgendaMedicoIndex;
 import com.postechfiap.meuhospital.agendamento.client.AuthClientService;
+import com.postechfiap.meuhospital.agendamento.diretorio.DiretorioMedicos;
+import com.postechfiap.meuhospital.agendamento.dto.DiretorioMedicosPagina;
+import com.postechfiap.meuhospital.agendamento.dto.HorariosDisponiveisResponse;
 import com.postechfiap.meuhospital.agendamento.dto.MedicoProjectionResponse;
 import com.postechfiap.meuhospital.agendamento.dto.PacienteDetails;
 import com.postechfiap.meuhospital.agendamento.entity.Consulta;
@@ -8,69 +13,253 @@ import com.postechfiap.meuhospital.agendamento.entity.MedicoProjection;
 import com.postechfiap.meuhospital.agendamento.entity.StatusConsulta;
 import com.postechfiap.meuhospital.agendamento.exception.RecursoNaoEncontradoException;
 import com.postechfiap.meuhospital.agendamento.exception.RegraDeNegocioException;
-import com.postechfiap.meuhospital.agendamento.kafka.ConsultaProducer;
+import com.postechfiap.meuhospital.agendamento.kafka.ConsultaOutbox;
 import com.postechfiap.meuhospital.agendamento.repository.ConsultaRepository;
 import com.postechfiap.meuhospital.agendamento.repository.MedicoProjectionRepository;
 import com.postechfiap.meuhospital.agendamento.service.ConsultaService;
+import com.postechfiap.meuhospital.contracts.agendamento.ConsultaBatchItemResponse;
+import com.postechfiap.meuhospital.contracts.agendamento.ConsultaBatchResponse;
+import com.postechfiap.meuhospital.contracts.agendamento.ConsultaPaginaResponse;
 import com.postechfiap.meuhospital.contracts.agendamento.ConsultaRequest;
 import com.postechfiap.meuhospital.contracts.agendamento.ConsultaResponse;
 import com.postechfiap.meuhospital.contracts.events.ConsultaCriadaEvent;
+import com.postechfiap.meuhospital.contracts.usuario.UsuarioBatchRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service("consultaService")
 public class ConsultaServiceImpl implements ConsultaService {
 
     private static final int DURACAO_PADRAO_MINUTOS = 30;
+    private static final UUID MENOR_UUID = new UUID(0L, 0L);
+    private static final String UK_HORARIO_AGENDADO = "uk_consultas_medico_horario_agendada";
+    private static final LocalDateTime DATA_MINIMA = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final LocalDateTime DATA_MAXIMA = LocalDateTime.of(9999, 12, 31, 0, 0);
 
     private static final Logger log = LoggerFactory.getLogger(ConsultaServiceImpl.class);
 
     private final ConsultaRepository consultaRepository;
     private final MedicoProjectionRepository medicoProjectionRepository;
     private final AuthClientService authClientService;
-    private final ConsultaProducer consultaProducer;
-
-    public ConsultaServiceImpl(ConsultaRepository consultaRepository, MedicoProjectionRepository medicoProjectionRepository, AuthClientService authClientService, ConsultaProducer consultaProducer) {
+    private final ConsultaOutbox consultaOutbox;
+    private final AgendaMedicoIndex agendaMedicoIndex;
+    private final AgendaLockManager agendaLockManager;
+    private final TransactionTemplate transactionTemplate;
+    private final DiretorioMedicos diretorioMedicos;
+    private final AsyncTaskExecutor taskExecutor;
+    private final int tamanhoPaginaLembrete;
+    private final int paralelismoLembrete;
+    private final int blocoRealizadas;
+    private final int limitePadraoPagina;
+    private final int limiteMaximoPagina;
+    private final LocalTime inicioExpediente;
+    private final LocalTime fimExpediente;
+
+    public ConsultaServiceImpl(ConsultaRepository consultaRepository, MedicoProjectionRepository medicoProjectionRepository, AuthClientService authClientService, ConsultaOutbox consultaOutbox, AgendaMedicoIndex agendaMedicoIndex, AgendaLockManager agendaLockManager, TransactionTemplate transactionTemplate, DiretorioMedicos diretorioMedicos,
+                               @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor,
+                               @Value("${app.agendamento.lembrete.tamanho-pagina:200}") int tamanhoPaginaLembrete,
+                               @Value("${app.agendamento.lembrete.paralelismo:4}") int paralelismoLembrete,
+                               @Value("${app.agendamento.realizadas.tamanho-bloco:5000}") int blocoRealizadas,
+                               @Value("${app.agendamento.paginacao.limite-padrao:50}") int limitePadraoPagina,
+                               @Value("${app.agendamento.paginacao.limite-maximo:200}") int limiteMaximoPagina,
+                               @Value("${app.agendamento.expediente.inicio:08:00}") String inicioExpediente,
+                               @Value("${app.agendamento.expediente.fim:18:00}") String fimExpediente) {
         this.consultaRepository = consultaRepository;
         this.medicoProjectionRepository = medicoProjectionRepository;
         this.authClientService = authClientService;
-        this.consultaProducer = consultaProducer;
+        this.consultaOutbox = consultaOutbox;
+        this.agendaMedicoIndex = agendaMedicoIndex;
+        this.agendaLockManager = agendaLockManager;
+        this.transactionTemplate = transactionTemplate;
+        this.diretorioMedicos = diretorioMedicos;
+        this.taskExecutor = taskExecutor;
+        this.tamanhoPaginaLembrete = Math.min(tamanhoPaginaLembrete, UsuarioBatchRequest.TAMANHO_MAXIMO);
+        this.paralelismoLembrete = paralelismoLembrete;
+        this.blocoRealizadas = blocoRealizadas;
+        this.limitePadraoPagina = limitePadraoPagina;
+        this.limiteMaximoPagina = limiteMaximoPagina;
+        this.inicioExpediente = LocalTime.parse(inicioExpediente);
+        this.fimExpediente = LocalTime.parse(fimExpediente);
     }
 
+    /**
+     * Cria a consulta. O RPC do paciente é disparado em paralelo (applicationTaskExecutor, em virtual threads
+     * quando spring.threads.virtual.enabled=true) com as validações locais do médico e do horário.
+     * A validação definitiva de disponibilidade, o insert e o commit ocorrem sob o lock da agenda
+     * do médico (AgendaLockManager), eliminando a corrida entre o check e o save.
+     */
     @Override
-    @Transactional
     public ConsultaResponse criarConsulta(ConsultaRequest request) {
         log.info("INICIANDO CRIAÇÃO DE CONSULTA. Paciente ID: {}, Médico ID: {}, Data: {}",
                 request.pacienteId(), request.medicoId(), request.dataConsulta());
 
-        MedicoProjection medico = validarMedicoExistente(request.medicoId());
-        validarDisponibilidade(request.medicoId(), request.dataConsulta());
-        PacienteDetails pacienteDetails = buscarValidarPaciente(request);
+        CompletableFuture<PacienteDetails> pacienteFuturo = buscarValidarPacienteAsync(request);
+        MedicoProjection medico = validarLocalmente(request, null, pacienteFuturo);
+        PacienteDetails pacienteDetails = aguardar(pacienteFuturo);
+
+        return agendaLockManager.executarComLock(request.medicoId(), () ->
+                salvarComArbitragemDoBanco(() -> transactionTemplate.execute(status -> salvarNovaConsulta(request, medico, pacienteDetails))));
+    }
+
+    /**
+     * Cria as consultas em lote: um RPC para todos os pacientes (em paralelo com a busca dos médicos)
+     * e, por médico, uma única transação sob o lock da agenda, com uma consulta de faixa para os horários
+     * ocupados e inserts/eventos da outbox em batch JDBC.
+     * Uma falha ao salvar o grupo de um médico (regra de negócio ou erro inesperado, como timeout do banco) desfaz
+     * apenas a transação desse médico e rejeita os seus itens: os grupos já confirmados continuam no resultado.
+     */
+    @Override
+    public ConsultaBatchResponse criarConsultasEmLote(List<ConsultaRequest> requests) {
+        log.info("INICIANDO CRIAÇÃO EM LOTE de {} consultas.", requests.size());
+
+        Set<UUID> pacienteIds = requests.stream().map(ConsultaRequest::pacienteId).collect(Collectors.toSet());
+        CompletableFuture<Map<UUID, PacienteDetails>> pacientesFuturo =
+                CompletableFuture.supplyAsync(() -> authClientService.buscarPacientesPorIds(pacienteIds), taskExecutor);
+        Map<UUID, MedicoProjection> medicos = medicoProjectionRepository
+                .findAllById(requests.stream().map(ConsultaRequest::medicoId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(MedicoProjection::getId, Function.identity()));
+        Map<UUID, PacienteDetails> pacientes = aguardar(pacientesFuturo);
+
+        ConsultaBatchItemResponse[] resultados = new ConsultaBatchItemResponse[requests.size()];
+        Map<UUID, List<Integer>> indicesPorMedico = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            ConsultaRequest request = requests.get(i);
+            PacienteDetails paciente = pacientes.get(request.pacienteId());
+            if (!medicos.containsKey(request.medicoId())) {
+                resultados[i] = itemRejeitado(i, "Médico com ID " + request.medicoId() + " não encontrado para agendamento.");
+            } else if (paciente == null || paciente.nome() == null || paciente.nome().isBlank()) {
+                resultados[i] = itemRejeitado(i, "Paciente não encontrado.");
+            } else {
+                indicesPorMedico.computeIfAbsent(request.medicoId(), id -> new ArrayList<>()).add(i);
+            }
+        }
+
+        indicesPorMedico.forEach((medicoId, indices) -> {
+            try {
+                Map<Integer, ConsultaBatchItemResponse> itens = agendaLockManager.executarComLock(medicoId, () ->
+                        salvarComArbitragemDoBanco(() -> transactionTemplate.execute(status ->
+                                salvarLoteDoMedico(medicos.get(medicoId), indices, requests, pacientes))));
+                itens.forEach((indice, item) -> resultados[indice] = item);
+            } catch (RegraDeNegocioException e) {
+                log.warn("FALHA LOTE: Consultas do Médico ID {} rejeitadas: {}", medicoId, e.getMessage());
+                indices.forEach(indice -> resultados[indice] = itemRejeitado(indice, e.getMessage()));
+            } catch (RuntimeException e) {
+                log.error("FALHA LOTE: Erro ao salvar as consultas do Médico ID {}. Itens rejeitados; os demais médicos seguem.", medicoId, e);
+                indices.forEach(indice -> resultados[indice] = itemRejeitado(indice, "Falha ao salvar a consulta. Tente novamente."));
+            }
+        });
+
+        List<ConsultaBatchItemResponse> itens = List.of(resultados);
+        int criadas = (int) itens.stream().filter(item -> item.consulta() != null).count();
+        log.info("SUCESSO: Lote concluído. {} consultas criadas, {} rejeitadas.", criadas, itens.size() - criadas);
+        return new ConsultaBatchResponse(criadas, itens.size() - criadas, itens);
+    }
+
+    /**
+     * Valida e salva os itens de um médico. Deve ser chamado sob o lock da agenda e dentro da transação.
+     * Os itens são avaliados na ordem da requisição, com o mesmo critério de validarDisponibilidade,
+     * considerando também os itens já aceitos do próprio lote.
+     */
+    private Map<Integer, ConsultaBatchItemResponse> salvarLoteDoMedico(MedicoProjection medico, List<Integer> indices,
+                                                                     List<ConsultaRequest> requests, Map<UUID, PacienteDetails> pacientes) {
+        agendaLockManager.bloquearNoBanco(medico.getId());
+
+        LocalDateTime inicio = indices.stream().map(i -> requests.get(i).dataConsulta()).min(LocalDateTime::compareTo).orElseThrow();
+        LocalDateTime fim = indices.stream().map(i -> requests.get(i).dataConsulta()).max(LocalDateTime::compareTo).orElseThrow()
+                .plusMinutes(DURACAO_PADRAO_MINUTOS);
+        NavigableSet<LocalDateTime> ocupados = buscarHorariosOcupados(List.of(medico.getId()), inicio, fim)
+                .getOrDefault(medico.getId(), new TreeSet<>());
+
+        Map<Integer, ConsultaBatchItemResponse> itens = new LinkedHashMap<>();
+        Map<Integer, Consulta> novas = new LinkedHashMap<>();
+        for (int indice : indices) {
+            ConsultaRequest request = requests.get(indice);
+            LocalDateTime proximo = ocupados.ceiling(request.dataConsulta());
+            if (proximo != null && !proximo.isAfter(request.dataConsulta().plusMinutes(DURACAO_PADRAO_MINUTOS))) {
+                itens.put(indice, itemRejeitado(indice, "O médico já possui uma consulta marcada para este horário."));
+                continue;
+            }
+            ocupados.add(request.dataConsulta());
+            novas.put(indice, criarEntidadeConsulta(request, medico, pacientes.get(request.pacienteId())));
+        }
+
+        List<Consulta> salvas = consultaRepository.saveAll(novas.values());
+        agendaMedicoIndex.aposCommit(() -> salvas.forEach(consulta -> agendaMedicoIndex.reservar(
+                consulta.getMedicoId(), consulta.getDataConsulta(), consulta.getId())));
+
+        novas.forEach((indice, consulta) -> {
+            publishConsultaEvent(consulta, pacientes.get(consulta.getPacienteId()), "CRIACAO");
+            itens.put(indice, new ConsultaBatchItemResponse(indice, "CRIADA", mapToResponse(consulta), null));
+        });
+        return itens;
+    }
+
+    private ConsultaBatchItemResponse itemRejeitado(int indice, String erro) {
+        return new ConsultaBatchItemResponse(indice, "REJEITADA", null, erro);
+    }
+
+    private ConsultaResponse salvarNovaConsulta(ConsultaRequest request, MedicoProjection medico, PacienteDetails pacienteDetails) {
+        validarDisponibilidade(request.medicoId(), request.dataConsulta(), null);
 
         Consulta novaConsulta = criarEntidadeConsulta(request, medico, pacienteDetails);
         Consulta consultaSalva = consultaRepository.save(novaConsulta);
+        agendaMedicoIndex.aposCommit(() -> agendaMedicoIndex.reservar(
+                consultaSalva.getMedicoId(), consultaSalva.getDataConsulta(), consultaSalva.getId()));
 
         publishConsultaEvent(consultaSalva, pacienteDetails, "CRIACAO");
-        log.info("SUCESSO: Consulta ID {} criada e evento CRIACAO publicado.", consultaSalva.getId());
+        log.info("SUCESSO: Consulta ID {} criada e evento CRIACAO registrado na outbox.", consultaSalva.getId());
 
         return mapToResponse(consultaSalva);
     }
 
+    /**
+     * Edita a consulta sob o lock da agenda do médico, com o mesmo esquema de criarConsulta.
+     * O médico da consulta não pode ser trocado: o lock e a validação usam request.medicoId(),
+     * que precisa ser o médico dono do horário.
+     */
     @Override
-    @Transactional
     public ConsultaResponse editarConsulta(UUID id, ConsultaRequest request) {
         log.info("INICIANDO EDIÇÃO DE CONSULTA ID {}. Nova Data: {}", id, request.dataConsulta());
 
+        CompletableFuture<PacienteDetails> pacienteFuturo = buscarValidarPacienteAsync(request);
+        validarLocalmente(request, id, pacienteFuturo);
+        PacienteDetails pacienteDetails = aguardar(pacienteFuturo);
+
+        return agendaLockManager.executarComLock(request.medicoId(), () ->
+                salvarComArbitragemDoBanco(() -> transactionTemplate.execute(status -> salvarEdicaoConsulta(id, request, pacienteDetails))));
+    }
+
+    private ConsultaResponse salvarEdicaoConsulta(UUID id, ConsultaRequest request, PacienteDetails pacienteDetails) {
         Consulta consultaExistente = consultaRepository.findById(id)
                 .orElseThrow(() -> {
                     log.warn("Falha de edição: Consulta ID {} não encontrada.", id);
@@ -82,17 +271,28 @@ public class ConsultaServiceImpl implements ConsultaService {
             throw new RegraDeNegocioException("Consulta com status " + consultaExistente.getStatus().name() + " não pode ser editada.");
         }
 
-        MedicoProjection medico = validarMedicoExistente(request.medicoId());
-        validarDisponibilidade(request.medicoId(), request.dataConsulta());
-        PacienteDetails pacienteDetails = buscarValidarPaciente(request);
+        if (!consultaExistente.getMedicoId().equals(request.medicoId())) {
+            log.warn("Falha de edição: troca do Médico ID {} para {} na Consulta ID {}.", consultaExistente.getMedicoId(), request.medicoId(), id);
+            throw new RegraDeNegocioException("O médico da consulta não pode ser alterado. Cancele e agende uma nova consulta.");
+        }
+
+        validarDisponibilidade(request.medicoId(), request.dataConsulta(), id);
 
+        LocalDateTime dataAnterior = consultaExistente.getDataConsulta();
         consultaExistente.setDataConsulta(request.dataConsulta());
+        if (!dataAnterior.equals(request.dataConsulta())) {
+            consultaExistente.setLembreteEnviadoEm(null);
+        }
         consultaExistente.setDetalhesDaConsulta(request.detalhesDaConsulta());
 
         Consulta consultaAtualizada = consultaRepository.save(consultaExistente);
+        agendaMedicoIndex.aposCommit(() -> {
+            agendaMedicoIndex.liberar(consultaAtualizada.getMedicoId(), dataAnterior, id);
+            agendaMedicoIndex.reservar(consultaAtualizada.getMedicoId(), consultaAtualizada.getDataConsulta(), id);
+        });
 
         publishConsultaEvent(consultaAtualizada, pacienteDetails, "ATUALIZACAO");
-        log.info("SUCESSO: Consulta ID {} atualizada e evento ATUALIZACAO publicado.", id);
+        log.info("SUCESSO: Consulta ID {} atualizada e evento ATUALIZACAO registrado na outbox.", id);
 
         return mapToResponse(consultaAtualizada);
     }
@@ -119,9 +319,83 @@ public class ConsultaServiceImpl implements ConsultaService {
         consultaExistente.setDetalhesDaConsulta("Cancelado pela equipe em: " + LocalDateTime.now());
 
         Consulta consultaCancelada = consultaRepository.save(consultaExistente);
+        agendaMedicoIndex.aposCommit(() -> agendaMedicoIndex.liberar(
+                consultaCancelada.getMedicoId(), consultaCancelada.getDataConsulta(), id));
 
         publishConsultaEvent(consultaCancelada, pacienteDetails, "CANCELAMENTO");
-        log.warn("SUCESSO: Consulta ID {} cancelada e evento CANCELAMENTO publicado.", id);
+        log.warn("SUCESSO: Consulta ID {} cancelada e evento CANCELAMENTO registrado na outbox.", id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ConsultaPaginaResponse listarConsultasDoMedico(UUID medicoId, LocalDateTime de, LocalDateTime ate, String cursor, Integer limite) {
+        log.debug("Listando consultas do Médico ID {} (de {} até {}, cursor {}).", medicoId, de, ate, cursor);
+        return paginar(de, ate, cursor, limite, (cursorData, cursorId, fim, tamanho) ->
+                consultaRepository.findPaginaDoMedico(medicoId, cursorData, cursorId, fim, tamanho));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ConsultaPaginaResponse listarConsultasDoPaciente(UUID pacienteId, LocalDateTime de, LocalDateTime ate, String cursor, Integer limite) {
+        log.debug("Listando consultas do Paciente ID {} (de {} até {}, cursor {}).", pacienteId, de, ate, cursor);
+        return paginar(de, ate, cursor, limite, (cursorData, cursorId, fim, tamanho) ->
+                consultaRepository.findPaginaDoPaciente(pacienteId, cursorData, cursorId, fim, tamanho));
+    }
+
+    /**
+     * Paginação keyset em (data_consulta, id): busca limite + 1 linhas para saber se há próxima página,
+     * sem COUNT e sem OFFSET. O tamanho da página é sempre limitado a limiteMaximoPagina.
+     */
+    private ConsultaPaginaResponse paginar(LocalDateTime de, LocalDateTime ate, String cursor, Integer limite, BuscaPagina busca) {
+        LocalDateTime inicio = de != null ? de : DATA_MINIMA;
+        LocalDateTime fim = ate != null ? ate : DATA_MAXIMA;
+        if (!inicio.isBefore(fim)) {
+            throw new RegraDeNegocioException("O parâmetro 'from' deve ser anterior a 'to'.");
+        }
+        int tamanho = limite == null ? limitePadraoPagina : Math.max(1, Math.min(limite, limiteMaximoPagina));
+
+        CursorConsulta posicao = cursor != null ? CursorConsulta.decodificar(cursor) : new CursorConsulta(inicio, MENOR_UUID);
+        if (posicao.dataConsulta().isBefore(inicio)) {
+            posicao = new CursorConsulta(inicio, MENOR_UUID);
+        }
+
+        List<Consulta> linhas = busca.buscar(posicao.dataConsulta(), posicao.id(), fim, tamanho + 1);
+        boolean possuiProxima = linhas.size() > tamanho;
+        List<Consulta> pagina = possuiProxima ? linhas.subList(0, tamanho) : linhas;
+
+        String proximoCursor = null;
+        if (possuiProxima) {
+            Consulta ultima = pagina.get(pagina.size() - 1);
+            proximoCursor = new CursorConsulta(ultima.getDataConsulta(), ultima.getId()).codificar();
+        }
+        return new ConsultaPaginaResponse(pagina.stream().map(this::mapToResponse).toList(), proximoCursor);
+    }
+
+    @FunctionalInterface
+    private interface BuscaPagina {
+        List<Consulta> buscar(LocalDateTime cursorData, UUID cursorId, LocalDateTime fim, int limite);
+    }
+
+    /**
+     * Posição da última linha entregue, serializada como Base64 URL-safe de "dataConsulta|id".
+     */
+    private record CursorConsulta(LocalDateTime dataConsulta, UUID id) {
+
+        String codificar() {
+            String valor = dataConsulta + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static CursorConsulta decodificar(String cursor) {
+            try {
+                String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separador = valor.indexOf('|');
+                return new CursorConsulta(LocalDateTime.parse(valor.substring(0, separador)),
+                        UUID.fromString(valor.substring(separador + 1)));
+            } catch (RuntimeException e) {
+                throw new RegraDeNegocioException("Cursor de paginação inválido.");
+            }
+        }
     }
 
     @Override
@@ -139,82 +413,217 @@ public class ConsultaServiceImpl implements ConsultaService {
         return consultaRepository.findByIdAndPacienteId(consultaId, pacienteId).isPresent();
     }
 
+    /**
+     * Lista os médicos a partir do diretório em memória (DiretorioMedicos), sem acesso ao banco.
+     */
     @Override
-    @Transactional(readOnly = true)
     public List<MedicoProjectionResponse> listarMedicosDisponiveis(String especialidade) {
         log.info("INICIANDO listagem de médicos. Filtro: {}", StringUtils.hasText(especialidade) ? especialidade : "Nenhum");
 
-        List<MedicoProjection> medicos;
-
-        if (StringUtils.hasText(especialidade)) {
-            medicos = medicoProjectionRepository.findAllByEspecialidade(especialidade);
-        } else {
-            medicos = medicoProjectionRepository.findAll();
-        }
-
-        List<MedicoProjectionResponse> response = medicos.stream()
-                .filter(medico -> medico.getRole() == com.postechfiap.meuhospital.contracts.core.Role.MEDICO)
-                .map(this::mapToMedicoResponse)
-                .collect(Collectors.toList());
+        List<MedicoProjectionResponse> response = diretorioMedicos.listar(especialidade);
 
         log.info("Listagem de médicos concluída. Total: {}", response.size());
         return response;
     }
 
     @Override
-    @Transactional
-    public int marcarConsultasAnterioresComoRealizadas() {
-        LocalDateTime ontemAmeiaNoite = LocalDate.now().atStartOfDay();
-        log.info("JOB SCHEDULER: Iniciando marcação de consultas REALIZADAS antes de {}.", ontemAmeiaNoite);
+    public DiretorioMedicosPagina listarMedicosDisponiveisSerializados(String especialidade) {
+        return diretorioMedicos.pagina(especialidade);
+    }
 
-        List<Consulta> consultasExpiradas = consultaRepository.findAllByStatusAndDataConsultaBefore(
-                StatusConsulta.AGENDADA,
-                ontemAmeiaNoite
-        );
+    @Override
+    @Transactional(readOnly = true)
+    public HorariosDisponiveisResponse buscarHorariosDisponiveis(UUID medicoId, LocalDate data) {
+        log.debug("Calculando horários livres do Médico ID {} em {}.", medicoId, data);
 
-        consultasExpiradas.forEach(consulta -> {
-            consulta.setStatus(StatusConsulta.REALIZADA);
-        });
+        MedicoProjectionResponse medico = diretorioMedicos.buscar(medicoId)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Médico com ID " + medicoId + " não encontrado."));
 
-        consultaRepository.saveAll(consultasExpiradas);
-        log.info("JOB CONCLUÍDO: {} consultas marcadas como REALIZADA.", consultasExpiradas.size());
-        return consultasExpiradas.size();
+        return calcularHorariosDisponiveis(List.of(medico), data).get(0);
     }
 
     @Override
-    @Transactional
-    public int enviarLembretesParaProximoDia() {
+    @Transactional(readOnly = true)
+    public List<HorariosDisponiveisResponse> buscarHorariosDisponiveisPorEspecialidade(String especialidade, LocalDate data) {
+        log.debug("Calculando horários livres da especialidade {} em {}.", especialidade, data);
+        return calcularHorariosDisponiveis(diretorioMedicos.listar(especialidade), data);
+    }
+
+    /**
+     * Gera os slots do expediente (a cada DURACAO_PADRAO_MINUTOS, apenas futuros) e remove os que conflitam
+     * com consultas AGENDADAS, com o mesmo critério de validarDisponibilidade: o slot h está ocupado se existe
+     * consulta iniciando em [h, h + DURACAO_PADRAO_MINUTOS].
+     * Os horários ocupados vêm do AgendaMedicoIndex ou, sem ele, de uma única consulta de faixa para todos os médicos.
+     */
+    private List<HorariosDisponiveisResponse> calcularHorariosDisponiveis(List<MedicoProjectionResponse> medicos, LocalDate data) {
+        List<LocalDateTime> candidatos = horariosDoExpediente(data);
+        Map<UUID, NavigableSet<LocalDateTime>> ocupados = candidatos.isEmpty() || medicos.isEmpty()
+                ? Map.of()
+                : buscarHorariosOcupados(medicos.stream().map(MedicoProjectionResponse::id).toList(),
+                        candidatos.get(0), candidatos.get(candidatos.size() - 1).plusMinutes(DURACAO_PADRAO_MINUTOS));
+
+        List<HorariosDisponiveisResponse> response = new ArrayList<>(medicos.size());
+        for (MedicoProjectionResponse medico : medicos) {
+            NavigableSet<LocalDateTime> ocupadosDoMedico = ocupados.getOrDefault(medico.id(), new TreeSet<>());
+            List<LocalDateTime> livres = candidatos.stream()
+                    .filter(horario -> {
+                        LocalDateTime proximo = ocupadosDoMedico.ceiling(horario);
+                        return proximo == null || proximo.isAfter(horario.plusMinutes(DURACAO_PADRAO_MINUTOS));
+                    })
+                    .toList();
+            response.add(new HorariosDisponiveisResponse(medico.id(), medico.nome(), medico.especialidade(), data, livres));
+        }
+        return response;
+    }
+
+    private List<LocalDateTime> horariosDoExpediente(LocalDate data) {
+        LocalDateTime agora = LocalDateTime.now();
+        LocalDateTime fim = data.atTime(fimExpediente);
+        List<LocalDateTime> horarios = new ArrayList<>();
+        for (LocalDateTime horario = data.atTime(inicioExpediente);
+             !horario.plusMinutes(DURACAO_PADRAO_MINUTOS).isAfter(fim);
+             horario = horario.plusMinutes(DURACAO_PADRAO_MINUTOS)) {
+            if (horario.isAfter(agora)) {
+                horarios.add(horario);
+            }
+        }
+        return horarios;
+    }
+
+    /**
+     * Com o lock distribuído habilitado, o índice local não enxerga agendamentos de outras réplicas,
+     * então os horários ocupados são lidos do banco.
+     */
+    private Map<UUID, NavigableSet<LocalDateTime>> buscarHorariosOcupados(List<UUID> medicoIds, LocalDateTime inicio, LocalDateTime fim) {
+        Map<UUID, NavigableSet<LocalDateTime>> ocupados = new HashMap<>();
+        if (usarIndiceLocal()) {
+            medicoIds.forEach(medicoId ->
+                    ocupados.put(medicoId, new TreeSet<>(agendaMedicoIndex.horariosOcupados(medicoId, inicio, fim))));
+        } else {
+            consultaRepository.findSlotsAgendadosDosMedicos(medicoIds, inicio, fim).forEach(slot ->
+                    ocupados.computeIfAbsent(slot.medicoId(), id -> new TreeSet<>()).add(slot.dataConsulta()));
+        }
+        return ocupados;
+    }
+
+    /**
+     * Marca as consultas vencidas como REALIZADA em blocos de UPDATE set-based,
+     * cada bloco em sua própria transação: memória constante e transações curtas, mesmo com milhões de linhas.
+     * Para antes do próximo bloco se o lease do job deixar de ser válido.
+     */
+    @Override
+    public int marcarConsultasAnterioresComoRealizadas(BooleanSupplier leaseValido) {
+        LocalDateTime ontemAmeiaNoite = LocalDate.now().atStartOfDay();
+        log.info("JOB SCHEDULER: Iniciando marcação de consultas REALIZADAS antes de {} (blocos de {}).",
+                ontemAmeiaNoite, blocoRealizadas);
+
+        long inicioMs = System.currentTimeMillis();
+        int total = 0;
+        int atualizadas;
+        do {
+            if (!leaseValido.getAsBoolean()) {
+                log.warn("JOB INTERROMPIDO: Lease perdido após {} consultas marcadas como REALIZADA.", total);
+                return total;
+            }
+            atualizadas = transactionTemplate.execute(status -> consultaRepository.marcarBlocoComoRealizadas(
+                    ontemAmeiaNoite, LocalDateTime.now(), blocoRealizadas));
+            total += atualizadas;
+            log.debug("JOB SCHEDULER: Bloco concluído. {} consultas nesta rodada, {} no total.", atualizadas, total);
+        } while (atualizadas > 0);
+
+        agendaMedicoIndex.descartarAnterioresA(ontemAmeiaNoite);
+
+        long duracaoMs = Math.max(System.currentTimeMillis() - inicioMs, 1);
+        log.info("JOB CONCLUÍDO: {} consultas marcadas como REALIZADA em {} ms ({} linhas/s).",
+                total, duracaoMs, total * 1000L / duracaoMs);
+        return total;
+    }
+
+    /**
+     * Publica os lembretes das consultas de amanhã ainda não lembradas, da partição informada (cujo lease está com esta réplica).
+     * As páginas são lidas por keyset (data_consulta, id) e processadas em paralelo, limitadas
+     * a app.agendamento.lembrete.paralelismo páginas em andamento. Cada página marca as consultas
+     * como lembradas na mesma transação em que grava os eventos na outbox, então reexecuções não duplicam lembretes.
+     * Sem lease válido, nenhuma nova página é lida nem gravada.
+     */
+    @Override
+    public int enviarLembretesParaProximoDia(int particao, int particoes, BooleanSupplier leaseValido) {
         LocalDate amanha = LocalDate.now().plusDays(1);
         LocalDateTime inicioAmanha = amanha.atStartOfDay();
         LocalDateTime fimAmanha = amanha.atTime(LocalTime.MAX);
-        log.info("JOB SCHEDULER: Buscando consultas AGENDADAS para o dia {}.", amanha);
-
-        List<Consulta> consultasAmanha = consultaRepository.findAllByStatusAndDataConsultaBetween(
-                StatusConsulta.AGENDADA,
-                inicioAmanha,
-                fimAmanha
-        );
+        log.info("JOB SCHEDULER: Buscando consultas AGENDADAS sem lembrete para o dia {} (partição {}/{}).",
+                amanha, particao, particoes);
+
+        Semaphore paginasEmAndamento = new Semaphore(paralelismoLembrete);
+        List<CompletableFuture<Integer>> paginas = new ArrayList<>();
+        LocalDateTime cursorData = inicioAmanha;
+        UUID cursorId = MENOR_UUID;
+        List<Consulta> pagina;
+
+        do {
+            if (!leaseValido.getAsBoolean()) {
+                log.warn("JOB INTERROMPIDO: Lease perdido durante o envio de lembretes ({} páginas iniciadas).", paginas.size());
+                break;
+            }
+            pagina = consultaRepository.findPaginaParaLembrete(fimAmanha, cursorData, cursorId,
+                    particoes, particao, tamanhoPaginaLembrete);
+            if (pagina.isEmpty()) {
+                break;
+            }
+            Consulta ultima = pagina.get(pagina.size() - 1);
+            cursorData = ultima.getDataConsulta();
+            cursorId = ultima.getId();
 
-        consultasAmanha.forEach(consulta -> {
             try {
-                PacienteDetails pacienteDetails = authClientService.buscarPacientePorId(consulta.getPacienteId());
-                publishConsultaEvent(consulta, pacienteDetails, "LEMBRETE");
-            } catch (Exception e) {
-                log.error("ERRO JOB: Falha ao buscar detalhes do paciente {} para lembrete: {}", consulta.getPacienteId(), e.getMessage());
+                paginasEmAndamento.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("JOB SCHEDULER: Envio de lembretes interrompido.");
+                break;
             }
-        });
-
-        log.info("JOB CONCLUÍDO: {} lembretes publicados para amanhã.", consultasAmanha.size());
-        return consultasAmanha.size();
+            List<Consulta> paginaAtual = pagina;
+            paginas.add(CompletableFuture.supplyAsync(() -> publicarLembretesDaPagina(paginaAtual, leaseValido), taskExecutor)
+                    .whenComplete((publicados, erro) -> paginasEmAndamento.release()));
+        } while (pagina.size() == tamanhoPaginaLembrete);
+
+        int publicados = paginas.stream().mapToInt(CompletableFuture::join).sum();
+        log.info("JOB CONCLUÍDO: {} lembretes publicados para amanhã ({} páginas).", publicados, paginas.size());
+        return publicados;
     }
 
-    private MedicoProjectionResponse mapToMedicoResponse(MedicoProjection medico) {
-        return new MedicoProjectionResponse(
-                medico.getId(),
-                medico.getNome(),
-                medico.getEspecialidade(),
-                medico.getNumeroRegistro()
-        );
+    /**
+     * Resolve os pacientes da página com um único RPC (POST /usuarios/batch), grava os lembretes na outbox
+     * e marca as consultas como lembradas. Uma falha descarta apenas a página corrente,
+     * que volta a ser processada na próxima execução.
+     */
+    private int publicarLembretesDaPagina(List<Consulta> pagina, BooleanSupplier leaseValido) {
+        try {
+            List<UUID> pacienteIds = pagina.stream().map(Consulta::getPacienteId).distinct().toList();
+            Map<UUID, PacienteDetails> pacientes = authClientService.buscarPacientesPorIds(pacienteIds);
+
+            List<Consulta> lembradas = new ArrayList<>(pagina.size());
+            for (Consulta consulta : pagina) {
+                if (pacientes.containsKey(consulta.getPacienteId())) {
+                    lembradas.add(consulta);
+                } else {
+                    log.error("ERRO JOB: Paciente {} não encontrado no ms-autenticacao para lembrete.", consulta.getPacienteId());
+                }
+            }
+
+            // O RPC pode ter demorado: sem lease, a página fica para a réplica que o assumiu
+            if (!leaseValido.getAsBoolean()) {
+                log.warn("JOB INTERROMPIDO: Lease perdido; página com {} consultas descartada.", pagina.size());
+                return 0;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                lembradas.forEach(consulta -> publishConsultaEvent(consulta, pacientes.get(consulta.getPacienteId()), "LEMBRETE"));
+                consultaRepository.marcarLembreteEnviado(lembradas.stream().map(Consulta::getId).toList(), LocalDateTime.now());
+            });
+            return lembradas.size();
+        } catch (Exception e) {
+            log.error("ERRO JOB: Falha ao publicar lembretes de uma página com {} consultas: {}", pagina.size(), e.getMessage());
+            return 0;
+        }
     }
 
     private PacienteDetails buscarValidarPaciente(ConsultaRequest request) {
@@ -231,27 +640,118 @@ public class ConsultaServiceImpl implements ConsultaService {
         return pacienteDetails;
     }
 
+    private CompletableFuture<PacienteDetails> buscarValidarPacienteAsync(ConsultaRequest request) {
+        return CompletableFuture.supplyAsync(() -> buscarValidarPaciente(request), taskExecutor);
+    }
+
+    /**
+     * Validações locais executadas enquanto o RPC do paciente está em andamento:
+     * existência do médico e uma pré-checagem (sem lock) do horário, para rejeitar cedo conflitos óbvios.
+     * Em caso de falha, o futuro é cancelado e o resultado descartado. O RPC em andamento não é interrompido
+     * (CompletableFuture.cancel não interrompe a thread): ele termina em segundo plano e alimenta o cache de pacientes.
+     */
+    private MedicoProjection validarLocalmente(ConsultaRequest request, UUID ignorarConsultaId, CompletableFuture<PacienteDetails> pacienteFuturo) {
+        try {
+            MedicoProjection medico = validarMedicoExistente(request.medicoId());
+            preValidarDisponibilidade(request.medicoId(), request.dataConsulta(), ignorarConsultaId);
+            return medico;
+        } catch (RuntimeException e) {
+            pacienteFuturo.cancel(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Aguarda o resultado do RPC paralelo, repassando a exceção original
+     * (ex: RecursoNaoEncontradoException) para o GlobalExceptionHandler.
+     */
+    private <T> T aguardar(CompletableFuture<T> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
     private MedicoProjection validarMedicoExistente(UUID medicoId) {
         log.debug("Validando existência do Médico ID: {}", medicoId);
         return medicoProjectionRepository.findById(medicoId)
                 .orElseThrow(() -> new RecursoNaoEncontradoException("Médico com ID " + medicoId + " não encontrado para agendamento."));
     }
 
-    private void validarDisponibilidade(UUID medicoId, LocalDateTime dataConsulta) {
+    /**
+     * Verifica conflito de horário no índice em memória (AgendaMedicoIndex).
+     * Deve ser chamado sob o lock da agenda do médico e dentro da transação.
+     * Enquanto o índice não estiver aquecido, ou quando o lock distribuído estiver habilitado, a disponibilidade
+     * é verificada apenas no banco: cancelamentos e edições de outras réplicas não chegam ao índice local,
+     * que poderia acusar para sempre um horário já liberado.
+     */
+    private void validarDisponibilidade(UUID medicoId, LocalDateTime dataConsulta, UUID ignorarConsultaId) {
         LocalDateTime fimConsulta = dataConsulta.plusMinutes(DURACAO_PADRAO_MINUTOS);
         log.debug("Validando slot para Médico ID {} entre {} e {}.", medicoId, dataConsulta, fimConsulta);
 
-        if (consultaRepository.existsByMedicoIdAndDataConsultaBetween(medicoId, dataConsulta, fimConsulta)) {
+        boolean conflito;
+        if (usarIndiceLocal()) {
+            conflito = agendaMedicoIndex.possuiConflito(medicoId, dataConsulta, fimConsulta, ignorarConsultaId);
+        } else {
+            agendaLockManager.bloquearNoBanco(medicoId);
+            conflito = consultaRepository.existsConflitoDeHorario(medicoId, dataConsulta, fimConsulta, ignorarConsultaId);
+        }
+
+        if (conflito) {
             log.warn("FALHA DISPONIBILIDADE: Conflito de horário encontrado para o Médico ID {}.", medicoId);
             throw new RegraDeNegocioException("O médico já possui uma consulta marcada para este horário.");
         }
     }
 
+    /**
+     * O índice local só é a fonte da verdade com uma única réplica (sem lock distribuído) e depois de aquecido.
+     */
+    private boolean usarIndiceLocal() {
+        return agendaMedicoIndex.isPronto() && !agendaLockManager.isDistribuido();
+    }
+
+    /**
+     * Converte a violação do índice único uk_consultas_medico_horario_agendada (árbitro final no banco,
+     * ex: réplica concorrente sem lock distribuído) na mesma regra de negócio da validação de disponibilidade.
+     */
+    private <T> T salvarComArbitragemDoBanco(Supplier<T> operacao) {
+        try {
+            return operacao.get();
+        } catch (DataIntegrityViolationException e) {
+            if (e.getMessage() != null && e.getMessage().contains(UK_HORARIO_AGENDADO)) {
+                log.warn("FALHA DISPONIBILIDADE: Conflito de horário detectado pelo banco ({}).", UK_HORARIO_AGENDADO);
+                throw new RegraDeNegocioException("O médico já possui uma consulta marcada para este horário.");
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Checagem otimista de disponibilidade, fora do lock e da transação.
+     * Não substitui validarDisponibilidade: apenas evita o lock e o insert quando o conflito já é conhecido.
+     */
+    private void preValidarDisponibilidade(UUID medicoId, LocalDateTime dataConsulta, UUID ignorarConsultaId) {
+        LocalDateTime fimConsulta = dataConsulta.plusMinutes(DURACAO_PADRAO_MINUTOS);
+
+        boolean conflito = usarIndiceLocal()
+                ? agendaMedicoIndex.possuiConflito(medicoId, dataConsulta, fimConsulta, ignorarConsultaId)
+                : consultaRepository.existsConflitoDeHorario(medicoId, dataConsulta, fimConsulta, ignorarConsultaId);
+
+        if (conflito) {
+            log.warn("FALHA DISPONIBILIDADE: Conflito de horário encontrado para o Médico ID {} (pré-validação).", medicoId);
+            throw new RegraDeNegocioException("O médico já possui uma consulta marcada para este horário.");
+        }
+    }
+
     private void publishConsultaEvent(Consulta consulta, PacienteDetails pacienteDetails, String tipoEvento) {
         String email = pacienteDetails != null ? pacienteDetails.email() : null;
         String telefone = pacienteDetails != null ? pacienteDetails.telefone() : null;
 
-        log.debug("Publicando evento {} para Consulta ID {}.", tipoEvento, consulta.getId());
+        log.debug("Registrando evento {} na outbox para Consulta ID {}.", tipoEvento, consulta.getId());
 
         ConsultaCriadaEvent event = new ConsultaCriadaEvent(
                 consulta.getId(),
@@ -266,7 +766,7 @@ public class ConsultaServiceImpl implements ConsultaService {
                 tipoEvento,
                 LocalDateTime.now()
         );
-        consultaProducer.sendConsultaEvent(event);
+        consultaOutbox.registrar(event);
     }
 
     private Consulta criarEntidadeConsulta(ConsultaRequest request, MedicoProjection medico, PacienteDetails pacienteDetails) {
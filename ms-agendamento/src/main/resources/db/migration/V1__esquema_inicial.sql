@@ -0,0 +1,44 @@
+-- ----------------------------------------------------
+-- Esquema inicial do ms-agendamento (equivalente ao gerado pelo antigo ddl-auto: update).
+-- Idempotente: bancos já criados pelo Hibernate são adotados sem perda de dados.
+-- ----------------------------------------------------
+
+create table if not exists medicos_projection (
+    id uuid not null primary key,
+    nome varchar(255) not null,
+    numero_registro varchar(255),
+    especialidade varchar(255),
+    role varchar(255)
+);
+
+create table if not exists consultas (
+    id uuid not null primary key,
+    paciente_id uuid not null,
+    medico_id uuid not null,
+    nome_paciente varchar(255),
+    nome_medico varchar(255),
+    data_consulta timestamp(6) not null,
+    status varchar(255) not null,
+    detalhes_da_consulta varchar(255),
+    created_at timestamp(6) not null,
+    updated_at timestamp(6)
+);
+
+alter table consultas add column if not exists lembrete_enviado_em timestamp(6);
+
+create table if not exists outbox_eventos (
+    id uuid not null primary key,
+    consulta_id uuid not null,
+    tipo_evento varchar(255) not null,
+    payload text not null,
+    created_at timestamp(6) not null
+);
+
+create table if not exists job_leases (
+    nome varchar(255) not null primary key,
+    dono varchar(255) not null,
+    expira_em timestamp(6) not null,
+    adquirido_em timestamp(6) not null,
+    ultima_execucao_em timestamp(6),
+    ultima_duracao_ms bigint
+);
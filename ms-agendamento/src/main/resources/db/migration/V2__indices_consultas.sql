@@ -0,0 +1,68 @@
+-- ----------------------------------------------------
+-- Índices para os padrões de acesso da tabela consultas (e tabelas auxiliares).
+-- Consultas canceladas/realizadas ficam fora dos índices parciais, que permanecem pequenos.
+-- ----------------------------------------------------
+
+-- Pré-requisito do índice único abaixo: bancos adotados do antigo ddl-auto podem ter mais de uma consulta
+-- AGENDADA para o mesmo médico e horário (corrida entre o check e o save). Mantém a mais antiga (created_at, id),
+-- cancela as demais e registra na outbox um evento CANCELAMENTO para cada uma, como no cancelamento pela API:
+-- o ms-historico recebe o novo status e o ms-notificacao registra o aviso ao paciente. O e-mail não fica
+-- na tabela consultas; esses eventos saem sem ele e constam no log de notificações como "FALHA - EMAIL AUSENTE".
+-- Para revisar antes de migrar, rode o select de duplicadas; depois:
+--   select * from consultas where detalhes_da_consulta like 'Cancelada na migração V2:%';
+with duplicadas as (
+    select id, mantida
+      from (select id,
+                   first_value(id) over horario as mantida,
+                   row_number() over horario as ordem
+              from consultas
+             where status = 'AGENDADA'
+            window horario as (partition by medico_id, data_consulta order by created_at, id)) d
+     where ordem > 1
+), canceladas as (
+    update consultas c
+       set status = 'CANCELADA',
+           updated_at = localtimestamp,
+           detalhes_da_consulta = 'Cancelada na migração V2: horário duplicado da consulta ' || d.mantida
+      from duplicadas d
+     where c.id = d.id
+    returning c.*
+)
+insert into outbox_eventos (id, consulta_id, tipo_evento, payload, created_at)
+select gen_random_uuid(), c.id, 'CANCELAMENTO',
+       json_build_object(
+           'consultaId', c.id,
+           'pacienteId', c.paciente_id,
+           'nomePaciente', c.nome_paciente,
+           'medicoId', c.medico_id,
+           'nomeMedico', c.nome_medico,
+           'dataConsulta', to_char(c.data_consulta, 'YYYY-MM-DD"T"HH24:MI:SS.US'),
+           'statusConsulta', c.status,
+           'tipoEvento', 'CANCELAMENTO',
+           'eventTimestamp', to_char(localtimestamp, 'YYYY-MM-DD"T"HH24:MI:SS.US'))::text,
+       localtimestamp
+  from canceladas c;
+
+-- Árbitro final de disponibilidade: no máximo uma consulta AGENDADA por médico e horário.
+-- Também atende existsConflitoDeHorario (medico_id = ? and data_consulta between ? and ?).
+create unique index if not exists uk_consultas_medico_horario_agendada
+    on consultas (medico_id, data_consulta)
+    where status = 'AGENDADA';
+
+-- Aquecimento do AgendaMedicoIndex (data_consulta >= ?) e job de REALIZADAS (data_consulta < ?).
+create index if not exists idx_consultas_data_agendada
+    on consultas (data_consulta)
+    where status = 'AGENDADA';
+
+-- Job de lembretes: keyset (data_consulta, id) apenas sobre consultas ainda não lembradas.
+create index if not exists idx_consultas_lembrete_pendente
+    on consultas (data_consulta, id)
+    where status = 'AGENDADA' and lembrete_enviado_em is null;
+
+-- Listagem de médicos por especialidade (findAllByEspecialidade).
+create index if not exists idx_medicos_projection_especialidade
+    on medicos_projection (especialidade);
+
+-- Relay da outbox: próximo lote em ordem de gravação.
+create index if not exists idx_outbox_eventos_criacao
+    on outbox_eventos (created_at, id);
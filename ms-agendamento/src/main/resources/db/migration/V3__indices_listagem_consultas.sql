@@ -0,0 +1,10 @@
+-- ----------------------------------------------------
+-- Índices para a listagem paginada (keyset em data_consulta, id) por médico e por paciente.
+-- Cobrem consultas de qualquer status (histórico completo).
+-- ----------------------------------------------------
+
+create index if not exists idx_consultas_medico_data_id
+    on consultas (medico_id, data_consulta, id);
+
+create index if not exists idx_consultas_paciente_data_id
+    on consultas (paciente_id, data_consulta, id);
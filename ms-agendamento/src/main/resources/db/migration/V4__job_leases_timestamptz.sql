@@ -0,0 +1,10 @@
+-- ----------------------------------------------------
+-- Instantes do lease em timestamptz: expira_em é comparado com now() por réplicas diferentes,
+-- e um timestamp sem fuso depende do TimeZone da sessão que gravou e da que compara.
+-- Os valores existentes foram gravados com now() no fuso da sessão, que é o usado na conversão.
+-- ----------------------------------------------------
+
+alter table job_leases
+    alter column expira_em type timestamptz(6),
+    alter column adquirido_em type timestamptz(6),
+    alter column ultima_execucao_em type timestamptz(6);
@@ -0,0 +1,91 @@
+package com.postechfiap.meuhospital.agendamento.agenda;
+
+import com.postechfiap.meuhospital.agendamento.dto.SlotAgendado;
+import com.postechfiap.meuhospital.agendamento.entity.StatusConsulta;
+import com.postechfiap.meuhospital.agendamento.repository.ConsultaRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AgendaMedicoIndexTest {
+
+    private static final UUID MEDICO_ID = UUID.randomUUID();
+    private static final LocalDateTime HORARIO = LocalDateTime.now().plusDays(1).withNano(0);
+
+    private final ConsultaRepository consultaRepository = mock(ConsultaRepository.class);
+    private final AgendaMedicoIndex index = new AgendaMedicoIndex(consultaRepository);
+
+    @Test
+    void cancelamentoDuranteAquecimentoNaoVoltaComoConflito() {
+        UUID consultaId = UUID.randomUUID();
+        // O snapshot foi lido antes do commit do cancelamento, que libera o horário enquanto a carga ainda não terminou
+        when(consultaRepository.findSlotsAgendadosAPartirDe(eq(StatusConsulta.AGENDADA), any())).thenAnswer(invocacao -> {
+            executarEmOutraThread(() -> index.liberar(MEDICO_ID, HORARIO, consultaId));
+            return List.of(new SlotAgendado(consultaId, MEDICO_ID, HORARIO));
+        });
+
+        index.aquecer();
+
+        assertThat(index.isPronto()).isTrue();
+        assertThat(index.possuiConflito(MEDICO_ID, HORARIO, HORARIO.plusMinutes(30), null)).isFalse();
+    }
+
+    @Test
+    void reservaDuranteAquecimentoEhMantida() {
+        UUID carregada = UUID.randomUUID();
+        UUID nova = UUID.randomUUID();
+        LocalDateTime outroHorario = HORARIO.plusHours(2);
+        when(consultaRepository.findSlotsAgendadosAPartirDe(eq(StatusConsulta.AGENDADA), any())).thenAnswer(invocacao -> {
+            executarEmOutraThread(() -> index.reservar(MEDICO_ID, outroHorario, nova));
+            return List.of(new SlotAgendado(carregada, MEDICO_ID, HORARIO));
+        });
+
+        index.aquecer();
+
+        assertThat(index.horariosOcupados(MEDICO_ID, HORARIO.minusHours(1), HORARIO.plusHours(3)))
+                .containsExactly(HORARIO, outroHorario);
+    }
+
+    @Test
+    void horarioLiberadoEReservadoDeNovoDuranteAquecimentoPermaneceOcupado() {
+        UUID consultaId = UUID.randomUUID();
+        // Edição que volta ao mesmo horário: liberar + reservar da mesma consulta durante a carga
+        when(consultaRepository.findSlotsAgendadosAPartirDe(eq(StatusConsulta.AGENDADA), any())).thenAnswer(invocacao -> {
+            executarEmOutraThread(() -> {
+                index.liberar(MEDICO_ID, HORARIO, consultaId);
+                index.reservar(MEDICO_ID, HORARIO, consultaId);
+            });
+            return List.of(new SlotAgendado(consultaId, MEDICO_ID, HORARIO));
+        });
+
+        index.aquecer();
+
+        assertThat(index.possuiConflito(MEDICO_ID, HORARIO, HORARIO.plusMinutes(30), null)).isTrue();
+    }
+
+    @Test
+    void liberacaoAposAquecimentoRemoveHorario() {
+        UUID consultaId = UUID.randomUUID();
+        when(consultaRepository.findSlotsAgendadosAPartirDe(eq(StatusConsulta.AGENDADA), any()))
+                .thenReturn(List.of(new SlotAgendado(consultaId, MEDICO_ID, HORARIO)));
+
+        index.aquecer();
+        index.liberar(MEDICO_ID, HORARIO, consultaId);
+
+        assertThat(index.possuiConflito(MEDICO_ID, HORARIO, HORARIO.plusMinutes(30), null)).isFalse();
+    }
+
+    private static void executarEmOutraThread(Runnable acao) throws InterruptedException {
+        Thread thread = new Thread(acao);
+        thread.start();
+        thread.join();
+    }
+}
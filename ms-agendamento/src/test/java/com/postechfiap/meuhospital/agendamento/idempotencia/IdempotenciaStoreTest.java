@@ -0,0 +1,40 @@
+package com.postechfiap.meuhospital.agendamento.idempotencia;
+
+import com.postechfiap.meuhospital.agendamento.exception.RegraDeNegocioException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotenciaStoreTest {
+
+    private final IdempotenciaStore store = new IdempotenciaStore(100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+
+    @Test
+    void repeticaoComMesmoCorpoReaproveitaResposta() {
+        AtomicInteger execucoes = new AtomicInteger();
+
+        IdempotenciaStore.Resultado<Integer> primeira = store.executar("chave-1", "POST /consultas", "corpo", execucoes::incrementAndGet);
+        IdempotenciaStore.Resultado<Integer> repeticao = store.executar("chave-1", "POST /consultas", "corpo", execucoes::incrementAndGet);
+
+        assertThat(primeira.reaproveitada()).isFalse();
+        assertThat(repeticao.reaproveitada()).isTrue();
+        assertThat(repeticao.resposta()).isEqualTo(1);
+        assertThat(execucoes).hasValue(1);
+    }
+
+    @Test
+    void corpoDiferenteComMesmoHashCodeEhRejeitado() {
+        // "Aa" e "BB" têm o mesmo hashCode
+        assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+        store.executar("chave-2", "POST /consultas", "Aa", () -> 1);
+
+        assertThatThrownBy(() -> store.executar("chave-2", "POST /consultas", "BB", () -> 2))
+                .isInstanceOf(RegraDeNegocioException.class)
+                .hasMessageContaining("requisição diferente");
+    }
+}
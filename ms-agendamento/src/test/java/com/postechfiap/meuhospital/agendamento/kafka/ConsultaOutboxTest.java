@@ -0,0 +1,62 @@
+package com.postechfiap.meuhospital.agendamento.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.postechfiap.meuhospital.agendamento.agenda.LocksConsultivos;
+import com.postechfiap.meuhospital.agendamento.entity.OutboxEvento;
+import com.postechfiap.meuhospital.agendamento.repository.OutboxEventoRepository;
+import com.postechfiap.meuhospital.contracts.events.ConsultaCriadaEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ConsultaOutboxTest {
+
+    private final OutboxEventoRepository outboxEventoRepository = mock(OutboxEventoRepository.class);
+    private final ConsultaProducer consultaProducer = mock(ConsultaProducer.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final ConsultaOutbox outbox = new ConsultaOutbox(outboxEventoRepository, consultaProducer, objectMapper,
+            jdbcTemplate, 100, 1000);
+
+    @Test
+    void naoDrenaEnquantoOutraReplicaSeguraOLockDoRelay() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq(LocksConsultivos.RELAY_OUTBOX), eq(0))).thenReturn(false);
+
+        assertThat(outbox.publicarPendentes()).isZero();
+        verify(outboxEventoRepository, never()).findProximoLoteParaPublicacao(anyInt());
+        verifyNoInteractions(consultaProducer);
+    }
+
+    @Test
+    void publicaERemoveOLoteQuandoObtemOLockDoRelay() throws Exception {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq(LocksConsultivos.RELAY_OUTBOX), eq(0))).thenReturn(true);
+        ConsultaCriadaEvent event = new ConsultaCriadaEvent(UUID.randomUUID(), UUID.randomUUID(), "Maria Souza",
+                "maria@meuhospital.com", null, UUID.randomUUID(), "Dr. João Pereira",
+                LocalDateTime.now().plusDays(1), "AGENDADA", "CRIACAO", LocalDateTime.now());
+        OutboxEvento outboxEvento = new OutboxEvento();
+        outboxEvento.setConsultaId(event.consultaId());
+        outboxEvento.setTipoEvento(event.tipoEvento());
+        outboxEvento.setPayload(objectMapper.writeValueAsString(event));
+        when(outboxEventoRepository.findProximoLoteParaPublicacao(100)).thenReturn(List.of(outboxEvento));
+        when(consultaProducer.sendConsultaEvent(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertThat(outbox.publicarPendentes()).isEqualTo(1);
+        verify(consultaProducer).sendConsultaEvent(event);
+        verify(outboxEventoRepository).deleteAllInBatch(List.of(outboxEvento));
+    }
+}
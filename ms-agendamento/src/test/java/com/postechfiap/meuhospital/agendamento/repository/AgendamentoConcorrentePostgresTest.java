@@ -0,0 +1,201 @@
+package com.postechfiap.meuhospital.agendamento.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.postechfiap.meuhospital.agendamento.agenda.AgendaLockManager;
+import com.postechfiap.meuhospital.agendamento.agenda.AgendaMedicoIndex;
+import com.postechfiap.meuhospital.agendamento.client.AuthClientService;
+import com.postechfiap.meuhospital.agendamento.diretorio.DiretorioMedicos;
+import com.postechfiap.meuhospital.agendamento.dto.PacienteDetails;
+import com.postechfiap.meuhospital.agendamento.entity.MedicoProjection;
+import com.postechfiap.meuhospital.agendamento.exception.RegraDeNegocioException;
+import com.postechfiap.meuhospital.agendamento.kafka.ConsultaOutbox;
+import com.postechfiap.meuhospital.agendamento.kafka.ConsultaProducer;
+import com.postechfiap.meuhospital.agendamento.service.impl.ConsultaServiceImpl;
+import com.postechfiap.meuhospital.contracts.agendamento.ConsultaRequest;
+import com.postechfiap.meuhospital.contracts.core.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Agendamentos concorrentes em um PostgreSQL real (Testcontainers), com duas réplicas do ConsultaServiceImpl
+ * compartilhando o banco, cada uma com o próprio AgendaMedicoIndex e AgendaLockManager.
+ * Os mesmos horários são disputados por milhares de requisições, e as linhas AGENDADA são contadas no banco.
+ * Ignorado quando não há Docker disponível.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AgendamentoConcorrentePostgresTest {
+
+    private static final int REQUISICOES_CONCORRENTES = 1000;
+    private static final int MEDICOS = 4;
+    private static final int HORARIOS = 5;
+    private static final LocalDateTime PRIMEIRO_HORARIO = LocalDateTime.now().plusDays(7)
+            .withHour(9).withMinute(0).withSecond(0).withNano(0);
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void banco(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> 20);
+    }
+
+    @Autowired
+    private ConsultaRepository consultaRepository;
+    @Autowired
+    private MedicoProjectionRepository medicoProjectionRepository;
+    @Autowired
+    private OutboxEventoRepository outboxEventoRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AuthClientService authClientService = mock(AuthClientService.class);
+    private final List<UUID> medicoIds = new ArrayList<>();
+    private ExecutorService rpcExecutor;
+    private ExecutorService clientes;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("truncate table consultas, outbox_eventos, medicos_projection");
+        for (int i = 0; i < MEDICOS; i++) {
+            MedicoProjection medico = new MedicoProjection();
+            medico.setId(UUID.randomUUID());
+            medico.setNome("Médico " + i);
+            medico.setRole(Role.MEDICO);
+            medicoIds.add(medicoProjectionRepository.save(medico).getId());
+        }
+        when(authClientService.buscarPacientePorId(any())).thenAnswer(invocacao -> new PacienteDetails(
+                invocacao.getArgument(0), "Maria Souza", null, "maria@meuhospital.com", null, Role.PACIENTE, null, null, null));
+
+        rpcExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        clientes = Executors.newFixedThreadPool(REQUISICOES_CONCORRENTES);
+    }
+
+    @AfterEach
+    void tearDown() {
+        clientes.shutdownNow();
+        rpcExecutor.shutdownNow();
+    }
+
+    @Test
+    void lockDistribuidoNaoReservaOMesmoHorarioDuasVezesEntreReplicas() throws Exception {
+        List<ConsultaServiceImpl> replicas = List.of(replica(true), replica(true));
+
+        int aceitos = disputar(replicas);
+
+        assertThat(aceitos).isEqualTo(MEDICOS * HORARIOS);
+        assertSemHorarioDuplicado();
+    }
+
+    @Test
+    void indiceUnicoArbitraReplicasSemLockDistribuido() throws Exception {
+        // Cada réplica só enxerga no índice local as próprias reservas: as corridas entre elas
+        // chegam ao insert e são decididas por uk_consultas_medico_horario_agendada
+        List<ConsultaServiceImpl> replicas = List.of(replica(false), replica(false));
+
+        int aceitos = disputar(replicas);
+
+        assertThat(aceitos).isEqualTo(MEDICOS * HORARIOS);
+        assertSemHorarioDuplicado();
+    }
+
+    /**
+     * Dispara as requisições ao mesmo tempo, alternando as réplicas a cada rodada pelos pares (médico, horário).
+     * Qualquer falha que não seja a rejeição do horário faz o teste falhar.
+     * @return Quantidade de consultas criadas.
+     */
+    private int disputar(List<ConsultaServiceImpl> replicas) throws Exception {
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Boolean>> resultados = new ArrayList<>(REQUISICOES_CONCORRENTES);
+        for (int i = 0; i < REQUISICOES_CONCORRENTES; i++) {
+            ConsultaServiceImpl replica = replicas.get((i / (MEDICOS * HORARIOS)) % replicas.size());
+            ConsultaRequest request = new ConsultaRequest(UUID.randomUUID(), medicoIds.get(i % MEDICOS),
+                    PRIMEIRO_HORARIO.plusHours((i / MEDICOS) % HORARIOS), "Rotina");
+            resultados.add(clientes.submit(() -> {
+                largada.await();
+                try {
+                    replica.criarConsulta(request);
+                    return true;
+                } catch (RegraDeNegocioException e) {
+                    return false;
+                }
+            }));
+        }
+        largada.countDown();
+
+        int aceitos = 0;
+        for (Future<Boolean> resultado : resultados) {
+            if (resultado.get(2, TimeUnit.MINUTES)) {
+                aceitos++;
+            }
+        }
+        return aceitos;
+    }
+
+    private void assertSemHorarioDuplicado() {
+        Integer agendadas = jdbcTemplate.queryForObject(
+                "select count(*) from consultas where status = 'AGENDADA'", Integer.class);
+        Integer maximoPorHorario = jdbcTemplate.queryForObject("""
+                select coalesce(max(quantidade), 0) from (
+                    select count(*) as quantidade from consultas
+                    where status = 'AGENDADA' group by medico_id, data_consulta) horarios
+                """, Integer.class);
+        Integer eventos = jdbcTemplate.queryForObject(
+                "select count(*) from outbox_eventos where tipo_evento = 'CRIACAO'", Integer.class);
+
+        assertThat(agendadas).isEqualTo(MEDICOS * HORARIOS);
+        assertThat(maximoPorHorario).isEqualTo(1);
+        assertThat(eventos).isEqualTo(MEDICOS * HORARIOS);
+    }
+
+    /**
+     * Uma instância do serviço como em uma réplica separada: índice e locks locais próprios, mesmo banco.
+     */
+    private ConsultaServiceImpl replica(boolean lockDistribuido) {
+        AgendaMedicoIndex index = new AgendaMedicoIndex(consultaRepository);
+        index.aquecer();
+        ConsultaOutbox outbox = new ConsultaOutbox(outboxEventoRepository, mock(ConsultaProducer.class),
+                new ObjectMapper().findAndRegisterModules(), jdbcTemplate, 100, 1000);
+        return new ConsultaServiceImpl(consultaRepository, medicoProjectionRepository, authClientService, outbox,
+                index, new AgendaLockManager(64, 60000, lockDistribuido, jdbcTemplate), new TransactionTemplate(transactionManager),
+                mock(DiretorioMedicos.class), new TaskExecutorAdapter(rpcExecutor),
+                200, 4, 5000, 50, 200, "08:00", "18:00");
+    }
+}
@@ -0,0 +1,289 @@
+package com.postechfiap.meuhospital.agendamento.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.postechfiap.meuhospital.contracts.events.ConsultaCriadaEvent;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.Query;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Aplica as migrações do Flyway em um PostgreSQL real (Testcontainers) e confere, via EXPLAIN,
+ * que cada consulta dos repositórios usa o índice criado para ela.
+ * O SQL das consultas nativas é lido das anotações @Query, para acompanhar mudanças nas consultas;
+ * para as consultas JPQL e derivadas, o teste usa o SQL equivalente ao gerado pelo Hibernate.
+ * Ignorado quando não há Docker disponível.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class MigracoesPostgresTest {
+
+    private static final Pattern PARAMETRO = Pattern.compile("(?<!:):(\\w+)");
+    private static final UUID MEDICO_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID PACIENTE_ID = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final LocalDateTime HORARIO_DUPLICADO = LocalDateTime.of(2030, 1, 10, 9, 0);
+    private static final LocalDateTime LEMBRETE_INICIO = LocalDateTime.of(2024, 3, 1, 0, 0);
+    private static final UUID CONSULTA_MANTIDA = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID CONSULTA_DUPLICADA = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @BeforeAll
+    static void migrar() throws SQLException {
+        // Banco "legado": só o esquema da V1, com duas consultas AGENDADAS no mesmo médico e horário
+        flyway("1").migrate();
+        try (Connection conexao = conectar(); Statement stmt = conexao.createStatement()) {
+            stmt.execute("""
+                    insert into consultas (id, paciente_id, medico_id, nome_paciente, nome_medico, data_consulta, status, created_at)
+                    values ('%3$s', gen_random_uuid(), '%1$s', 'Primeira', 'Dr', '%2$s', 'AGENDADA', '2029-01-01'),
+                           ('%4$s', gen_random_uuid(), '%1$s', 'Segunda', 'Dr', '%2$s', 'AGENDADA', '2029-01-02')
+                    """.formatted(MEDICO_ID, Timestamp.valueOf(HORARIO_DUPLICADO), CONSULTA_MANTIDA, CONSULTA_DUPLICADA));
+        }
+
+        flyway(null).migrate();
+
+        try (Connection conexao = conectar(); Statement stmt = conexao.createStatement()) {
+            // Uma consulta por minuto a partir de 2024-01-01: realizadas até o "hoje" do teste (LEMBRETE_INICIO),
+            // agendadas depois dele; no dia seguinte, só uma em cada 20 ainda aguarda lembrete (job já executado)
+            stmt.execute("""
+                    insert into consultas (id, paciente_id, medico_id, nome_paciente, nome_medico, data_consulta, status,
+                                           lembrete_enviado_em, created_at)
+                    select gen_random_uuid(),
+                           case when i %% 500 = 0 then '%1$s'::uuid else gen_random_uuid() end,
+                           case when i %% 500 = 1 then '%2$s'::uuid else gen_random_uuid() end,
+                           'Paciente ' || i, 'Médico', data,
+                           case when data < '%3$s' then 'REALIZADA' else 'AGENDADA' end,
+                           case when data < '%4$s' and i %% 20 <> 0 then now() end,
+                           now()
+                    from generate_series(1, 200000) as i,
+                         lateral (select timestamp '2024-01-01' + i * interval '1 minute' as data) as horario
+                    """.formatted(PACIENTE_ID, MEDICO_ID, Timestamp.valueOf(LEMBRETE_INICIO),
+                    Timestamp.valueOf(LEMBRETE_INICIO.plusDays(1))));
+            // Outbox com o relay atrasado (broker fora do ar por algumas horas)
+            stmt.execute("""
+                    insert into outbox_eventos (id, consulta_id, tipo_evento, payload, created_at)
+                    select gen_random_uuid(), gen_random_uuid(), 'CRIACAO', '{}', timestamp '2024-01-01' + i * interval '100 milliseconds'
+                    from generate_series(1, 100000) as i
+                    """);
+            stmt.execute("analyze consultas");
+            stmt.execute("analyze outbox_eventos");
+        }
+    }
+
+    @Test
+    void migracaoCancelaDuplicadasAntesDoIndiceUnico() throws Exception {
+        try (Connection conexao = conectar();
+             PreparedStatement stmt = conexao.prepareStatement(
+                     "select nome_paciente, status from consultas where medico_id = ? and data_consulta = ? order by created_at")) {
+            stmt.setObject(1, MEDICO_ID);
+            stmt.setTimestamp(2, Timestamp.valueOf(HORARIO_DUPLICADO));
+            List<String> linhas = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    linhas.add(rs.getString(1) + ":" + rs.getString(2));
+                }
+            }
+            assertThat(linhas).containsExactly("Primeira:AGENDADA", "Segunda:CANCELADA");
+        }
+
+        // O cancelamento segue pela outbox, como um cancelamento feito pela API
+        try (Connection conexao = conectar();
+             PreparedStatement stmt = conexao.prepareStatement(
+                     "select consulta_id, tipo_evento, payload from outbox_eventos where tipo_evento = 'CANCELAMENTO'")) {
+            List<ConsultaCriadaEvent> eventos = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    assertThat(rs.getObject(1, UUID.class)).isEqualTo(CONSULTA_DUPLICADA);
+                    eventos.add(new ObjectMapper().findAndRegisterModules().readValue(rs.getString(3), ConsultaCriadaEvent.class));
+                }
+            }
+            assertThat(eventos).singleElement().satisfies(evento -> {
+                assertThat(evento.consultaId()).isEqualTo(CONSULTA_DUPLICADA);
+                assertThat(evento.medicoId()).isEqualTo(MEDICO_ID);
+                assertThat(evento.nomePaciente()).isEqualTo("Segunda");
+                assertThat(evento.dataConsulta()).isEqualTo(HORARIO_DUPLICADO);
+                assertThat(evento.statusConsulta()).isEqualTo("CANCELADA");
+                assertThat(evento.tipoEvento()).isEqualTo("CANCELAMENTO");
+            });
+        }
+    }
+
+    @Test
+    void instantesDoLeaseTemFuso() throws SQLException {
+        try (Connection conexao = conectar(); Statement stmt = conexao.createStatement();
+             ResultSet rs = stmt.executeQuery("""
+                     select data_type from information_schema.columns
+                     where table_name = 'job_leases' and column_name in ('expira_em', 'adquirido_em', 'ultima_execucao_em')
+                     """)) {
+            List<String> tipos = new ArrayList<>();
+            while (rs.next()) {
+                tipos.add(rs.getString(1));
+            }
+            assertThat(tipos).hasSize(3).containsOnly("timestamp with time zone");
+        }
+    }
+
+    @Test
+    void conflitoDeHorarioUsaIndiceUnicoDeAgendadas() throws Exception {
+        String plano = explicarSql("""
+                select count(c.id) > 0 from consultas c
+                where c.medico_id = ? and c.status = 'AGENDADA' and c.data_consulta between ? and ?
+                  and (cast(? as uuid) is null or c.id <> ?)
+                """, MEDICO_ID, Timestamp.valueOf(LEMBRETE_INICIO.plusDays(10)),
+                Timestamp.valueOf(LEMBRETE_INICIO.plusDays(10).plusMinutes(29)), null, null);
+
+        assertThat(plano).contains("uk_consultas_medico_horario_agendada").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void aquecimentoDoIndiceDeAgendasUsaIndiceParcialDeAgendadas() throws Exception {
+        // "Hoje" perto do fim da massa: as consultas futuras são uma fração pequena do histórico
+        String plano = explicarSql("""
+                select c.id, c.medico_id, c.data_consulta from consultas c
+                where c.status = ? and c.data_consulta >= ?
+                """, "AGENDADA", Timestamp.valueOf(LocalDateTime.of(2024, 5, 17, 0, 0)));
+
+        assertThat(plano).contains("idx_consultas_data_agendada").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void slotsDosMedicosUsamIndiceUnicoDeAgendadas() throws Exception {
+        String plano = explicarSql("""
+                select c.id, c.medico_id, c.data_consulta from consultas c
+                where c.medico_id in (?, ?) and c.status = 'AGENDADA' and c.data_consulta between ? and ?
+                """, MEDICO_ID, UUID.randomUUID(), Timestamp.valueOf(LEMBRETE_INICIO.plusDays(10)),
+                Timestamp.valueOf(LEMBRETE_INICIO.plusDays(17)));
+
+        assertThat(plano).contains("uk_consultas_medico_horario_agendada").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void consultaDoPacienteUsaChavePrimaria() throws Exception {
+        String plano = explicarSql("""
+                select * from consultas c where c.id = ? and c.paciente_id = ?
+                """, CONSULTA_MANTIDA, PACIENTE_ID);
+
+        assertThat(plano).contains("consultas_pkey").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void blocoDeRealizadasUsaIndiceParcialDeAgendadas() throws Exception {
+        String plano = explicar(ConsultaRepository.class, "marcarBlocoComoRealizadas", Map.of(
+                "dataLimite", Timestamp.valueOf(LEMBRETE_INICIO.plusDays(1)),
+                "agora", Timestamp.valueOf(LEMBRETE_INICIO.plusDays(1)), "limite", 5000));
+
+        assertThat(plano).contains("idx_consultas_data_agendada").contains("consultas_pkey").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void loteDaOutboxUsaIndiceDeCriacao() throws Exception {
+        String plano = explicar(OutboxEventoRepository.class, "findProximoLoteParaPublicacao", Map.of("limite", 100));
+
+        assertThat(plano).contains("idx_outbox_eventos_criacao").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void paginaDoMedicoUsaIndiceKeyset() throws Exception {
+        String plano = explicar(ConsultaRepository.class, "findPaginaDoMedico", Map.of(
+                "medicoId", MEDICO_ID, "cursorData", Timestamp.valueOf(LocalDateTime.of(1900, 1, 1, 0, 0)),
+                "cursorId", new UUID(0L, 0L), "ate", Timestamp.valueOf(LocalDateTime.of(9999, 12, 31, 0, 0)), "limite", 50));
+
+        assertThat(plano).contains("idx_consultas_medico_data_id").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void paginaDoPacienteUsaIndiceKeyset() throws Exception {
+        String plano = explicar(ConsultaRepository.class, "findPaginaDoPaciente", Map.of(
+                "pacienteId", PACIENTE_ID, "cursorData", Timestamp.valueOf(LocalDateTime.of(1900, 1, 1, 0, 0)),
+                "cursorId", new UUID(0L, 0L), "ate", Timestamp.valueOf(LocalDateTime.of(9999, 12, 31, 0, 0)), "limite", 50));
+
+        assertThat(plano).contains("idx_consultas_paciente_data_id").doesNotContain("Seq Scan");
+    }
+
+    @Test
+    void paginaDeLembretesUsaIndiceParcialDeAgendadas() throws Exception {
+        String plano = explicar(ConsultaRepository.class, "findPaginaParaLembrete", Map.of(
+                "fim", Timestamp.valueOf(LEMBRETE_INICIO.plusDays(1)), "cursorData", Timestamp.valueOf(LEMBRETE_INICIO),
+                "cursorId", new UUID(0L, 0L), "particoes", 1, "particao", 0, "limite", 200));
+
+        // As estatísticas são da tabela inteira: o planejador não distingue os dois índices parciais de AGENDADA
+        // na janela do lembrete e pode escolher qualquer um deles; o que importa é não varrer a tabela
+        assertThat(plano).containsAnyOf("idx_consultas_lembrete_pendente", "idx_consultas_data_agendada")
+                .doesNotContain("Seq Scan");
+    }
+
+    /**
+     * EXPLAIN da consulta nativa do método do repositório, com os parâmetros nomeados informados.
+     */
+    private static String explicar(Class<?> repositorio, String metodo, Map<String, Object> parametros) throws SQLException {
+        Method alvo = Arrays.stream(repositorio.getMethods())
+                .filter(m -> m.getName().equals(metodo))
+                .findFirst().orElseThrow();
+        String sql = alvo.getAnnotation(Query.class).value();
+
+        List<String> ordem = new ArrayList<>();
+        Matcher matcher = PARAMETRO.matcher(sql);
+        StringBuilder jdbc = new StringBuilder();
+        while (matcher.find()) {
+            ordem.add(matcher.group(1));
+            matcher.appendReplacement(jdbc, "?");
+        }
+        matcher.appendTail(jdbc);
+
+        return explicarSql(jdbc.toString(), ordem.stream().map(parametros::get).toArray());
+    }
+
+    /**
+     * EXPLAIN do SQL informado, com os parâmetros posicionais na ordem dos '?'.
+     */
+    private static String explicarSql(String sql, Object... parametros) throws SQLException {
+        try (Connection conexao = conectar(); PreparedStatement stmt = conexao.prepareStatement("explain " + sql)) {
+            for (int i = 0; i < parametros.length; i++) {
+                stmt.setObject(i + 1, parametros[i]);
+            }
+            StringBuilder plano = new StringBuilder();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    plano.append(rs.getString(1)).append('\n');
+                }
+            }
+            return plano.toString();
+        }
+    }
+
+    private static Flyway flyway(String alvo) {
+        var configuracao = Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration");
+        if (alvo != null) {
+            configuracao.target(alvo);
+        }
+        return configuracao.load();
+    }
+
+    private static Connection conectar() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+}
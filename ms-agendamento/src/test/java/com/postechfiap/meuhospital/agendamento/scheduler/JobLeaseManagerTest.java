@@ -0,0 +1,91 @@
+package com.postechfiap.meuhospital.agendamento.scheduler;
+
+import com.postechfiap.meuhospital.agendamento.repository.JobLeaseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JobLeaseManagerTest {
+
+    private static final String JOB = "job-teste";
+
+    private final JobLeaseRepository jobLeaseRepository = mock(JobLeaseRepository.class);
+    private final JobLeaseManager jobLeaseManager = new JobLeaseManager(jobLeaseRepository, new SimpleMeterRegistry(),
+            Duration.ofSeconds(3), Duration.ZERO, "instancia-teste");
+
+    @AfterEach
+    void tearDown() {
+        jobLeaseManager.encerrar();
+    }
+
+    @Test
+    void leaseAssumidoPorOutraInstanciaInterrompeOJob() {
+        when(jobLeaseRepository.adquirir(eq(JOB), anyString(), anyLong())).thenReturn(1);
+        when(jobLeaseRepository.renovar(eq(JOB), anyString(), anyLong())).thenReturn(0);
+        AtomicInteger blocos = new AtomicInteger();
+
+        boolean executado = jobLeaseManager.executarComLease(JOB, lease -> {
+            // Job longo: cada bloco confere o lease antes de gravar
+            while (lease.isValido() && blocos.get() < 1_000) {
+                blocos.incrementAndGet();
+                dormir(20);
+            }
+        });
+
+        assertThat(executado).isTrue();
+        // Renovação recusada no primeiro ciclo (1 s): o job para bem antes dos 1000 blocos (20 s)
+        assertThat(blocos.get()).isBetween(1, 200);
+    }
+
+    @Test
+    void leaseSemRenovacaoExpiraLocalmente() {
+        when(jobLeaseRepository.adquirir(eq(JOB), anyString(), anyLong())).thenReturn(1);
+        when(jobLeaseRepository.renovar(eq(JOB), anyString(), anyLong())).thenThrow(new IllegalStateException("banco indisponível"));
+        AtomicBoolean validoNoInicio = new AtomicBoolean();
+        long inicio = System.nanoTime();
+
+        jobLeaseManager.executarComLease(JOB, lease -> {
+            validoNoInicio.set(lease.isValido());
+            while (lease.isValido()) {
+                dormir(50);
+            }
+        });
+
+        long decorridoMs = Duration.ofNanos(System.nanoTime() - inicio).toMillis();
+        assertThat(validoNoInicio).isTrue();
+        assertThat(decorridoMs).isBetween(2_500L, 6_000L);
+    }
+
+    @Test
+    void jobNaoExecutaSemLease() {
+        when(jobLeaseRepository.adquirir(eq(JOB), anyString(), anyLong())).thenReturn(0);
+
+        boolean executado = jobLeaseManager.executarComLease(JOB, lease -> {
+            throw new AssertionError("Não deveria executar");
+        });
+
+        assertThat(executado).isFalse();
+        verify(jobLeaseRepository, never()).liberar(anyString(), anyString(), anyLong(), anyLong());
+    }
+
+    private static void dormir(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.postechfiap.meuhospital.agendamento.service.impl;
+
+import com.postechfiap.meuhospital.agendamento.agenda.AgendaLockManager;
+import com.postechfiap.meuhospital.agendamento.agenda.AgendaMedicoIndex;
+import com.postechfiap.meuhospital.agendamento.client.AuthClientService;
+import com.postechfiap.meuhospital.agendamento.diretorio.DiretorioMedicos;
+import com.postechfiap.meuhospital.agendamento.dto.PacienteDetails;
+import com.postechfiap.meuhospital.agendamento.entity.Consulta;
+import com.postechfiap.meuhospital.agendamento.entity.MedicoProjection;
+import com.postechfiap.meuhospital.agendamento.entity.StatusConsulta;
+import com.postechfiap.meuhospital.agendamento.exception.RegraDeNegocioException;
+import com.postechfiap.meuhospital.agendamento.kafka.ConsultaOutbox;
+import com.postechfiap.meuhospital.agendamento.repository.ConsultaRepository;
+import com.postechfiap.meuhospital.agendamento.repository.MedicoProjectionRepository;
+import com.postechfiap.meuhospital.contracts.agendamento.ConsultaRequest;
+import com.postechfiap.meuhospital.contracts.core.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Corridas de agendamento para o mesmo médico e horário, passando pelo caminho completo de criarConsulta
+ * (pré-validação, lock da agenda, validação no índice e insert), com repositórios simulados.
+ */
+class ConsultaServiceImplConcorrenciaTest {
+
+    private static final int REQUISICOES_CONCORRENTES = 64;
+
+    private final UUID medicoId = UUID.randomUUID();
+    private final LocalDateTime horario = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+
+    private final ConsultaRepository consultaRepository = mock(ConsultaRepository.class);
+    private final MedicoProjectionRepository medicoProjectionRepository = mock(MedicoProjectionRepository.class);
+    private final AuthClientService authClientService = mock(AuthClientService.class);
+    private final ConsultaOutbox consultaOutbox = mock(ConsultaOutbox.class);
+
+    private ExecutorService rpcExecutor;
+    private ExecutorService clientes;
+    private ConsultaServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        MedicoProjection medico = new MedicoProjection();
+        medico.setId(medicoId);
+        medico.setNome("Dr. João Pereira");
+        when(medicoProjectionRepository.findById(medicoId)).thenReturn(Optional.of(medico));
+        when(authClientService.buscarPacientePorId(any())).thenAnswer(invocacao -> new PacienteDetails(
+                invocacao.getArgument(0), "Maria Souza", null, "maria@meuhospital.com", null, Role.PACIENTE, null, null, null));
+        when(consultaRepository.save(any(Consulta.class))).thenAnswer(invocacao -> {
+            Consulta consulta = invocacao.getArgument(0);
+            if (consulta.getId() == null) {
+                consulta.setId(UUID.randomUUID());
+            }
+            return consulta;
+        });
+
+        AgendaMedicoIndex index = new AgendaMedicoIndex(consultaRepository);
+        when(consultaRepository.findSlotsAgendadosAPartirDe(eq(StatusConsulta.AGENDADA), any())).thenReturn(List.of());
+        index.aquecer();
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        rpcExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        clientes = Executors.newFixedThreadPool(REQUISICOES_CONCORRENTES);
+        service = new ConsultaServiceImpl(consultaRepository, medicoProjectionRepository, authClientService, consultaOutbox,
+                index, new AgendaLockManager(64, 5000, false, null), new TransactionTemplate(transactionManager),
+                mock(DiretorioMedicos.class), new TaskExecutorAdapter(rpcExecutor),
+                200, 4, 5000, 50, 200, "08:00", "18:00");
+    }
+
+    @AfterEach
+    void tearDown() {
+        clientes.shutdownNow();
+        rpcExecutor.shutdownNow();
+    }
+
+    @Test
+    void apenasUmAgendamentoConcorrenteParaOMesmoHorarioEhAceito() throws Exception {
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Boolean>> resultados = new ArrayList<>();
+        for (int i = 0; i < REQUISICOES_CONCORRENTES; i++) {
+            ConsultaRequest request = new ConsultaRequest(UUID.randomUUID(), medicoId, horario, "Rotina");
+            resultados.add(clientes.submit(() -> {
+                largada.await();
+                try {
+                    service.criarConsulta(request);
+                    return true;
+                } catch (RegraDeNegocioException e) {
+                    return false;
+                }
+            }));
+        }
+        largada.countDown();
+
+        int aceitos = 0;
+        for (Future<Boolean> resultado : resultados) {
+            if (resultado.get(30, TimeUnit.SECONDS)) {
+                aceitos++;
+            }
+        }
+
+        assertThat(aceitos).isEqualTo(1);
+        verify(consultaRepository, times(1)).save(any(Consulta.class));
+        verify(consultaOutbox, times(1)).registrar(any());
+    }
+
+    @Test
+    void edicaoNaoPermiteTrocarOMedico() {
+        UUID outroMedicoId = UUID.randomUUID();
+        MedicoProjection outroMedico = new MedicoProjection();
+        outroMedico.setId(outroMedicoId);
+        outroMedico.setNome("Dra. Ana Lima");
+        when(medicoProjectionRepository.findById(outroMedicoId)).thenReturn(Optional.of(outroMedico));
+
+        Consulta existente = new Consulta();
+        existente.setId(UUID.randomUUID());
+        existente.setPacienteId(UUID.randomUUID());
+        existente.setMedicoId(medicoId);
+        existente.setDataConsulta(horario);
+        when(consultaRepository.findById(existente.getId())).thenReturn(Optional.of(existente));
+
+        ConsultaRequest request = new ConsultaRequest(existente.getPacienteId(), outroMedicoId, horario.plusHours(1), "Rotina");
+
+        assertThatThrownBy(() -> service.editarConsulta(existente.getId(), request))
+                .isInstanceOf(RegraDeNegocioException.class)
+                .hasMessageContaining("médico da consulta não pode ser alterado");
+        verify(consultaRepository, never()).save(any(Consulta.class));
+    }
+}
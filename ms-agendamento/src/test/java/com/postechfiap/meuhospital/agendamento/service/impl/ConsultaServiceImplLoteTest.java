@@ -0,0 +1,136 @@
+package com.postechfiap.meuhospital.agendamento.service.impl;
+
+import com.postechfiap.meuhospital.agendamento.agenda.AgendaLockManager;
+import com.postechfiap.meuhospital.agendamento.agenda.AgendaMedicoIndex;
+import com.postechfiap.meuhospital.agendamento.client.AuthClientService;
+import com.postechfiap.meuhospital.agendamento.diretorio.DiretorioMedicos;
+import com.postechfiap.meuhospital.agendamento.dto.PacienteDetails;
+import com.postechfiap.meuhospital.agendamento.entity.Consulta;
+import com.postechfiap.meuhospital.agendamento.entity.MedicoProjection;
+import com.postechfiap.meuhospital.agendamento.kafka.ConsultaOutbox;
+import com.postechfiap.meuhospital.agendamento.repository.ConsultaRepository;
+import com.postechfiap.meuhospital.agendamento.repository.MedicoProjectionRepository;
+import com.postechfiap.meuhospital.contracts.agendamento.ConsultaBatchItemResponse;
+import com.postechfiap.meuhospital.contracts.agendamento.ConsultaBatchResponse;
+import com.postechfiap.meuhospital.contracts.agendamento.ConsultaRequest;
+import com.postechfiap.meuhospital.contracts.core.Role;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Criação em lote com grupos (um por médico) de resultados diferentes: cada grupo tem a própria transação,
+ * e a falha de um deles não pode descartar o relatório dos grupos já confirmados.
+ */
+class ConsultaServiceImplLoteTest {
+
+    private final UUID medicoOk = UUID.randomUUID();
+    private final UUID medicoComFalhaNoInsert = UUID.randomUUID();
+    private final UUID medicoComTimeout = UUID.randomUUID();
+    private final UUID medicoPosFalha = UUID.randomUUID();
+    private final LocalDateTime horario = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+
+    private final ConsultaRepository consultaRepository = mock(ConsultaRepository.class);
+    private final MedicoProjectionRepository medicoProjectionRepository = mock(MedicoProjectionRepository.class);
+    private final AuthClientService authClientService = mock(AuthClientService.class);
+    private final ConsultaOutbox consultaOutbox = mock(ConsultaOutbox.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private ExecutorService rpcExecutor;
+    private ConsultaServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        List<MedicoProjection> medicos = new ArrayList<>();
+        for (UUID medicoId : List.of(medicoOk, medicoComFalhaNoInsert, medicoComTimeout, medicoPosFalha)) {
+            MedicoProjection medico = new MedicoProjection();
+            medico.setId(medicoId);
+            medico.setNome("Dr. " + medicoId);
+            medicos.add(medico);
+        }
+        when(medicoProjectionRepository.findAllById(any())).thenReturn(medicos);
+        when(authClientService.buscarPacientesPorIds(any())).thenAnswer(invocacao -> {
+            Collection<UUID> ids = invocacao.getArgument(0);
+            return ids.stream().collect(Collectors.toMap(Function.identity(), id -> new PacienteDetails(
+                    id, "Maria Souza", null, "maria@meuhospital.com", null, Role.PACIENTE, null, null, null)));
+        });
+        when(consultaRepository.saveAll(any())).thenAnswer(invocacao -> {
+            List<Consulta> consultas = new ArrayList<>(invocacao.<Collection<Consulta>>getArgument(0));
+            if (consultas.stream().anyMatch(consulta -> consulta.getMedicoId().equals(medicoComFalhaNoInsert))) {
+                throw new DataIntegrityViolationException("duplicate key value violates unique constraint \"consultas_pkey\"");
+            }
+            consultas.forEach(consulta -> consulta.setId(UUID.randomUUID()));
+            return consultas;
+        });
+
+        AgendaMedicoIndex index = mock(AgendaMedicoIndex.class);
+        when(index.isPronto()).thenReturn(false);
+        when(consultaRepository.findSlotsAgendadosDosMedicos(eq(List.of(medicoComTimeout)), any(), any()))
+                .thenThrow(new QueryTimeoutException("canceling statement due to statement timeout"));
+
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        rpcExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        service = new ConsultaServiceImpl(consultaRepository, medicoProjectionRepository, authClientService, consultaOutbox,
+                index, new AgendaLockManager(64, 5000, false, null), new TransactionTemplate(transactionManager),
+                mock(DiretorioMedicos.class), new TaskExecutorAdapter(rpcExecutor),
+                200, 4, 5000, 50, 200, "08:00", "18:00");
+    }
+
+    @AfterEach
+    void tearDown() {
+        rpcExecutor.shutdownNow();
+    }
+
+    @Test
+    void falhaInesperadaDeUmMedicoRejeitaSoOsItensDeleEMantemOsGruposConfirmados() {
+        ConsultaBatchResponse resposta = service.criarConsultasEmLote(List.of(
+                request(medicoOk, horario),
+                request(medicoComFalhaNoInsert, horario),
+                request(medicoOk, horario.plusHours(1)),
+                request(medicoComTimeout, horario),
+                request(medicoPosFalha, horario),
+                request(UUID.randomUUID(), horario)));
+
+        assertThat(resposta.criadas()).isEqualTo(3);
+        assertThat(resposta.rejeitadas()).isEqualTo(3);
+        assertThat(resposta.itens()).extracting(ConsultaBatchItemResponse::status)
+                .containsExactly("CRIADA", "REJEITADA", "CRIADA", "REJEITADA", "CRIADA", "REJEITADA");
+        assertThat(resposta.itens().get(1).erro()).isEqualTo("Falha ao salvar a consulta. Tente novamente.");
+        assertThat(resposta.itens().get(3).erro()).isEqualTo("Falha ao salvar a consulta. Tente novamente.");
+        assertThat(resposta.itens().get(5).erro()).contains("não encontrado");
+
+        // Só os grupos confirmados geram eventos; as transações com falha são desfeitas
+        verify(consultaOutbox, times(3)).registrar(any());
+        verify(transactionManager, times(2)).commit(any());
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    private ConsultaRequest request(UUID medicoId, LocalDateTime dataConsulta) {
+        return new ConsultaRequest(UUID.randomUUID(), medicoId, dataConsulta, "Rotina");
+    }
+}
@@ -2,6 +2,7 @@ package com.postechfiap.meuhospital.autenticacao.config;
 
 import com.postechfiap.meuhospital.autenticacao.security.CustomAccessDeniedHandler;
 import com.postechfiap.meuhospital.autenticacao.security.CustomAuthenticationEntryPoint;
+import com.postechfiap.meuhospital.autenticacao.security.CustoBCryptPasswordEncoder;
 import com.postechfiap.meuhospital.autenticacao.security.InternalServiceFilter;
 import com.postechfiap.meuhospital.autenticacao.security.SecurityFilter;
 import jakarta.servlet.DispatcherType;
@@ -15,7 +16,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.beans.factory.annotation.Value;
@@ -56,6 +56,7 @@ public class SecurityConfig {
                                 // Rotas Públicas de Usuário/Login
                                 .requestMatchers(HttpMethod.POST, "/auth/register").permitAll()
                                 .requestMatchers(HttpMethod.POST, "/auth/login").permitAll()
+                                .requestMatchers(HttpMethod.GET, "/auth/jwks").permitAll()
 
                                 // CRÍTICO: Libera a rota para o mundo. O InternalServiceFilter é o firewall.
 //                                .requestMatchers(HttpMethod.GET, "/usuarios/{id}").permitAll()
@@ -82,8 +83,11 @@ public class SecurityConfig {
         return authenticationConfiguration.getAuthenticationManager();
     }
 
+    /**
+     * BCrypt com custo configurável; hashes com outro custo são regravados no próximo login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.senha.custo:10}") int custo) {
+        return new CustoBCryptPasswordEncoder(custo);
     }
 }
\ No newline at end of file
@@ -16,9 +16,11 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import com.postechfiap.meuhospital.autenticacao.entity.Usuario;
 import com.postechfiap.meuhospital.autenticacao.exception.RecursoNaoEncontradoException;
 import com.postechfiap.meuhospital.autenticacao.mapper.UsuarioMapper;
 import com.postechfiap.meuhospital.autenticacao.security.JwtService;
+import com.postechfiap.meuhospital.autenticacao.security.VerificadorSenhas;
 import com.postechfiap.meuhospital.autenticacao.service.UsuarioService;
 import com.postechfiap.meuhospital.contracts.core.LoginRequest;
 import com.postechfiap.meuhospital.contracts.core.LoginResponse;
@@ -28,7 +30,9 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -37,6 +41,9 @@ import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Controller responsável pelos endpoints de autenticação e geração de tokens.
  */
@@ -47,13 +54,15 @@ public class AuthController {
 
     private static final Logger log = LoggerFactory.getLogger(AuthController.class);
 
-    private final AuthenticationManager authenticationManager;
+    private static final String MEDIA_TYPE_JWKS = "application/jwk-set+json";
+
+    private final VerificadorSenhas verificadorSenhas;
     private final JwtService jwtService;
     private final UsuarioService usuarioService;
     private final UsuarioMapper usuarioMapper;
 
-    public AuthController(AuthenticationManager authenticationManager, JwtService jwtService, UsuarioService usuarioService, UsuarioMapper usuarioMapper) {
-        this.authenticationManager = authenticationManager;
+    public AuthController(VerificadorSenhas verificadorSenhas, JwtService jwtService, UsuarioService usuarioService, UsuarioMapper usuarioMapper) {
+        this.verificadorSenhas = verificadorSenhas;
         this.jwtService = jwtService;
         this.usuarioService = usuarioService;
         this.usuarioMapper = usuarioMapper;
@@ -80,32 +89,43 @@ public class AuthController {
 
     /**
      * Endpoint de login que gera um Token JWT válido.
+     * A verificação de senha roda no pool dedicado (VerificadorSenhas); a thread do Tomcat é liberada
+     * enquanto isso (resposta assíncrona).
      */
     @PostMapping("/login")
     @Operation(summary = "Login e Geração de JWT",
             description = "Autentica o usuário com e-mail e senha e retorna um Token JWT.")
     @ApiResponse(responseCode = "200", description = "Autenticação bem-sucedida. Retorna o token e os dados do usuário.")
     @ApiResponse(responseCode = "401", description = "Não Autorizado. Credenciais inválidas.")
-    public ResponseEntity<LoginResponse> login(@RequestBody @Valid LoginRequest request) {
+    @ApiResponse(responseCode = "503", description = "Serviço sobrecarregado. Fila de verificação de senhas cheia; tente novamente.")
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@RequestBody @Valid LoginRequest request) {
         log.info("INICIANDO: POST /auth/login para E-mail: {}", request.email());
 
-        // 1. Autenticação (Verificação de senha)
-        var authToken = new UsernamePasswordAuthenticationToken(request.email(), request.senha());
-        Authentication authentication = authenticationManager.authenticate(authToken);
+        // 1. Autenticação (Verificação de senha, com rehash se o custo do BCrypt mudou)
+        return verificadorSenhas.autenticar(request.email(), request.senha())
+                .thenApply(authentication -> {
+                    // 2. Geração do Token
+                    String token = jwtService.generateToken(authentication);
+                    log.debug("JWT gerado para o usuário: {}", request.email());
 
-        // 2. Geração do Token
-        String token = jwtService.generateToken(authentication);
-        log.debug("JWT gerado para o usuário: {}", request.email());
+                    // 3. Detalhes para Resposta (o principal já é o Usuario carregado na autenticação)
+                    UsuarioResponse usuarioResponse = usuarioMapper.toResponse((Usuario) authentication.getPrincipal());
 
-        // 3. Busca de Detalhes para Resposta
-        UsuarioResponse usuarioResponse = usuarioService.buscarUsuarioPorEmail(request.email())
-                .map(usuarioMapper::toResponse)
-                .orElseThrow(() -> {
-                    log.error("ERRO GRAVE: Usuário autenticado ({}) não encontrado no banco.", request.email());
-                    return new RecursoNaoEncontradoException("Usuário não encontrado após autenticação.");
+                    log.info("SUCESSO: Login concluído. JWT e dados do usuário retornados.");
+                    return ResponseEntity.ok(new LoginResponse(token, usuarioResponse));
                 });
+    }
 
-        log.info("SUCESSO: Login concluído. JWT e dados do usuário retornados.");
-        return ResponseEntity.ok(new LoginResponse(token, usuarioResponse));
+    /**
+     * Endpoint público com as chaves de verificação do JWT (JWK Set), consumido pelos demais microsserviços.
+     */
+    @GetMapping(value = "/jwks", produces = {MEDIA_TYPE_JWKS, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Chaves Públicas do JWT (JWKS)",
+            description = "Retorna as chaves públicas usadas para verificar a assinatura dos tokens, indexadas pelo 'kid'.")
+    @ApiResponse(responseCode = "200", description = "JWK Set (RFC 7517). Vazio quando a assinatura é HS512.")
+    public ResponseEntity<String> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(jwtService.jwks());
     }
 }
\ No newline at end of file
@@ -2,14 +2,18 @@ package com.postechfiap.meuhospital.autenticacao.controller;
 
 import com.postechfiap.meuhospital.autenticacao.service.UsuarioService;
 import com.postechfiap.meuhospital.contracts.core.UsuarioResponse;
+import com.postechfiap.meuhospital.contracts.core.UsuarioUpdateRequest;
 import com.postechfiap.meuhospital.contracts.usuario.PacienteResponse;
+import com.postechfiap.meuhospital.contracts.usuario.UsuarioBatchRequest;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,6 +63,57 @@ public class UsuarioController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Endpoint protegido para atualização dos dados cadastrais de um usuário.
+     * Mesma regra de acesso da busca por ID: equipe (MÉDICO/ENFERMEIRO) ou o próprio usuário.
+     * O e-mail (login) só pode ser alterado pelo próprio usuário.
+     * Publica UsuarioAtualizadoEvent para que os demais serviços invalidem seus caches.
+     */
+    @PutMapping("/{id}")
+    @Operation(summary = "Atualizar usuário (Acesso Controlado)",
+            description = "Atualiza nome, contato e dados profissionais. CPF, senha e perfil não são alterados; o e-mail só pelo próprio usuário.")
+    @ApiResponse(responseCode = "200", description = "Sucesso. Retorna os dados atualizados.")
+    @ApiResponse(responseCode = "400", description = "Falha na validação de campos ou tentativa de alterar o perfil.")
+    @ApiResponse(responseCode = "403", description = "Proibido. Usuário não tem permissão para alterar este ID ou o seu e-mail.")
+    @ApiResponse(responseCode = "404", description = "Não encontrado.")
+    @ApiResponse(responseCode = "409", description = "Conflito. E-mail já cadastrado.")
+    @PreAuthorize("hasAnyAuthority('MEDICO', 'ENFERMEIRO') or #id == authentication.principal.id")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<UsuarioResponse> atualizar(
+            @Parameter(description = "UUID do usuário a ser atualizado.") @PathVariable UUID id,
+            @RequestBody @Valid UsuarioUpdateRequest request,
+            @Parameter(hidden = true) @AuthenticationPrincipal(expression = "id") UUID solicitanteId) {
+
+        log.info("Requisição PUT /usuarios/{} recebida.", id);
+
+        UsuarioResponse response = usuarioService.atualizarUsuario(id, request, solicitanteId);
+
+        log.info("Usuário ID {} atualizado com sucesso.", id);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Endpoint protegido para busca de vários usuários por ID em uma única chamada.
+     * Usado pelo ms-agendamento (X-Internal-Secret) para evitar um RPC por consulta nos jobs.
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "Buscar usuários por IDs (Lote)",
+            description = "Retorna os detalhes dos usuários encontrados para os IDs informados. IDs inexistentes são ignorados.")
+    @ApiResponse(responseCode = "200", description = "Sucesso. Retorna os usuários encontrados.")
+    @ApiResponse(responseCode = "400", description = "Lista de IDs vazia ou acima do limite.")
+    @ApiResponse(responseCode = "403", description = "Proibido. Apenas Médicos, Enfermeiros e serviços internos.")
+    @PreAuthorize("hasAnyAuthority('MEDICO', 'ENFERMEIRO', 'INTERNAL_SERVICE_ACCESS')")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<List<UsuarioResponse>> buscarPorIds(@RequestBody @Valid UsuarioBatchRequest request) {
+
+        log.info("Requisição POST /usuarios/batch recebida. Quantidade de IDs: {}", request.ids().size());
+
+        List<UsuarioResponse> response = usuarioService.buscarUsuariosPorIds(request.ids());
+
+        log.info("Busca em lote concluída. {} usuários encontrados.", response.size());
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Endpoint protegido para listar todos os pacientes cadastrados.
      * Requer autoridade: MÉDICO ou ENFERMEIRO.
@@ -2,10 +2,13 @@ package com.postechfiap.meuhospital.autenticacao.handler;
 
 import com.postechfiap.meuhospital.autenticacao.exception.RecursoNaoEncontradoException;
 import com.postechfiap.meuhospital.autenticacao.exception.UsuarioExistenteException;
+import com.postechfiap.meuhospital.autenticacao.security.CustomAuthenticationEntryPoint;
 import io.swagger.v3.oas.annotations.Hidden;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -15,9 +18,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Tratador Global de Exceções (@ControllerAdvice) para centralizar a resposta a erros
@@ -29,6 +35,12 @@ public class GlobalExceptionHandler {
 
     private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private final CustomAuthenticationEntryPoint authenticationEntryPoint;
+
+    public GlobalExceptionHandler(CustomAuthenticationEntryPoint authenticationEntryPoint) {
+        this.authenticationEntryPoint = authenticationEntryPoint;
+    }
+
     /**
      * Constrói uma resposta de erro padronizada.
      */
@@ -147,4 +159,33 @@ public class GlobalExceptionHandler {
         );
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
+
+    /**
+     * 6. Trata falhas de autenticação do login assíncrono (credenciais inválidas). Retorna 401 Unauthorized,
+     * no mesmo formato do CustomAuthenticationEntryPoint usado no fluxo síncrono.
+     */
+    @ExceptionHandler(AuthenticationException.class)
+    public void handleAuthenticationException(
+            AuthenticationException ex, HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        log.warn("NÃO AUTORIZADO (401): {} em {}.", ex.getMessage(), request.getRequestURI());
+        authenticationEntryPoint.commence(request, response, ex);
+    }
+
+    /**
+     * 7. Trata a recusa do login com a fila de verificação de senhas cheia. Retorna 503 Service Unavailable.
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, Object>> handleRejectedExecution(
+            RejectedExecutionException ex, HttpServletRequest request) {
+
+        Map<String, Object> response = buildErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                "Serviço de autenticação sobrecarregado. Tente novamente em instantes.",
+                request
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(response);
+    }
 }
\ No newline at end of file
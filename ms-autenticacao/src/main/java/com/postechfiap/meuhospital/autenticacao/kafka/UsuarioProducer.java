@@ -0,0 +1,34 @@
+package com.postechfiap.meuhospital.autenticacao.kafka;
+
+import com.postechfiap.meuhospital.contracts.events.UsuarioAtualizadoEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Componente responsável por enviar eventos de alteração de dados de usuário para o Kafka.
+ */
+@Component
+public class UsuarioProducer {
+
+    private static final Logger log = LoggerFactory.getLogger(UsuarioProducer.class);
+    private static final String TOPIC_USUARIO_EVENTS = "usuario-events";
+
+    private final KafkaTemplate<String, UsuarioAtualizadoEvent> kafkaTemplate;
+
+    public UsuarioProducer(KafkaTemplate<String, UsuarioAtualizadoEvent> kafkaTemplate) {
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    /**
+     * Publica um evento de atualização de usuário no Kafka.
+     * @param event O DTO de evento (UsuarioAtualizadoEvent) com o ID do usuário alterado.
+     */
+    public void sendUsuarioEvent(UsuarioAtualizadoEvent event) {
+        String key = event.userId().toString();
+
+        kafkaTemplate.send(TOPIC_USUARIO_EVENTS, key, event);
+        log.info("Kafka: Evento Usuario [{}] ID [{}] publicado no tópico {}", event.tipoEvento(), key, TOPIC_USUARIO_EVENTS);
+    }
+}
@@ -3,6 +3,7 @@ package com.postechfiap.meuhospital.autenticacao.mapper;
 import com.postechfiap.meuhospital.autenticacao.entity.Usuario;
 import com.postechfiap.meuhospital.contracts.core.UsuarioRegisterRequest;
 import com.postechfiap.meuhospital.contracts.core.UsuarioResponse;
+import com.postechfiap.meuhospital.contracts.core.UsuarioUpdateRequest;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -37,6 +38,21 @@ public class UsuarioMapper {
         return usuario;
     }
 
+    /**
+     * Aplica os dados de um DTO de Atualização sobre uma Entidade Usuario existente.
+     * CPF, senha e Role não são alterados por este fluxo.
+     * @param entity Entidade Usuario persistida.
+     * @param request DTO de atualização.
+     */
+    public void updateEntity(Usuario entity, UsuarioUpdateRequest request) {
+        entity.setNome(request.nome());
+        entity.setEmail(request.email());
+        entity.setTelefone(request.telefone());
+        entity.setNumeroRegistro(request.numeroRegistro());
+        entity.setEspecialidade(request.especialidade());
+        entity.setDataNascimento(request.dataNascimento());
+    }
+
     /**
      * Converte a Entidade Usuario para o DTO de Resposta (UsuarioResponse).
      * @param entity Entidade Usuario persistida.
@@ -0,0 +1,179 @@
+package com.postechfiap.meuhospital.autenticacao.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PrivateJwk;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Par de chaves assimétrico (ES256 ou EdDSA/Ed25519) usado pelo ms-autenticacao para assinar o JWT.
+ * Só a chave privada assina; as chaves públicas são publicadas em GET /auth/jwks e os demais
+ * microsserviços verificam sem conhecer nenhum segredo.
+ * O arquivo app.jwt.chave-privada-arquivo é um JWK Set com chaves privadas: a primeira assina, as demais
+ * (chaves anteriores, mantidas até os tokens emitidos com elas expirarem) continuam publicadas para verificação.
+ * Se o arquivo não existir, um par novo é gerado e gravado. Sem arquivo configurado a inicialização falha,
+ * a não ser que app.jwt.chave-efemera esteja habilitado (perfil local): aí o par é efêmero.
+ * O 'kid' de cada chave é o thumbprint (RFC 7638) da chave pública.
+ */
+class ChaveAssinatura {
+
+    private static final Logger log = LoggerFactory.getLogger(ChaveAssinatura.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final SignatureAlgorithm algoritmo;
+    private final String kid;
+    private final PrivateKey chavePrivada;
+    private final Map<String, PublicKey> chavesPublicas;
+    private final String jwks;
+
+    private ChaveAssinatura(SignatureAlgorithm algoritmo, List<PrivateJwk<?, ?, ?>> chaves) {
+        PrivateJwk<?, ?, ?> ativa = chaves.get(0);
+        this.algoritmo = algoritmo;
+        this.kid = ativa.getId();
+        this.chavePrivada = ativa.toKey();
+
+        Map<String, PublicKey> publicas = new LinkedHashMap<>();
+        List<String> json = new ArrayList<>();
+        for (PrivateJwk<?, ?, ?> chave : chaves) {
+            PublicJwk<?> publica = chave.toPublicJwk();
+            publicas.put(chave.getId(), publica.toKey());
+            json.add(Jwks.json(publica));
+        }
+        this.chavesPublicas = Map.copyOf(publicas);
+        this.jwks = "{\"keys\":[" + String.join(",", json) + "]}";
+
+        // Falha na inicialização (e não no primeiro login) se a chave não servir para o algoritmo
+        Jwts.builder().subject("verificacao").signWith(chavePrivada, algoritmo).compact();
+    }
+
+    /**
+     * Carrega (ou gera) o par de chaves para o algoritmo de app.jwt.algoritmo.
+     * @param permitirEfemera Aceita a ausência do arquivo, gerando um par só desta execução (desenvolvimento).
+     */
+    static ChaveAssinatura carregar(String nomeAlgoritmo, String arquivo, boolean permitirEfemera) {
+        SignatureAlgorithm algoritmo = algoritmo(nomeAlgoritmo);
+        if (!StringUtils.hasText(arquivo)) {
+            if (!permitirEfemera) {
+                throw new IllegalStateException("app.jwt.chave-privada-arquivo é obrigatório com app.jwt.algoritmo=" + nomeAlgoritmo
+                        + ": um par efêmero invalida os tokens no reinício e não é aceito por outras instâncias."
+                        + " Para desenvolvimento, use o perfil local (app.jwt.chave-efemera=true).");
+            }
+            log.warn("JWT: app.jwt.chave-privada-arquivo não configurado; usando par {} efêmero "
+                    + "(tokens deixam de valer no reinício e não são aceitos por outras instâncias).", nomeAlgoritmo);
+            return new ChaveAssinatura(algoritmo, List.of(gerar(nomeAlgoritmo)));
+        }
+
+        Path caminho = Path.of(arquivo);
+        try {
+            if (Files.notExists(caminho)) {
+                PrivateJwk<?, ?, ?> nova = gerar(nomeAlgoritmo);
+                gravar(caminho, nova);
+                log.info("JWT: novo par {} gerado em {} (kid={}).", nomeAlgoritmo, caminho, nova.getId());
+                return new ChaveAssinatura(algoritmo, List.of(nova));
+            }
+            List<PrivateJwk<?, ?, ?>> chaves = ler(caminho);
+            log.info("JWT: {} chaves {} carregadas de {} (ativa: {}).",
+                    chaves.size(), nomeAlgoritmo, caminho, chaves.get(0).getId());
+            return new ChaveAssinatura(algoritmo, chaves);
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível ler/gravar a chave privada JWT " + caminho + ".", e);
+        }
+    }
+
+    static boolean assimetrico(String nomeAlgoritmo) {
+        return !"HS512".equals(nomeAlgoritmo);
+    }
+
+    SignatureAlgorithm algoritmo() {
+        return algoritmo;
+    }
+
+    String kid() {
+        return kid;
+    }
+
+    PrivateKey chavePrivada() {
+        return chavePrivada;
+    }
+
+    /**
+     * Chaves públicas por 'kid', usadas pelo próprio ms-autenticacao para verificar os tokens que emitiu.
+     */
+    Map<String, PublicKey> chavesPublicas() {
+        return chavesPublicas;
+    }
+
+    /**
+     * JWK Set público (RFC 7517), serializado uma única vez.
+     */
+    String jwks() {
+        return jwks;
+    }
+
+    private static SignatureAlgorithm algoritmo(String nome) {
+        return switch (nome) {
+            case "ES256" -> Jwts.SIG.ES256;
+            case "EdDSA" -> Jwts.SIG.EdDSA;
+            default -> throw new IllegalStateException("app.jwt.algoritmo inválido: " + nome + " (use ES256, EdDSA ou HS512).");
+        };
+    }
+
+    private static PrivateJwk<?, ?, ?> gerar(String nomeAlgoritmo) {
+        KeyPair par = "EdDSA".equals(nomeAlgoritmo)
+                ? Jwks.CRV.Ed25519.keyPair().build()
+                : Jwts.SIG.ES256.keyPair().build();
+        return Jwks.builder().keyPair(par).idFromThumbprint().build();
+    }
+
+    private static List<PrivateJwk<?, ?, ?>> ler(Path caminho) throws IOException {
+        JsonNode chaves = MAPPER.readTree(caminho.toFile()).path("keys");
+        List<PrivateJwk<?, ?, ?>> privadas = new ArrayList<>();
+        for (JsonNode no : chaves) {
+            Jwk<?> jwk = Jwks.parser().build().parse(no.toString());
+            if (!(jwk instanceof PrivateJwk<?, ?, ?> privada)) {
+                throw new IllegalStateException("O arquivo " + caminho + " deve conter apenas chaves privadas.");
+            }
+            // Sem 'kid' no arquivo, usa o thumbprint (mesmo valor publicado no JWKS)
+            privadas.add(privada.getId() != null ? privada
+                    : Jwks.builder().keyPair(privada.toKeyPair().toJavaKeyPair()).idFromThumbprint().build());
+        }
+        if (privadas.isEmpty()) {
+            throw new IllegalStateException("Nenhuma chave em " + caminho + " (esperado JWK Set {\"keys\":[...]}).");
+        }
+        return privadas;
+    }
+
+    private static void gravar(Path caminho, PrivateJwk<?, ?, ?> chave) throws IOException {
+        if (caminho.getParent() != null) {
+            Files.createDirectories(caminho.getParent());
+        }
+        String conteudo = "{\"keys\":[" + Jwks.UNSAFE_JSON(chave) + "]}";
+        Files.writeString(caminho, conteudo, StandardCharsets.UTF_8);
+        try {
+            Files.setPosixFilePermissions(caminho, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException e) {
+            log.debug("JWT: sistema de arquivos sem permissões POSIX para {}.", caminho);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.postechfiap.meuhospital.autenticacao.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt com custo configurável (app.senha.custo, log2 das rodadas: cada +1 dobra o tempo de verificação).
+ * Diferente do BCryptPasswordEncoder, que só pede rehash para custo maior, qualquer hash com custo diferente
+ * do configurado é regravado no próximo login bem-sucedido (DaoAuthenticationProvider + UserDetailsPasswordService),
+ * de modo que subir ou baixar o custo não exige migração nem reset de senhas.
+ */
+public class CustoBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private final int custo;
+
+    public CustoBCryptPasswordEncoder(int custo) {
+        super(custo);
+        this.custo = custo;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Formato: $2a$10$<salt+hash>
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(3) != '$') {
+            return false;
+        }
+        try {
+            return Integer.parseInt(encodedPassword, 4, 6, 10) != custo;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -24,7 +24,7 @@ import java.util.UUID;
 
 /**
  * Filtro que verifica um cabeçalho secreto para liberar chamadas Service-to-Service
- * para endpoints específicos (como GET /usuarios/{id}).
+ * para endpoints específicos (como GET /usuarios/{id} e POST /usuarios/batch).
  */
 @Component
 public class InternalServiceFilter extends OncePerRequestFilter {
@@ -35,6 +35,8 @@ public class InternalServiceFilter extends OncePerRequestFilter {
     private static final String INTERNAL_SECRET_HEADER = "X-Internal-Secret";
     private static final String TARGET_PATH = "/usuarios/";
     private static final String TARGET_METHOD = "GET";
+    private static final String BATCH_PATH = "/usuarios/batch";
+    private static final String BATCH_METHOD = "POST";
 
     public InternalServiceFilter(@Value("${app.internal-secret}") String requiredSecret) {
         this.requiredSecret = requiredSecret;
@@ -42,14 +44,16 @@ public class InternalServiceFilter extends OncePerRequestFilter {
 
     /**
      * Este método decide se o filtro DEVE ser executado.
-     * Devemos executá-lo SOMENTE se for o GET na rota de usuários.
+     * Devemos executá-lo SOMENTE se for o GET na rota de usuários ou o POST da busca em lote.
      */
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getRequestURI();
         String method = request.getMethod();
 
-        return !method.equals(TARGET_METHOD) || !path.startsWith(TARGET_PATH);
+        boolean buscaPorId = method.equals(TARGET_METHOD) && path.startsWith(TARGET_PATH);
+        boolean buscaEmLote = method.equals(BATCH_METHOD) && path.equals(BATCH_PATH);
+        return !buscaPorId && !buscaEmLote;
     }
 
     @Override
@@ -1,41 +1,85 @@
 package com.postechfiap.meuhospital.autenticacao.security;
 
 import com.postechfiap.meuhospital.autenticacao.entity.Usuario;
+import com.postechfiap.meuhospital.contracts.seguranca.ChavesJwt;
+import com.postechfiap.meuhospital.contracts.seguranca.ChavesPublicas;
+import com.postechfiap.meuhospital.contracts.seguranca.TokenVerificado;
+import com.postechfiap.meuhospital.contracts.seguranca.VerificadorJwt;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
-import java.util.function.Function;
 
 /**
  * Serviço responsável pela criação, extração e validação do JSON Web Token (JWT).
+ * Com app.jwt.algoritmo ES256/EdDSA (padrão), assina com a chave privada de ChaveAssinatura e publica as
+ * chaves públicas em GET /auth/jwks; com HS512, assina com o segredo compartilhado (app.jwt.secret).
  */
 @Service
-public class JwtService {
+public class JwtService implements VerificadorJwt {
 
-    private String secret;
+    private final long expirationTime;
 
-    private long expirationTime;
+    private final ChavesJwt chaves;
 
-    public JwtService(@Value("${app.jwt.secret}") String secret,
-                      @Value("${app.jwt.expiration}") long expirationTime) {
-        this.secret = secret;
+    /**
+     * Par assimétrico de assinatura; nulo com app.jwt.algoritmo=HS512.
+     */
+    private final ChaveAssinatura assinatura;
+
+    /**
+     * Parser imutável e thread-safe, criado uma vez; a chave é escolhida pelo 'kid' do cabeçalho.
+     */
+    private final JwtParser parser;
+
+    public JwtService(@Value("${app.jwt.secret:}") String secret,
+                      @Value("${app.jwt.expiration}") long expirationTime,
+                      @Value("${app.jwt.kid:principal}") String kid,
+                      @Value("${app.jwt.chaves-arquivo:}") String arquivoChaves,
+                      @Value("${app.jwt.algoritmo:ES256}") String algoritmo,
+                      @Value("${app.jwt.chave-privada-arquivo:}") String arquivoChavePrivada,
+                      @Value("${app.jwt.chave-efemera:false}") boolean chaveEfemera) {
         this.expirationTime = expirationTime;
+        this.assinatura = ChaveAssinatura.assimetrico(algoritmo)
+                ? ChaveAssinatura.carregar(algoritmo, arquivoChavePrivada, chaveEfemera) : null;
+        ChavesPublicas chavesPublicas = assinatura != null ? assinatura.chavesPublicas()::get : kidDesconhecido -> null;
+        this.chaves = new ChavesJwt(secret, kid, arquivoChaves, chavesPublicas);
+        if (assinatura == null && chaves.ativa().chave() == null) {
+            throw new IllegalStateException("app.jwt.algoritmo=HS512 exige app.jwt.secret (ou chave ativa em app.jwt.chaves-arquivo).");
+        }
+        this.parser = Jwts.parser().keyLocator(chaves).build();
+    }
+
+    /**
+     * Relê o arquivo de chaves (app.jwt.chaves-arquivo), se configurado e modificado.
+     */
+    @Scheduled(initialDelayString = "${app.jwt.chaves-recarga:PT30S}", fixedDelayString = "${app.jwt.chaves-recarga:PT30S}")
+    public void recarregarChaves() {
+        chaves.recarregar();
     }
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    /**
+     * Versão do conjunto de chaves de verificação (muda quando o arquivo de chaves é recarregado).
+     */
+    @Override
+    public int versaoChaves() {
+        return chaves.versao();
+    }
+
+    /**
+     * JWK Set com as chaves públicas de verificação; vazio ({@code {"keys":[]}}) com HS512.
+     */
+    public String jwks() {
+        return assinatura != null ? assinatura.jwks() : "{\"keys\":[]}";
     }
 
     /**
@@ -52,63 +96,39 @@ public class JwtService {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expirationTime);
 
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setClaims(claims)
                 .setSubject(user.getEmail())
                 .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
-                .compact();
-    }
+                .setExpiration(expiryDate);
 
-    /**
-     * Extrai o e-mail (subject) do token.
-     */
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        if (assinatura != null) {
+            return builder
+                    .header().keyId(assinatura.kid()).and()
+                    .signWith(assinatura.chavePrivada(), assinatura.algoritmo())
+                    .compact();
+        }
+
+        ChavesJwt.ChaveAtiva chave = chaves.ativa();
+        return builder
+                .header().keyId(chave.kid()).and()
+                .signWith(chave.chave(), SignatureAlgorithm.HS512)
+                .compact();
     }
 
     /**
-     * Extrai um claim específico do token.
+     * Verifica assinatura e expiração uma única vez e devolve os dados do usuário contidos no token.
+     * Usado pelo SecurityFilter (via CacheTokens).
      */
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    @Override
+    public TokenVerificado verificar(String token) {
+        return TokenVerificado.de(extractAllClaims(token));
     }
 
     /**
      * Extrai todos os claims do token, realizando a validação da assinatura.
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
-    /**
-     * Valida se o token é válido e não expirou.
-     */
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return parser.parseSignedClaims(token).getPayload();
     }
-
-    private boolean isTokenExpired(String token) {
-        return extractClaim(token, Claims::getExpiration).before(new Date());
-    }
-
-    /**
-     * Extrai o ID do usuário (UUID) do token JWT.
-     */
-    public UUID extractUserId(String token) {
-        final Claims claims = extractAllClaims(token);
-        String idString = claims.get("id", String.class);
-        if (idString == null) {
-            throw new IllegalArgumentException("Token não contém o ID do usuário (claim 'id').");
-        }
-        return UUID.fromString(idString);
-    }
-
-}
\ No newline at end of file
+}
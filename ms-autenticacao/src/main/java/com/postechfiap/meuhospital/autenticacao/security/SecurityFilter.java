@@ -1,12 +1,15 @@
 package com.postechfiap.meuhospital.autenticacao.security;
 
 import com.postechfiap.meuhospital.autenticacao.repository.UsuarioRepository;
-import com.postechfiap.meuhospital.contracts.core.Role;
+import com.postechfiap.meuhospital.contracts.seguranca.CacheTokens;
+import com.postechfiap.meuhospital.contracts.seguranca.TokenVerificado;
 import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -26,12 +29,16 @@ import java.util.UUID;
 @Component
 public class SecurityFilter extends OncePerRequestFilter {
 
-    private final JwtService jwtService;
+    private final CacheTokens cacheTokens;
     private final UsuarioRepository usuarioRepository;
     private final CustomAuthenticationEntryPoint authenticationEntryPoint;
 
-    public SecurityFilter(JwtService jwtService, UsuarioRepository usuarioRepository, CustomAuthenticationEntryPoint authenticationEntryPoint) {
-        this.jwtService = jwtService;
+    public SecurityFilter(JwtService jwtService,
+                          @Value("${app.jwt.cache.tamanho-maximo:10000}") long tamanhoCacheTokens,
+                          MeterRegistry meterRegistry,
+                          UsuarioRepository usuarioRepository,
+                          CustomAuthenticationEntryPoint authenticationEntryPoint) {
+        this.cacheTokens = new CacheTokens(jwtService, tamanhoCacheTokens, meterRegistry);
         this.usuarioRepository = usuarioRepository;
         this.authenticationEntryPoint = authenticationEntryPoint;
     }
@@ -51,26 +58,23 @@ public class SecurityFilter extends OncePerRequestFilter {
         try {
             if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                String login = jwtService.extractUsername(token);
-                Role role = Role.valueOf(jwtService.extractClaim(token, claims -> claims.get("role", String.class)));
-                UUID userId = jwtService.extractUserId(token);
+                // Assinatura e expiração verificadas uma vez por token (cache até o 'exp'); lança JwtException se inválido
+                TokenVerificado verificado = cacheTokens.verificar(token);
+                UUID userId = verificado.userId();
 
                 UserDetails userDetails = new User(
-                        login,
+                        verificado.login(),
                         "",
-                        Collections.singletonList(new SimpleGrantedAuthority(role.name()))
+                        Collections.singletonList(new SimpleGrantedAuthority(verificado.role().name()))
                 ) {
                     public UUID getId() { return userId; }
                 };
 
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities());
 
-                if (jwtService.isTokenValid(token, userDetails)) {
-                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
-
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                }
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
             }
             filterChain.doFilter(request, response);
 
@@ -0,0 +1,84 @@
+package com.postechfiap.meuhospital.autenticacao.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executa a autenticação por senha (busca do usuário + BCrypt) fora das threads do Tomcat, em um pool dedicado
+ * e limitado: app.login.threads threads (0 = número de CPUs, já que o BCrypt é CPU-bound) e fila de
+ * app.login.fila posições. Com a fila cheia, o login é recusado (RejectedExecutionException -> 503) em vez de
+ * ocupar as threads que atendem os demais endpoints.
+ * Métricas: executor.queued (profundidade da fila), executor.active, executor.execution, executor.idle
+ * (tag name=verificacao-senhas) e autenticacao.login.rejeitados.
+ */
+@Component
+public class VerificadorSenhas {
+
+    private static final Logger log = LoggerFactory.getLogger(VerificadorSenhas.class);
+
+    private static final String NOME = "verificacao-senhas";
+
+    private final AuthenticationManager authenticationManager;
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final Counter rejeitados;
+
+    public VerificadorSenhas(AuthenticationManager authenticationManager,
+                             @Value("${app.login.threads:0}") int threads,
+                             @Value("${app.login.fila:64}") int fila,
+                             MeterRegistry meterRegistry) {
+        this.authenticationManager = authenticationManager;
+        int tamanho = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequencia = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(tamanho, tamanho, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(fila),
+                tarefa -> {
+                    Thread thread = new Thread(tarefa, NOME + "-" + sequencia.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, NOME);
+        this.rejeitados = Counter.builder("autenticacao.login.rejeitados").register(meterRegistry);
+        log.info("LOGIN: verificação de senhas com {} threads e fila de {}.", tamanho, fila);
+    }
+
+    /**
+     * Autentica e-mail e senha no pool dedicado.
+     * @return Futuro com a Authentication (principal = Usuario) ou com a AuthenticationException da falha.
+     * @throws RejectedExecutionException se a fila estiver cheia.
+     */
+    public CompletableFuture<Authentication> autenticar(String email, String senha) {
+        try {
+            return CompletableFuture.supplyAsync(
+                    () -> authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(email, senha)),
+                    executor);
+        } catch (RejectedExecutionException e) {
+            rejeitados.increment();
+            log.warn("LOGIN RECUSADO: fila de verificação de senhas cheia ({} aguardando).", pool.getQueue().size());
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdown();
+    }
+}
@@ -3,6 +3,7 @@ package com.postechfiap.meuhospital.autenticacao.service;
 import com.postechfiap.meuhospital.autenticacao.entity.Usuario;
 import com.postechfiap.meuhospital.contracts.core.UsuarioRegisterRequest;
 import com.postechfiap.meuhospital.contracts.core.UsuarioResponse;
+import com.postechfiap.meuhospital.contracts.core.UsuarioUpdateRequest;
 import com.postechfiap.meuhospital.contracts.usuario.PacienteResponse;
 
 import java.util.List;
@@ -22,6 +23,16 @@ public interface UsuarioService {
      */
     UsuarioResponse criarUsuario(UsuarioRegisterRequest request);
 
+    /**
+     * Atualiza os dados cadastrais de um usuário existente e notifica os demais serviços via Kafka.
+     * O perfil (Role) não pode ser alterado, e o e-mail só pode ser alterado pelo próprio usuário.
+     * @param id ID do usuário.
+     * @param request DTO de atualização do usuário.
+     * @param solicitanteId ID do usuário autenticado que solicitou a alteração.
+     * @return DTO de resposta do usuário atualizado.
+     */
+    UsuarioResponse atualizarUsuario(UUID id, UsuarioUpdateRequest request, UUID solicitanteId);
+
     /**
      * Busca um usuário pelo ID.
      * @param id ID do usuário.
@@ -36,5 +47,13 @@ public interface UsuarioService {
      */
     Optional<Usuario> buscarUsuarioPorEmail(String email);
 
+    /**
+     * Busca vários usuários pelo ID em uma única consulta (uso Service-to-Service).
+     * IDs inexistentes são ignorados.
+     * @param ids IDs dos usuários.
+     * @return Lista de DTOs dos usuários encontrados.
+     */
+    List<UsuarioResponse> buscarUsuariosPorIds(List<UUID> ids);
+
     List<PacienteResponse> listarPacientes();
 }
@@ -1,7 +1,9 @@
 package com.postechfiap.meuhospital.autenticacao.service.impl;
 
+import com.postechfiap.meuhospital.autenticacao.entity.Usuario;
 import com.postechfiap.meuhospital.autenticacao.repository.UsuarioRepository;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -10,10 +12,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Serviço que implementa a interface UserDetailsService do Spring Security.
+ * Serviço que implementa as interfaces UserDetailsService e UserDetailsPasswordService do Spring Security.
+ * A segunda permite ao DaoAuthenticationProvider regravar o hash da senha no login quando o custo do
+ * BCrypt (app.senha.custo) mudou.
  */
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private static final Logger log = LoggerFactory.getLogger(UserDetailsServiceImpl.class);
 
@@ -43,4 +47,21 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         log.debug("SUCESSO: UserDetails encontrado para o ID: {}", ((com.postechfiap.meuhospital.autenticacao.entity.Usuario) user).getId());
         return user;
     }
+
+    /**
+     * Regrava a senha com o hash no custo atual (chamado após um login bem-sucedido com hash de custo diferente).
+     * @param user O usuário autenticado.
+     * @param newPassword A senha já codificada com o custo atual.
+     * @return O Usuario atualizado, usado como principal da autenticação.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Usuario usuario = usuarioRepository.findByEmail(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com e-mail: " + user.getUsername()));
+        usuario.setSenha(newPassword);
+        Usuario usuarioSalvo = usuarioRepository.save(usuario);
+        log.info("SENHA: hash do usuário ID {} regravado com o custo atual do BCrypt.", usuarioSalvo.getId());
+        return usuarioSalvo;
+    }
 }
\ No newline at end of file
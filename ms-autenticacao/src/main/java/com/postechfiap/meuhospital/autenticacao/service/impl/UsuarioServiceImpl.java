@@ -4,20 +4,27 @@ import com.postechfiap.meuhospital.autenticacao.entity.Usuario;
 import com.postechfiap.meuhospital.autenticacao.exception.RecursoNaoEncontradoException;
 import com.postechfiap.meuhospital.autenticacao.exception.UsuarioExistenteException;
 import com.postechfiap.meuhospital.autenticacao.kafka.MedicoProducer;
+import com.postechfiap.meuhospital.autenticacao.kafka.UsuarioProducer;
 import com.postechfiap.meuhospital.autenticacao.mapper.UsuarioMapper;
 import com.postechfiap.meuhospital.autenticacao.repository.UsuarioRepository;
 import com.postechfiap.meuhospital.autenticacao.service.UsuarioService;
 import com.postechfiap.meuhospital.contracts.core.Role;
 import com.postechfiap.meuhospital.contracts.core.UsuarioRegisterRequest;
 import com.postechfiap.meuhospital.contracts.core.UsuarioResponse;
+import com.postechfiap.meuhospital.contracts.core.UsuarioUpdateRequest;
 import com.postechfiap.meuhospital.contracts.events.MedicoEvent;
+import com.postechfiap.meuhospital.contracts.events.UsuarioAtualizadoEvent;
 import com.postechfiap.meuhospital.contracts.usuario.PacienteResponse;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -36,12 +43,14 @@ public class UsuarioServiceImpl implements UsuarioService {
     private final UsuarioMapper usuarioMapper;
     private final PasswordEncoder passwordEncoder;
     private final MedicoProducer medicoProducer;
+    private final UsuarioProducer usuarioProducer;
 
-    public UsuarioServiceImpl(UsuarioRepository usuarioRepository, UsuarioMapper usuarioMapper, PasswordEncoder passwordEncoder, MedicoProducer medicoProducer) {
+    public UsuarioServiceImpl(UsuarioRepository usuarioRepository, UsuarioMapper usuarioMapper, PasswordEncoder passwordEncoder, MedicoProducer medicoProducer, UsuarioProducer usuarioProducer) {
         this.usuarioRepository = usuarioRepository;
         this.usuarioMapper = usuarioMapper;
         this.passwordEncoder = passwordEncoder;
         this.medicoProducer = medicoProducer;
+        this.usuarioProducer = usuarioProducer;
     }
 
     /**
@@ -53,7 +62,7 @@ public class UsuarioServiceImpl implements UsuarioService {
         log.info("Processando criação de novo usuário. E-mail: {}, Role: {}", request.email(), request.role());
 
         validarUnicidade(request.email(), request.cpf());
-        validarCamposCondicionais(request);
+        validarCamposCondicionais(request.role(), request.numeroRegistro(), request.especialidade(), request.dataNascimento());
 
         Usuario novoUsuario = usuarioMapper.toEntity(request);
         novoUsuario.setSenha(passwordEncoder.encode(request.senha()));
@@ -62,13 +71,59 @@ public class UsuarioServiceImpl implements UsuarioService {
         log.info("Usuário ID {} salvo no banco de dados.", usuarioSalvo.getId());
 
         if (usuarioSalvo.getRole() == Role.MEDICO) {
-            publishMedicoEvent(usuarioSalvo, "CRIACAO");
-            log.info("Evento MedicoEvent (CRIACAO) publicado para o ID: {}", usuarioSalvo.getId());
+            aposCommit(() -> {
+                publishMedicoEvent(usuarioSalvo, "CRIACAO");
+                log.info("Evento MedicoEvent (CRIACAO) publicado para o ID: {}", usuarioSalvo.getId());
+            });
         }
 
         return usuarioMapper.toResponse(usuarioSalvo);
     }
 
+    /**
+     * Atualiza os dados cadastrais do usuário e publica UsuarioAtualizadoEvent
+     * (e MedicoEvent de ATUALIZACAO para médicos) após o commit.
+     * O e-mail é o login: só o próprio usuário pode alterá-lo.
+     */
+    @Override
+    @Transactional
+    public UsuarioResponse atualizarUsuario(UUID id, UsuarioUpdateRequest request, UUID solicitanteId) {
+        log.info("Processando atualização do usuário ID {}.", id);
+
+        Usuario usuario = usuarioRepository.findById(id)
+                .orElseThrow(() -> new RecursoNaoEncontradoException("Usuário com ID " + id + " não encontrado."));
+
+        if (usuario.getRole() != request.role()) {
+            log.warn("Validação falhou: tentativa de alterar a Role do usuário ID {}.", id);
+            throw new IllegalArgumentException("O perfil (Role) do usuário não pode ser alterado.");
+        }
+        boolean alteraEmail = !usuario.getEmail().equalsIgnoreCase(request.email());
+        if (alteraEmail && !id.equals(solicitanteId)) {
+            log.warn("Acesso negado: usuário ID {} tentou alterar o e-mail do usuário ID {}.", solicitanteId, id);
+            throw new AccessDeniedException("Apenas o próprio usuário pode alterar o e-mail de acesso.");
+        }
+        if (alteraEmail && usuarioRepository.existsByEmail(request.email())) {
+            log.warn("Falha de unicidade: E-mail já existe.");
+            throw new UsuarioExistenteException("Email já cadastrado no sistema.");
+        }
+        validarCamposCondicionais(request.role(), request.numeroRegistro(), request.especialidade(), request.dataNascimento());
+
+        usuarioMapper.updateEntity(usuario, request);
+        Usuario usuarioSalvo = usuarioRepository.save(usuario);
+        log.info("Usuário ID {} atualizado no banco de dados.", id);
+
+        // Só após o commit: um consumidor que reage ao evento (ex: invalidação do cache de pacientes) relê o dado novo
+        aposCommit(() -> {
+            if (usuarioSalvo.getRole() == Role.MEDICO) {
+                publishMedicoEvent(usuarioSalvo, "ATUALIZACAO");
+            }
+            usuarioProducer.sendUsuarioEvent(new UsuarioAtualizadoEvent(
+                    usuarioSalvo.getId(), usuarioSalvo.getRole(), "ATUALIZACAO", LocalDateTime.now()));
+        });
+
+        return usuarioMapper.toResponse(usuarioSalvo);
+    }
+
     /**
      * Busca um usuário pelo ID.
      */
@@ -81,6 +136,17 @@ public class UsuarioServiceImpl implements UsuarioService {
         return usuarioMapper.toResponse(usuario);
     }
 
+    /**
+     * Busca vários usuários pelo ID em uma única consulta.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<UsuarioResponse> buscarUsuariosPorIds(List<UUID> ids) {
+        log.debug("Buscando {} usuários por ID (lote).", ids.size());
+        List<Usuario> usuarios = usuarioRepository.findAllById(ids);
+        return usuarioMapper.toResponseList(usuarios);
+    }
+
     /**
      * Lista todos os usuários com a Role PACIENTE.
      */
@@ -127,13 +193,12 @@ public class UsuarioServiceImpl implements UsuarioService {
     /**
      * Implementa as regras de validação de domínio baseadas na Role.
      */
-    private void validarCamposCondicionais(UsuarioRegisterRequest request) {
-        Role role = request.role();
+    private void validarCamposCondicionais(Role role, String numeroRegistro, String especialidade, LocalDate dataNascimento) {
         log.debug("Validando campos condicionais para a Role: {}", role);
 
         // Validação de Registro Profissional (Médico e Enfermeiro)
         if (role == Role.MEDICO || role == Role.ENFERMEIRO) {
-            if (request.numeroRegistro() == null || request.numeroRegistro().isBlank()) {
+            if (numeroRegistro == null || numeroRegistro.isBlank()) {
                 log.warn("Validação falhou: {} sem número de registro.", role);
                 throw new IllegalArgumentException(role.name() + " deve fornecer um número de registro (CRM/COREN).");
             }
@@ -141,12 +206,12 @@ public class UsuarioServiceImpl implements UsuarioService {
 
         // Validação de Especialidade (Apenas Médico)
         if (role == Role.MEDICO) {
-            if (request.especialidade() == null || request.especialidade().isBlank()) {
+            if (especialidade == null || especialidade.isBlank()) {
                 log.warn("Validação falhou: Médico sem especialidade.");
                 throw new IllegalArgumentException("Médico deve fornecer a especialidade.");
             }
         } else {
-            if (request.especialidade() != null && !request.especialidade().isBlank()) {
+            if (especialidade != null && !especialidade.isBlank()) {
                 log.warn("Validação falhou: Especialidade definida para Role não-médica.");
                 throw new IllegalArgumentException("Apenas médicos podem ter especialidade definida.");
             }
@@ -154,18 +219,35 @@ public class UsuarioServiceImpl implements UsuarioService {
 
         // Validação de Data de Nascimento (Apenas Paciente)
         if (role == Role.PACIENTE) {
-            if (request.dataNascimento() == null) {
+            if (dataNascimento == null) {
                 log.warn("Validação falhou: Paciente sem data de nascimento.");
                 throw new IllegalArgumentException("Paciente deve fornecer a data de nascimento.");
             }
         } else {
-            if (request.dataNascimento() != null) {
+            if (dataNascimento != null) {
                 log.warn("Validação falhou: Data de nascimento definida para Role não-paciente.");
                 throw new IllegalArgumentException("A data de nascimento é exclusiva para o perfil Paciente.");
             }
         }
     }
 
+    /**
+     * Executa a publicação após o commit da transação atual (ou imediatamente, fora de transação),
+     * para que nenhum evento anuncie uma alteração desfeita por rollback.
+     */
+    private void aposCommit(Runnable publicacao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publicacao.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publicacao.run();
+            }
+        });
+    }
+
     /**
      * Publica o evento no Kafka.
      */
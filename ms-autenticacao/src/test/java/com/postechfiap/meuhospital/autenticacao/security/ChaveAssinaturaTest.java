@@ -0,0 +1,95 @@
+package com.postechfiap.meuhospital.autenticacao.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PrivateJwk;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.PublicKey;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Persistência do par de assinatura no JWK Set (app.jwt.chave-privada-arquivo) e 'kid' pelo thumbprint da chave pública.
+ */
+class ChaveAssinaturaTest {
+
+    @TempDir
+    private Path diretorio;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ES256", "EdDSA"})
+    void parGeradoEGravadoERelidoComOMesmoKid(String algoritmo) {
+        String arquivo = diretorio.resolve("jwt/chave-privada.json").toString();
+
+        ChaveAssinatura gerada = ChaveAssinatura.carregar(algoritmo, arquivo, false);
+        ChaveAssinatura relida = ChaveAssinatura.carregar(algoritmo, arquivo, false);
+
+        assertThat(relida.kid()).isEqualTo(gerada.kid()).isEqualTo(thumbprint(gerada.chavesPublicas().get(gerada.kid())));
+        assertThat(relida.chavesPublicas()).isEqualTo(gerada.chavesPublicas());
+        assertThat(relida.jwks()).isEqualTo(gerada.jwks());
+
+        // O token assinado antes do reinício continua verificável com a chave relida
+        String token = Jwts.builder().subject("maria@meuhospital.com")
+                .header().keyId(gerada.kid()).and()
+                .signWith(gerada.chavePrivada(), gerada.algoritmo())
+                .compact();
+        PublicKey publica = relida.chavesPublicas().get(relida.kid());
+        assertThat(Jwts.parser().verifyWith(publica).build().parseSignedClaims(token).getPayload().getSubject())
+                .isEqualTo("maria@meuhospital.com");
+    }
+
+    @Test
+    void jwksPublicaSoAsChavesPublicasComOKid() {
+        ChaveAssinatura chave = ChaveAssinatura.carregar("ES256", diretorio.resolve("chave.json").toString(), false);
+
+        JwkSet jwks = Jwks.setParser().build().parse(chave.jwks());
+
+        assertThat(jwks.getKeys()).hasSize(1);
+        Jwk<?> publicada = jwks.getKeys().iterator().next();
+        assertThat(publicada).isNotInstanceOf(PrivateJwk.class);
+        assertThat(publicada.getId()).isEqualTo(chave.kid());
+        assertThat(publicada.toKey()).isEqualTo(chave.chavesPublicas().get(chave.kid()));
+    }
+
+    @Test
+    void arquivoComChavesSemKidUsaOThumbprintEAPrimeiraAssina() throws IOException {
+        PrivateJwk<?, ?, ?> ativa = Jwks.builder().keyPair(Jwts.SIG.ES256.keyPair().build()).build();
+        PrivateJwk<?, ?, ?> anterior = Jwks.builder().keyPair(Jwts.SIG.ES256.keyPair().build()).build();
+        Path arquivo = diretorio.resolve("chaves.json");
+        Files.writeString(arquivo, "{\"keys\":[" + Jwks.UNSAFE_JSON(ativa) + "," + Jwks.UNSAFE_JSON(anterior) + "]}",
+                StandardCharsets.UTF_8);
+
+        ChaveAssinatura chave = ChaveAssinatura.carregar("ES256", arquivo.toString(), false);
+
+        String kidAtiva = thumbprint(ativa.toPublicJwk().toKey());
+        String kidAnterior = thumbprint(anterior.toPublicJwk().toKey());
+        assertThat(chave.kid()).isEqualTo(kidAtiva);
+        assertThat(chave.chavePrivada()).isEqualTo(ativa.toKey());
+        assertThat(chave.chavesPublicas()).containsOnlyKeys(kidAtiva, kidAnterior);
+    }
+
+    @Test
+    void semArquivoSoAceitaParEfemeroQuandoPermitido() {
+        assertThatThrownBy(() -> ChaveAssinatura.carregar("ES256", "", false))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("app.jwt.chave-privada-arquivo");
+
+        ChaveAssinatura efemera = ChaveAssinatura.carregar("ES256", "", true);
+        assertThat(efemera.kid()).isEqualTo(thumbprint(efemera.chavesPublicas().get(efemera.kid())));
+    }
+
+    private static String thumbprint(PublicKey chave) {
+        return Jwks.builder().key(chave).build().thumbprint().toString();
+    }
+}
@@ -0,0 +1,36 @@
+package com.postechfiap.meuhospital.autenticacao.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustoBCryptPasswordEncoderTest {
+
+    private static final String RESTO_DO_HASH = "N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy";
+
+    private final CustoBCryptPasswordEncoder encoder = new CustoBCryptPasswordEncoder(12);
+
+    @Test
+    void hashComOCustoConfiguradoNaoPrecisaDeRehash() {
+        assertThat(encoder.upgradeEncoding("$2y$12$" + RESTO_DO_HASH)).isFalse();
+        assertThat(encoder.upgradeEncoding("$2a$12$" + RESTO_DO_HASH)).isFalse();
+        assertThat(encoder.upgradeEncoding(encoder.encode("senha-do-paciente"))).isFalse();
+    }
+
+    @Test
+    void hashComCustoMenorOuMaiorPrecisaDeRehash() {
+        assertThat(encoder.upgradeEncoding("$2a$10$" + RESTO_DO_HASH)).isTrue();
+        assertThat(encoder.upgradeEncoding("$2b$14$" + RESTO_DO_HASH)).isTrue();
+        assertThat(new CustoBCryptPasswordEncoder(10).upgradeEncoding("$2y$12$" + RESTO_DO_HASH)).isTrue();
+    }
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"$2a$1", "$2a$xx$" + RESTO_DO_HASH, "2a$10$" + RESTO_DO_HASH, "{noop}senha", "texto-puro"})
+    void hashMalformadoNaoPedeRehash(String hash) {
+        assertThat(encoder.upgradeEncoding(hash)).isFalse();
+    }
+}
@@ -0,0 +1,79 @@
+package com.postechfiap.meuhospital.autenticacao.service.impl;
+
+import com.postechfiap.meuhospital.autenticacao.entity.Usuario;
+import com.postechfiap.meuhospital.autenticacao.repository.UsuarioRepository;
+import com.postechfiap.meuhospital.autenticacao.security.CustoBCryptPasswordEncoder;
+import com.postechfiap.meuhospital.contracts.core.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Login pelo DaoAuthenticationProvider (como no AuthenticationManager do ms-autenticacao) com o
+ * CustoBCryptPasswordEncoder: hash com custo diferente de app.senha.custo é regravado no banco.
+ */
+class UserDetailsServiceImplTest {
+
+    private static final String EMAIL = "maria@meuhospital.com";
+    private static final String SENHA = "senha-do-paciente";
+
+    private final UsuarioRepository usuarioRepository = mock(UsuarioRepository.class);
+    private final CustoBCryptPasswordEncoder encoder = new CustoBCryptPasswordEncoder(4);
+    private final UserDetailsServiceImpl service = new UserDetailsServiceImpl(usuarioRepository);
+
+    private DaoAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        provider = new DaoAuthenticationProvider(service);
+        provider.setPasswordEncoder(encoder);
+        provider.setUserDetailsPasswordService(service);
+        when(usuarioRepository.save(any())).thenAnswer(invocacao -> invocacao.getArgument(0));
+    }
+
+    @Test
+    void loginComHashDeOutroCustoRegravaASenhaNoCustoAtual() {
+        Usuario usuario = usuario(new CustoBCryptPasswordEncoder(5).encode(SENHA));
+
+        Authentication autenticacao = provider.authenticate(new UsernamePasswordAuthenticationToken(EMAIL, SENHA));
+
+        ArgumentCaptor<Usuario> salvo = ArgumentCaptor.forClass(Usuario.class);
+        verify(usuarioRepository).save(salvo.capture());
+        assertThat(salvo.getValue().getId()).isEqualTo(usuario.getId());
+        assertThat(salvo.getValue().getSenha()).startsWith("$2a$04$");
+        assertThat(encoder.matches(SENHA, salvo.getValue().getSenha())).isTrue();
+        assertThat(autenticacao.getPrincipal()).isSameAs(salvo.getValue());
+    }
+
+    @Test
+    void loginComHashNoCustoAtualNaoRegravaASenha() {
+        usuario(encoder.encode(SENHA));
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken(EMAIL, SENHA));
+
+        verify(usuarioRepository, never()).save(any());
+    }
+
+    private Usuario usuario(String hash) {
+        Usuario usuario = new Usuario();
+        usuario.setId(UUID.randomUUID());
+        usuario.setEmail(EMAIL);
+        usuario.setSenha(hash);
+        usuario.setRole(Role.PACIENTE);
+        when(usuarioRepository.findByEmail(EMAIL)).thenReturn(Optional.of(usuario));
+        return usuario;
+    }
+}
@@ -3,8 +3,10 @@ package com.postechfiap.meuhospital.historico;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 @EnableJpaRepositories(basePackages = "com.postechfiap.meuhospital.historico.repository")
 public class HistoricoMicroserviceApplication {
 
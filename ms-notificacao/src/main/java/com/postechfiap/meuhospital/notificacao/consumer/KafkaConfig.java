@@ -1,6 +1,7 @@
 package com.postechfiap.meuhospital.notificacao.consumer;
 
 import com.postechfiap.meuhospital.contracts.events.ConsultaCriadaEvent;
+import com.postechfiap.meuhospital.contracts.serializacao.EventoDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -29,6 +30,7 @@ public class KafkaConfig {
 
     /**
      * Define o ConsumerFactory configurado para desserializar o DTO de evento específico.
+     * Aceita mensagens em Avro e em JSON (fallback).
      */
     @Bean
     public ConsumerFactory<String, ConsultaCriadaEvent> consumerFactory() {
@@ -39,7 +41,7 @@ public class KafkaConfig {
 
         return new DefaultKafkaConsumerFactory<>(props,
                 new StringDeserializer(),
-                new JsonDeserializer<>(ConsultaCriadaEvent.class, false));
+                new EventoDeserializer<>(new JsonDeserializer<>(ConsultaCriadaEvent.class, false)));
     }
 
     /**
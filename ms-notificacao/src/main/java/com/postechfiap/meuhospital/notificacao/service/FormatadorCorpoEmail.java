@@ -0,0 +1,56 @@
+package com.postechfiap.meuhospital.notificacao.service;
+
+import com.postechfiap.meuhospital.contracts.events.ConsultaCriadaEvent;
+import org.springframework.stereotype.Component;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Texto dos e-mails enviados pelo NotificacaoService, sem dependências de envio ou auditoria.
+ */
+@Component
+public class FormatadorCorpoEmail {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private static final String TELEFONE_SUPORTE_HOSPITAL = "0800-90900";
+
+    /**
+     * Monta o corpo do e-mail conforme o tipo do evento.
+     */
+    public String formatar(ConsultaCriadaEvent event) {
+        String data = event.dataConsulta().format(FORMATTER);
+
+        StringBuilder builder = new StringBuilder();
+        builder.append("Prezado(a) ").append(event.nomePaciente()).append(",\n\n");
+
+        switch (event.tipoEvento()) {
+            case "CRIACAO":
+                builder.append("Sua consulta foi confirmada com sucesso.\n");
+                break;
+            case "CANCELAMENTO":
+                builder.append("SUA CONSULTA FOI CANCELADA.\n");
+                break;
+            case "LEMBRETE":
+                builder.append("Este é um lembrete. Sua consulta está marcada para amanhã!\n");
+                break;
+            case "ATUALIZACAO":
+                builder.append("SUA CONSULTA FOI ALTERADA.\n");
+                break;
+            default:
+                builder.append("Detalhes da Consulta:\n");
+        }
+
+        builder.append("ID da Consulta: ").append(event.consultaId()).append("\n");
+        builder.append("Data e Hora: ").append(data).append("\n");
+        builder.append("Médico(a): Dr(a). ").append(event.nomeMedico()).append("\n");
+        builder.append("ID do Médico: ").append(event.medicoId()).append("\n\n");
+
+        builder.append("Em caso de dúvidas ou necessidade de reagendamento, entre em contato:\n");
+        builder.append("Telefone de Suporte: ").append(TELEFONE_SUPORTE_HOSPITAL).append("\n");
+
+        builder.append("Obrigado,\nEquipe Meu Hospital");
+
+        return builder.toString();
+    }
+}
@@ -9,8 +9,6 @@ import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
-import java.time.format.DateTimeFormatter;
-
 /**
  * Serviço responsável por simular o envio de e-mails (via MailHog) e registrar o log de auditoria no MongoDB.
  */
@@ -18,16 +16,16 @@ import java.time.format.DateTimeFormatter;
 public class NotificacaoService {
 
     private static final Logger log = LoggerFactory.getLogger(NotificacaoService.class);
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
-
-    private static final String TELEFONE_SUPORTE_HOSPITAL = "0800-90900";
 
     private final JavaMailSender mailSender;
     private final NotificacaoRepository notificacaoRepository;
+    private final FormatadorCorpoEmail formatadorCorpoEmail;
 
-    public NotificacaoService(JavaMailSender mailSender, NotificacaoRepository notificacaoRepository) {
+    public NotificacaoService(JavaMailSender mailSender, NotificacaoRepository notificacaoRepository,
+                              FormatadorCorpoEmail formatadorCorpoEmail) {
         this.mailSender = mailSender;
         this.notificacaoRepository = notificacaoRepository;
+        this.formatadorCorpoEmail = formatadorCorpoEmail;
     }
 
     /**
@@ -49,7 +47,7 @@ public class NotificacaoService {
             message.setFrom("notificacao@meuhospital.com");
             message.setTo(event.emailPaciente());
 
-            String corpo = formatarCorpoEmail(event);
+            String corpo = formatadorCorpoEmail.formatar(event);
 
             switch (event.tipoEvento()) {
                 case "CRIACAO":
@@ -81,40 +79,4 @@ public class NotificacaoService {
             log.info("AUDITORIA SUCESSO: Log de notificação salvo no MongoDB. Status: {}", statusEnvio);
         }
     }
-
-    private String formatarCorpoEmail(ConsultaCriadaEvent event) {
-        String data = event.dataConsulta().format(FORMATTER);
-
-        StringBuilder builder = new StringBuilder();
-        builder.append("Prezado(a) ").append(event.nomePaciente()).append(",\n\n");
-
-        switch (event.tipoEvento()) {
-            case "CRIACAO":
-                builder.append("Sua consulta foi confirmada com sucesso.\n");
-                break;
-            case "CANCELAMENTO":
-                builder.append("SUA CONSULTA FOI CANCELADA.\n");
-                break;
-            case "LEMBRETE":
-                builder.append("Este é um lembrete. Sua consulta está marcada para amanhã!\n");
-                break;
-            case "ATUALIZACAO":
-                builder.append("SUA CONSULTA FOI ALTERADA.\n");
-                break;
-            default:
-                builder.append("Detalhes da Consulta:\n");
-        }
-
-        builder.append("ID da Consulta: ").append(event.consultaId()).append("\n");
-        builder.append("Data e Hora: ").append(data).append("\n");
-        builder.append("Médico(a): Dr(a). ").append(event.nomeMedico()).append("\n");
-        builder.append("ID do Médico: ").append(event.medicoId()).append("\n\n");
-
-        builder.append("Em caso de dúvidas ou necessidade de reagendamento, entre em contato:\n");
-        builder.append("Telefone de Suporte: ").append(TELEFONE_SUPORTE_HOSPITAL).append("\n");
-
-        builder.append("Obrigado,\nEquipe Meu Hospital");
-
-        return builder.toString();
-    }
-}
\ No newline at end of file
+}